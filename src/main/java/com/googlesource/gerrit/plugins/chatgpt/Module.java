@@ -1,14 +1,28 @@
 package com.googlesource.gerrit.plugins.chatgpt;
 
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.lifecycle.LifecycleModule;
 import com.google.gerrit.server.events.EventListener;
-import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
 import com.google.inject.multibindings.Multibinder;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStorageProvider;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
+import com.googlesource.gerrit.plugins.chatgpt.interfaces.data.IPluginDataStorage;
+import com.googlesource.gerrit.plugins.chatgpt.listener.EventHandlerExecutor;
 import com.googlesource.gerrit.plugins.chatgpt.listener.GerritListener;
+import com.googlesource.gerrit.plugins.chatgpt.listener.ProjectConfigListener;
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
 
-public class Module extends AbstractModule {
+public class Module extends LifecycleModule {
     @Override
     protected void configure() {
         Multibinder<EventListener> eventListenerBinder = Multibinder.newSetBinder(binder(), EventListener.class);
         eventListenerBinder.addBinding().to(GerritListener.class);
+        bind(IPluginDataStorage.class).toProvider(PluginDataStorageProvider.class).in(Scopes.SINGLETON);
+        listener().to(PluginDataStore.class);
+        listener().to(EventHandlerExecutor.class);
+        listener().to(RetrievalExecutor.class);
+        DynamicSet.bind(binder(), GitReferenceUpdatedListener.class).to(ProjectConfigListener.class);
     }
 }
@@ -4,8 +4,11 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.data.ChangeSetDataHandler;
+import com.googlesource.gerrit.plugins.chatgpt.data.FileReviewMemo;
+import com.googlesource.gerrit.plugins.chatgpt.data.ReviewCache;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.chatgpt.IChatGptClient;
 import com.googlesource.gerrit.plugins.chatgpt.localization.Localizer;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptTokenizer;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientReview;
@@ -17,7 +20,10 @@ import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.Gerr
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritComment;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.review.ReviewBatch;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateless.client.api.gerrit.GerritClientPatchSetStateless;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateless.client.prompt.ChatGptPromptBudget;
 import com.googlesource.gerrit.plugins.chatgpt.settings.Settings;
+import com.googlesource.gerrit.plugins.chatgpt.utils.HashUtils;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,7 +32,9 @@ import java.util.*;
 @Slf4j
 public class PatchSetReviewer {
     private static final String SPLIT_REVIEW_MSG = "Too many changes. Please consider splitting into patches smaller " +
-            "than %s lines for review.";
+            "than %s %s for review.";
+    private static final String SKIPPED_FILES_REVIEW_MSG = "Some files were not reviewed as the changes exceed the " +
+            "prompt budget of %s tokens: %s. Please consider splitting into smaller patches for a complete review.";
 
     private final Configuration config;
     private final GerritClient gerritClient;
@@ -36,11 +44,14 @@ public class PatchSetReviewer {
     private final IChatGptClient chatGptClient;
     private final Localizer localizer;
     private final DebugCodeBlocksReview debugCodeBlocksReview;
+    private final ReviewCache reviewCache;
+    private final FileReviewMemo fileReviewMemo;
 
     private GerritCommentRange gerritCommentRange;
     private List<ReviewBatch> reviewBatches;
     private List<GerritComment> commentProperties;
     private List<Integer> reviewScores;
+    private List<String> skippedFiles;
 
     @Inject
     PatchSetReviewer(
@@ -49,7 +60,9 @@ public class PatchSetReviewer {
             ChangeSetData changeSetData,
             Provider<GerritClientReview> clientReviewProvider,
             IChatGptClient chatGptClient,
-            Localizer localizer
+            Localizer localizer,
+            ReviewCache reviewCache,
+            FileReviewMemo fileReviewMemo
     ) {
         this.config = config;
         this.gerritClient = gerritClient;
@@ -57,12 +70,15 @@ public class PatchSetReviewer {
         this.clientReviewProvider = clientReviewProvider;
         this.chatGptClient = chatGptClient;
         this.localizer = localizer;
+        this.reviewCache = reviewCache;
+        this.fileReviewMemo = fileReviewMemo;
         debugCodeBlocksReview = new DebugCodeBlocksReview(localizer);
     }
 
     public void review(GerritChange change) throws Exception {
         reviewBatches = new ArrayList<>();
         reviewScores = new ArrayList<>();
+        skippedFiles = new ArrayList<>();
         commentProperties = gerritClient.getClientData(change).getCommentProperties();
         gerritCommentRange = new GerritCommentRange(gerritClient, change);
         String patchSet = gerritClient.getPatchSet(change);
@@ -77,6 +93,15 @@ public class PatchSetReviewer {
             log.debug("ChatGPT response: {}", reviewReply);
 
             retrieveReviewBatches(reviewReply, change);
+            if (!skippedFiles.isEmpty()) {
+                reviewBatches.add(new ReviewBatch(String.format(SKIPPED_FILES_REVIEW_MSG,
+                        config.getGptPromptTokenBudget(), String.join(", ", skippedFiles))));
+            }
+        }
+        if (changeSetData.getSupersededReview()) {
+            log.info("Review of change {} superseded by a newer Patch Set: results discarded",
+                    change.getFullChangeId());
+            return;
         }
         clientReviewProvider.get().setReview(change, reviewBatches, changeSetData, getReviewScore(change));
     }
@@ -120,10 +145,7 @@ public class PatchSetReviewer {
             boolean isNotNegative = isNotNegativeReply(score);
             boolean isIrrelevant = isIrrelevantReply(replyItem);
             boolean isHidden = replyItem.isRepeated() || replyItem.isConflicting() || isIrrelevant || isNotNegative;
-            if (!replyItem.isConflicting() && !isIrrelevant && score != null) {
-                log.debug("Score added: {}", score);
-                reviewScores.add(score);
-            }
+            addReviewScore(replyItem);
             if (changeSetData.getReplyFilterEnabled() && isHidden) {
                 continue;
             }
@@ -141,14 +163,142 @@ public class PatchSetReviewer {
         }
     }
 
+    private void addReviewScore(ChatGptReplyItem replyItem) {
+        Integer score = replyItem.getScore();
+        if (!replyItem.isConflicting() && !isIrrelevantReply(replyItem) && score != null) {
+            log.debug("Score added: {}", score);
+            reviewScores.add(score);
+        }
+    }
+
     private ChatGptResponseContent getReviewReply(GerritChange change, String patchSet) throws Exception {
-        List<String> patchLines = Arrays.asList(patchSet.split("\n"));
-        if (patchLines.size() > config.getMaxReviewLines()) {
+        // The line limit is deprecated in favor of the token budget, but still enforced where configured
+        Optional<Integer> maxReviewLines = config.getMaxReviewLines();
+        if (maxReviewLines.isPresent() && patchSet.split("\n").length > maxReviewLines.get()) {
             log.warn("Patch set too large. Skipping review. changeId: {}", change.getFullChangeId());
-            return new ChatGptResponseContent(String.format(SPLIT_REVIEW_MSG, config.getMaxReviewLines()));
+            return new ChatGptResponseContent(String.format(SPLIT_REVIEW_MSG, maxReviewLines.get(), "lines"));
+        }
+        if (config.getGptMode() == Settings.Modes.stateful) {
+            // In stateful mode the formatted patch is sent as a whole, so it can only be accepted or rejected
+            int patchSetTokens = ChatGptTokenizer.forModel(config.getGptModel()).estimateTokens(patchSet);
+            if (patchSetTokens > config.getGptPromptEstimatedTokenBudget()) {
+                return getSplitReviewReply(change);
+            }
+            return getCachedReviewReply(change, patchSet);
+        }
+        if (isFileReviewMemoApplicable(change)) {
+            return getMemoizedReviewReply(change);
+        }
+        Map<String, String> fileDiffsJson = gerritClient.getFileDiffsJson(change);
+        Optional<Map<String, String>> fittedFileDiffs = fitFileDiffs(change, fileDiffsJson);
+        if (fittedFileDiffs.isEmpty()) {
+            return getSplitReviewReply(change);
+        }
+        if (fittedFileDiffs.get().size() < fileDiffsJson.size()) {
+            patchSet = GerritClientPatchSetStateless.buildPatchSet(new ArrayList<>(fittedFileDiffs.get().values()),
+                    change);
+        }
+        return getCachedReviewReply(change, patchSet);
+    }
+
+    private ChatGptResponseContent getSplitReviewReply(GerritChange change) {
+        log.warn("Patch set too large for the prompt token budget. Skipping review. changeId: {}",
+                change.getFullChangeId());
+        return new ChatGptResponseContent(String.format(SPLIT_REVIEW_MSG, config.getGptPromptTokenBudget(), "tokens"));
+    }
+
+    private Optional<Map<String, String>> fitFileDiffs(GerritChange change, Map<String, String> fileDiffs) {
+        Optional<Map<String, String>> fittedFileDiffs = new ChatGptPromptBudget(config, changeSetData, change)
+                .fitFileDiffs(fileDiffs);
+        fittedFileDiffs.ifPresent(fitted -> fileDiffs.keySet().stream()
+                .filter(filename -> !fitted.containsKey(filename))
+                .forEach(skippedFiles::add));
+        return fittedFileDiffs;
+    }
+
+    private ChatGptResponseContent getCachedReviewReply(GerritChange change, String patchSet) throws Exception {
+        Optional<String> reviewCacheKey = getReviewCacheKey(change, patchSet);
+        if (reviewCacheKey.isPresent()) {
+            Optional<ChatGptResponseContent> cachedReviewReply = reviewCache.get(config, reviewCacheKey.get());
+            if (cachedReviewReply.isPresent()) {
+                log.info("Review of change {} retrieved from cache", change.getFullChangeId());
+                return cachedReviewReply.get();
+            }
+        }
+        ChatGptResponseContent reviewReply = chatGptClient.ask(changeSetData, change, patchSet);
+        reviewCacheKey.ifPresent(key -> reviewCache.put(config, key, reviewReply));
+
+        return reviewReply;
+    }
+
+    private ChatGptResponseContent getMemoizedReviewReply(GerritChange change) throws Exception {
+        Map<String, String> fileDiffsJson = gerritClient.getFileDiffsJson(change);
+        Map<String, String> fileKeys = new HashMap<>();
+        Map<String, String> changedFileDiffs = new LinkedHashMap<>();
+        List<ChatGptReplyItem> carriedForwardReplies = new ArrayList<>();
+        for (Map.Entry<String, String> fileDiff : fileDiffsJson.entrySet()) {
+            String filename = fileDiff.getKey();
+            String fileKey = fileReviewMemo.getFileKey(config, changeSetData, filename, fileDiff.getValue());
+            fileKeys.put(filename, fileKey);
+            Optional<List<ChatGptReplyItem>> memoizedReplies = fileReviewMemo.getReplies(filename, fileKey);
+            if (memoizedReplies.isPresent()) {
+                carriedForwardReplies.addAll(memoizedReplies.get());
+            }
+            else {
+                changedFileDiffs.put(filename, fileDiff.getValue());
+            }
         }
+        log.debug("Files changed since their last review: {}", changedFileDiffs.keySet());
 
-        return chatGptClient.ask(changeSetData, change, patchSet);
+        // The files left out by the token budget are not memoized, so that they are reviewed again on the next review
+        Optional<Map<String, String>> fittedFileDiffs = fitFileDiffs(change, changedFileDiffs);
+        if (fittedFileDiffs.isEmpty()) {
+            return getSplitReviewReply(change);
+        }
+        Set<String> changedFiles = fittedFileDiffs.get().keySet();
+        List<ChatGptReplyItem> replies = new ArrayList<>();
+        if (!changedFiles.isEmpty()) {
+            String changedPatchSet = GerritClientPatchSetStateless.buildPatchSet(
+                    new ArrayList<>(fittedFileDiffs.get().values()), change);
+            ChatGptResponseContent reviewReply = getCachedReviewReply(change, changedPatchSet);
+            if (reviewReply.getReplies() == null) {
+                return reviewReply;
+            }
+            replies.addAll(reviewReply.getReplies());
+        }
+        else {
+            log.info("No file changed since the last review of change {}", change.getFullChangeId());
+        }
+        fileReviewMemo.update(changeSetData, fileKeys, changedFiles, replies);
+        // The replies carried forward were already posted by a previous review, so they only count for the score
+        carriedForwardReplies.forEach(this::addReviewScore);
+
+        ChatGptResponseContent mergedReviewReply = new ChatGptResponseContent("");
+        mergedReviewReply.setReplies(replies);
+        return mergedReviewReply;
+    }
+
+    private boolean isFileReviewMemoApplicable(GerritChange change) {
+        // Forced reviews bypass the memo, so that all the files are reviewed again
+        return config.isFileReviewMemoEnabled() && config.getGptMode() == Settings.Modes.stateless &&
+                !change.getIsCommentEvent() && !changeSetData.getForcedReview();
+    }
+
+    private Optional<String> getReviewCacheKey(GerritChange change, String patchSet) {
+        // Only Patch Set reviews are cached, as the replies to comments depend on the conversation history
+        if (!config.isReviewCacheEnabled() || change.getIsCommentEvent() || changeSetData.getForcedReview()) {
+            return Optional.empty();
+        }
+        List<String> sortedDirectives = new ArrayList<>(changeSetData.getDirectives());
+        Collections.sort(sortedDirectives);
+        return Optional.of(HashUtils.hashData(List.of(
+                config.getGptMode().name(),
+                config.getGptModel(),
+                config.getString(Configuration.KEY_GPT_SYSTEM_PROMPT, ""),
+                String.valueOf(config.getGptFullFileReview()),
+                String.join("\n", sortedDirectives),
+                patchSet
+        )));
     }
 
     private Integer getReviewScore(GerritChange change) {
@@ -1,5 +1,7 @@
 package com.googlesource.gerrit.plugins.chatgpt.config;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.Change;
 import com.google.gerrit.entities.Project;
@@ -14,20 +16,25 @@ import com.google.gerrit.server.util.OneOffRequestContext;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerBaseProvider;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataScope;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jgit.lib.Config;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.googlesource.gerrit.plugins.chatgpt.config.DynamicConfiguration.KEY_DYNAMIC_CONFIG;
 
 @Singleton
 @Slf4j
 public class ConfigCreator {
+    private static final long MAX_CACHED_CONFIGS = 1000;
+
     private final String pluginName;
 
     private final AccountCache accountCache;
@@ -37,6 +44,15 @@ public class ConfigCreator {
     private final GerritApi gerritApi;
     private final PluginDataHandlerBaseProvider pluginDataHandlerBaseProvider;
 
+    // The materialized configurations are cached per project, and per dynamic configuration overlaid on them
+    private final Cache<Project.NameKey, Configuration> projectConfigs = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_CONFIGS)
+            .build();
+    private final Cache<DynamicConfigKey, Configuration> dynamicConfigs = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_CONFIGS)
+            .build();
+    private final AtomicLong generation = new AtomicLong();
+
     @Inject
     ConfigCreator(
             @PluginName String pluginName,
@@ -55,6 +71,55 @@ public class ConfigCreator {
     }
 
     public Configuration createConfig(Project.NameKey projectName, Change.Key changeKey) throws NoSuchProjectException {
+        // Configurations loaded while the cache is being invalidated may be outdated, and are therefore not cached
+        long loadGeneration = generation.get();
+        Configuration projectConfiguration = projectConfigs.getIfPresent(projectName);
+        if (projectConfiguration == null) {
+            projectConfiguration = loadProjectConfiguration(projectName);
+            cacheIfCurrent(projectConfigs, projectName, projectConfiguration, loadGeneration);
+        }
+        // `PluginDataHandlerProvider` cannot be injected because `GerritChange` is not initialized at this stage:
+        // instead of using `PluginDataHandlerProvider.getChangeScope`, `PluginDataHandlerBaseProvider.get` is employed
+        Map<String, String> dynamicConfig = pluginDataHandlerBaseProvider.get(PluginDataScope.change(changeKey.toString()))
+                .getJsonValue(KEY_DYNAMIC_CONFIG, String.class);
+        if (dynamicConfig == null || dynamicConfig.isEmpty()) {
+            return projectConfiguration;
+        }
+        log.info("DynamicConfig found for change '{}': {}", changeKey, dynamicConfig);
+        // The overlays are keyed by their content, so that a `/configure` command updating the dynamic configuration
+        // of a change never hits an outdated entry
+        DynamicConfigKey dynamicConfigKey = new DynamicConfigKey(projectName,
+                Collections.unmodifiableMap(new HashMap<>(dynamicConfig)));
+        Configuration dynamicConfiguration = dynamicConfigs.getIfPresent(dynamicConfigKey);
+        if (dynamicConfiguration == null) {
+            dynamicConfiguration = new Configuration(
+                    context,
+                    gerritApi,
+                    projectConfiguration.getGlobalConfig(),
+                    updateDynamicConfig(projectConfiguration.getProjectConfig(), pluginName, dynamicConfig),
+                    projectConfiguration.getGerritUserEmail(),
+                    projectConfiguration.getUserId()
+            );
+            cacheIfCurrent(dynamicConfigs, dynamicConfigKey, dynamicConfiguration, loadGeneration);
+        }
+        return dynamicConfiguration;
+    }
+
+    public synchronized void invalidate(Project.NameKey projectName) {
+        log.debug("Invalidating the cached configuration of project {}", projectName);
+        generation.incrementAndGet();
+        projectConfigs.invalidate(projectName);
+        dynamicConfigs.asMap().keySet().removeIf(key -> key.projectName().equals(projectName));
+    }
+
+    private synchronized <K> void cacheIfCurrent(Cache<K, Configuration> cache, K key, Configuration configuration,
+            long loadGeneration) {
+        if (generation.get() == loadGeneration) {
+            cache.put(key, configuration);
+        }
+    }
+
+    private Configuration loadProjectConfiguration(Project.NameKey projectName) throws NoSuchProjectException {
         PluginConfig globalConfig = configFactory.getFromGerritConfig(pluginName);
         log.debug(
             "These configuration items have been set in the global configuration: {}",
@@ -63,14 +128,6 @@ public class ConfigCreator {
         log.debug(
             "These configuration items have been set in the project configuration: {}",
             projectConfig.getNames());
-        // `PluginDataHandlerProvider` cannot be injected because `GerritChange` is not initialized at this stage:
-        // instead of using `PluginDataHandlerProvider.getChangeScope`, `PluginDataHandlerBaseProvider.get` is employed
-        Map<String, String> dynamicConfig = pluginDataHandlerBaseProvider.get(changeKey.toString())
-                .getJsonValue(KEY_DYNAMIC_CONFIG, String.class);
-        if (dynamicConfig != null && !dynamicConfig.isEmpty()) {
-            log.info("DynamicConfig found for change '{}': {}", changeKey, dynamicConfig);
-            projectConfig = updateDynamicConfig(projectConfig, pluginName, dynamicConfig);
-        }
         Optional<AccountState> gptAccount = getAccount(globalConfig);
         String email = gptAccount.map(a -> a.account().preferredEmail()).orElse("");
         Account.Id accountId =
@@ -121,4 +178,6 @@ public class ConfigCreator {
         }
         return configUpdater;
     }
+
+    private record DynamicConfigKey(Project.NameKey projectName, Map<String, String> dynamicConfig) {}
 }
@@ -1,11 +1,16 @@
 package com.googlesource.gerrit.plugins.chatgpt.config;
 
+import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.extensions.api.GerritApi;
 import com.google.gerrit.server.config.PluginConfig;
 import com.google.gerrit.server.util.ManualRequestContext;
 import com.google.gerrit.server.util.OneOffRequestContext;
 
+import com.googlesource.gerrit.plugins.chatgpt.utils.AhoCorasickMatcher;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,6 +18,7 @@ import java.util.*;
 import java.util.regex.Pattern;
 
 import static com.googlesource.gerrit.plugins.chatgpt.settings.Settings.Modes;
+import static com.googlesource.gerrit.plugins.chatgpt.settings.Settings.PluginDataStorages;
 
 @Slf4j
 public class Configuration {
@@ -27,6 +33,8 @@ public class Configuration {
     public static final String DEFAULT_GPT_MODEL = "gpt-4o";
     public static final double DEFAULT_GPT_REVIEW_TEMPERATURE = 0.2;
     public static final double DEFAULT_GPT_COMMENT_TEMPERATURE = 1.0;
+    public static final PluginDataStorages DEFAULT_PLUGIN_DATA_STORAGE = PluginDataStorages.embedded;
+    public static final int DEFAULT_PLUGIN_DATA_CHANGE_TTL_DAYS = 30;
 
     private static final String DEFAULT_GPT_MODE = "stateless";
     private static final boolean DEFAULT_REVIEW_PATCH_SET = true;
@@ -70,7 +78,8 @@ public class Configuration {
             ".bat"
     });
     private static final boolean DEFAULT_PROJECT_ENABLE = false;
-    private static final int DEFAULT_MAX_REVIEW_LINES = 1000;
+    private static final int DEFAULT_GPT_PROMPT_TOKEN_BUDGET = 100000;
+    private static final int DEFAULT_GPT_PROMPT_TOKEN_SAFETY_MARGIN = 15;
     private static final int DEFAULT_MAX_REVIEW_FILE_SIZE = 10000;
     private static final boolean DEFAULT_ENABLED_VOTING = false;
     private static final boolean DEFAULT_FILTER_NEGATIVE_COMMENTS = true;
@@ -85,6 +94,17 @@ public class Configuration {
     private static final boolean DEFAULT_IGNORE_RESOLVED_CHAT_GPT_COMMENTS = true;
     private static final boolean DEFAULT_FORCE_CREATE_ASSISTANT = false;
     private static final boolean DEFAULT_ENABLE_MESSAGE_DEBUGGING = false;
+    private static final int DEFAULT_VECTOR_STORE_MAX_INCREMENTAL_FILES = 500;
+    private static final int DEFAULT_REPO_FILE_MAX_SIZE = 1048576;
+    private static final int DEFAULT_REPO_FILE_LOADING_PARALLELISM = 4;
+    private static final int DEFAULT_GPT_REQUESTS_PER_MINUTE = 0;
+    private static final int DEFAULT_GPT_TOKENS_PER_MINUTE = 0;
+    private static final String DEFAULT_GPT_MODEL_RATE_LIMITS = "";
+    private static final boolean DEFAULT_REVIEW_CACHE_ENABLED = false;
+    private static final int DEFAULT_REVIEW_CACHE_TTL_HOURS = 168;
+    private static final int DEFAULT_REVIEW_CACHE_MAX_ENTRIES = 1000;
+    private static final boolean DEFAULT_FILE_REVIEW_MEMO_ENABLED = false;
+    private static final int DEFAULT_FILE_DIFF_RETRIEVAL_PARALLELISM = 4;
 
     // Config setting keys
     public static final String KEY_GPT_SYSTEM_PROMPT = "gptSystemPrompt";
@@ -94,6 +114,8 @@ public class Configuration {
     public static final String KEY_VOTING_MIN_SCORE = "votingMinScore";
     public static final String KEY_VOTING_MAX_SCORE = "votingMaxScore";
     public static final String KEY_GERRIT_USERNAME = "gerritUserName";
+    public static final String KEY_PLUGIN_DATA_STORAGE = "pluginDataStorage";
+    public static final String KEY_PLUGIN_DATA_CHANGE_TTL_DAYS = "pluginDataChangeTtlDays";
 
     private static final String KEY_GPT_TOKEN = "gptToken";
     private static final String KEY_GPT_DOMAIN = "gptDomain";
@@ -112,6 +134,8 @@ public class Configuration {
     private static final String KEY_DISABLED_TOPIC_FILTER = "disabledTopicFilter";
     private static final String KEY_ENABLED_TOPIC_FILTER = "enabledTopicFilter";
     private static final String KEY_ENABLED_PROJECTS = "enabledProjects";
+    private static final String KEY_GPT_PROMPT_TOKEN_BUDGET = "gptPromptTokenBudget";
+    private static final String KEY_GPT_PROMPT_TOKEN_SAFETY_MARGIN = "gptPromptTokenSafetyMargin";
     private static final String KEY_MAX_REVIEW_LINES = "maxReviewLines";
     private static final String KEY_MAX_REVIEW_FILE_SIZE = "maxReviewFileSize";
     private static final String KEY_ENABLED_FILE_EXTENSIONS = "enabledFileExtensions";
@@ -126,6 +150,17 @@ public class Configuration {
     private static final String KEY_IGNORE_RESOLVED_CHAT_GPT_COMMENTS = "ignoreResolvedChatGptComments";
     private static final String KEY_FORCE_CREATE_ASSISTANT = "forceCreateAssistant";
     private static final String KEY_ENABLE_MESSAGE_DEBUGGING = "enableMessageDebugging";
+    private static final String KEY_VECTOR_STORE_MAX_INCREMENTAL_FILES = "vectorStoreMaxIncrementalFiles";
+    private static final String KEY_REPO_FILE_MAX_SIZE = "repoFileMaxSize";
+    private static final String KEY_REPO_FILE_LOADING_PARALLELISM = "repoFileLoadingParallelism";
+    private static final String KEY_GPT_REQUESTS_PER_MINUTE = "gptRequestsPerMinute";
+    private static final String KEY_GPT_TOKENS_PER_MINUTE = "gptTokensPerMinute";
+    private static final String KEY_GPT_MODEL_RATE_LIMITS = "gptModelRateLimits";
+    private static final String KEY_REVIEW_CACHE_ENABLED = "reviewCacheEnabled";
+    private static final String KEY_REVIEW_CACHE_TTL_HOURS = "reviewCacheTtlHours";
+    private static final String KEY_REVIEW_CACHE_MAX_ENTRIES = "reviewCacheMaxEntries";
+    private static final String KEY_FILE_REVIEW_MEMO_ENABLED = "fileReviewMemoEnabled";
+    private static final String KEY_FILE_DIFF_RETRIEVAL_PARALLELISM = "fileDiffRetrievalParallelism";
 
     private final OneOffRequestContext context;
     @Getter
@@ -139,6 +174,18 @@ public class Configuration {
     @Getter
     private final GerritApi gerritApi;
 
+    // The list-valued settings are parsed only once per Configuration, which is shared by the events of a project
+    private final Supplier<Set<String>> disabledUsers;
+    private final Supplier<Set<String>> enabledUsers;
+    private final Supplier<Set<String>> disabledGroups;
+    private final Supplier<Set<String>> enabledGroups;
+    private final Supplier<Set<String>> disabledTopicFilter;
+    private final Supplier<Set<String>> enabledTopicFilter;
+    private final Supplier<Set<String>> enabledFileExtensions;
+    private final Supplier<Set<String>> enabledProjects;
+    private final Supplier<AhoCorasickMatcher> disabledTopicMatcher;
+    private final Supplier<AhoCorasickMatcher> enabledTopicMatcher;
+
 
     public Configuration(OneOffRequestContext context, GerritApi gerritApi, PluginConfig globalConfig, PluginConfig projectConfig, String gerritUserEmail, Account.Id userId) {
         this.context = context;
@@ -147,6 +194,17 @@ public class Configuration {
         this.projectConfig = projectConfig;
         this.gerritUserEmail = gerritUserEmail;
         this.userId = userId;
+        disabledUsers = memoizeSetConfig(KEY_DISABLED_USERS, DEFAULT_DISABLED_USERS);
+        enabledUsers = memoizeSetConfig(KEY_ENABLED_USERS, DEFAULT_ENABLED_USERS);
+        disabledGroups = memoizeSetConfig(KEY_DISABLED_GROUPS, DEFAULT_DISABLED_GROUPS);
+        enabledGroups = memoizeSetConfig(KEY_ENABLED_GROUPS, DEFAULT_ENABLED_GROUPS);
+        disabledTopicFilter = memoizeSetConfig(KEY_DISABLED_TOPIC_FILTER, DEFAULT_DISABLED_TOPIC_FILTER);
+        enabledTopicFilter = memoizeSetConfig(KEY_ENABLED_TOPIC_FILTER, DEFAULT_ENABLED_TOPIC_FILTER);
+        enabledFileExtensions = memoizeSetConfig(KEY_ENABLED_FILE_EXTENSIONS, DEFAULT_ENABLED_FILE_EXTENSIONS);
+        enabledProjects = Suppliers.memoize(() -> ImmutableSet.copyOf(Splitter.on(",").omitEmptyStrings()
+                .split(globalConfig.getString(KEY_ENABLED_PROJECTS, DEFAULT_ENABLED_PROJECTS))));
+        disabledTopicMatcher = Suppliers.memoize(() -> new AhoCorasickMatcher(disabledTopicFilter.get()));
+        enabledTopicMatcher = Suppliers.memoize(() -> new AhoCorasickMatcher(enabledTopicFilter.get()));
     }
 
     public ManualRequestContext openRequestContext() {
@@ -202,44 +260,103 @@ public class Configuration {
         return globalConfig.getBoolean(KEY_GLOBAL_ENABLE, DEFAULT_GLOBAL_ENABLE);
     }
 
-    public List<String> getDisabledUsers() {
-        return splitConfig(globalConfig.getString(KEY_DISABLED_USERS, DEFAULT_DISABLED_USERS));
+    public Set<String> getDisabledUsers() {
+        return disabledUsers.get();
+    }
+
+    public Set<String> getEnabledUsers() {
+        return enabledUsers.get();
+    }
+
+    public Set<String> getDisabledGroups() {
+        return disabledGroups.get();
+    }
+
+    public Set<String> getEnabledGroups() {
+        return enabledGroups.get();
+    }
+
+    public Set<String> getDisabledTopicFilter() {
+        return disabledTopicFilter.get();
+    }
+
+    public Set<String> getEnabledTopicFilter() {
+        return enabledTopicFilter.get();
+    }
+
+    public AhoCorasickMatcher getDisabledTopicMatcher() {
+        return disabledTopicMatcher.get();
+    }
+
+    public AhoCorasickMatcher getEnabledTopicMatcher() {
+        return enabledTopicMatcher.get();
+    }
+
+    public Set<String> getEnabledProjects() {
+        return enabledProjects.get();
+    }
+
+    public int getGptRequestsPerMinute() {
+        return globalConfig.getInt(KEY_GPT_REQUESTS_PER_MINUTE, DEFAULT_GPT_REQUESTS_PER_MINUTE);
+    }
+
+    public int getGptTokensPerMinute() {
+        return globalConfig.getInt(KEY_GPT_TOKENS_PER_MINUTE, DEFAULT_GPT_TOKENS_PER_MINUTE);
+    }
+
+    public List<String> getGptModelRateLimits() {
+        return splitConfig(globalConfig.getString(KEY_GPT_MODEL_RATE_LIMITS, DEFAULT_GPT_MODEL_RATE_LIMITS));
+    }
+
+    public boolean isReviewCacheEnabled() {
+        return globalConfig.getBoolean(KEY_REVIEW_CACHE_ENABLED, DEFAULT_REVIEW_CACHE_ENABLED);
+    }
+
+    public int getReviewCacheTtlHours() {
+        return globalConfig.getInt(KEY_REVIEW_CACHE_TTL_HOURS, DEFAULT_REVIEW_CACHE_TTL_HOURS);
     }
 
-    public List<String> getEnabledUsers() {
-        return splitConfig(globalConfig.getString(KEY_ENABLED_USERS, DEFAULT_ENABLED_USERS));
+    public int getReviewCacheMaxEntries() {
+        return globalConfig.getInt(KEY_REVIEW_CACHE_MAX_ENTRIES, DEFAULT_REVIEW_CACHE_MAX_ENTRIES);
     }
 
-    public List<String> getDisabledGroups() {
-        return splitConfig(globalConfig.getString(KEY_DISABLED_GROUPS, DEFAULT_DISABLED_GROUPS));
+    public boolean isFileReviewMemoEnabled() {
+        return globalConfig.getBoolean(KEY_FILE_REVIEW_MEMO_ENABLED, DEFAULT_FILE_REVIEW_MEMO_ENABLED);
     }
 
-    public List<String> getEnabledGroups() {
-        return splitConfig(globalConfig.getString(KEY_ENABLED_GROUPS, DEFAULT_ENABLED_GROUPS));
+    public int getFileDiffRetrievalParallelism() {
+        return globalConfig.getInt(KEY_FILE_DIFF_RETRIEVAL_PARALLELISM, DEFAULT_FILE_DIFF_RETRIEVAL_PARALLELISM);
     }
 
-    public List<String> getDisabledTopicFilter() {
-        return splitConfig(globalConfig.getString(KEY_DISABLED_TOPIC_FILTER, DEFAULT_DISABLED_TOPIC_FILTER));
+    public int getGptPromptTokenBudget() {
+        return getInt(KEY_GPT_PROMPT_TOKEN_BUDGET, DEFAULT_GPT_PROMPT_TOKEN_BUDGET);
     }
 
-    public List<String> getEnabledTopicFilter() {
-        return splitConfig(globalConfig.getString(KEY_ENABLED_TOPIC_FILTER, DEFAULT_ENABLED_TOPIC_FILTER));
+    // Percentage of the budget kept free to absorb the error of the local token estimates
+    public int getGptPromptTokenSafetyMargin() {
+        return Math.max(0, Math.min(100, getInt(KEY_GPT_PROMPT_TOKEN_SAFETY_MARGIN,
+                DEFAULT_GPT_PROMPT_TOKEN_SAFETY_MARGIN)));
     }
 
-    public String getEnabledProjects() {
-        return globalConfig.getString(KEY_ENABLED_PROJECTS, DEFAULT_ENABLED_PROJECTS);
+    // Budget that the estimated tokens of the prompt are compared to
+    public int getGptPromptEstimatedTokenBudget() {
+        return (int) ((long) getGptPromptTokenBudget() * (100 - getGptPromptTokenSafetyMargin()) / 100);
     }
 
-    public int getMaxReviewLines() {
-        return getInt(KEY_MAX_REVIEW_LINES, DEFAULT_MAX_REVIEW_LINES);
+    // Deprecated in favor of `gptPromptTokenBudget`: the line limit only applies to the configurations still setting it
+    public Optional<Integer> getMaxReviewLines() {
+        if (getString(KEY_MAX_REVIEW_LINES, null) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(getInt(KEY_MAX_REVIEW_LINES, 0));
     }
 
     public int getMaxReviewFileSize() {
         return getInt(KEY_MAX_REVIEW_FILE_SIZE, DEFAULT_MAX_REVIEW_FILE_SIZE);
     }
 
-    public List<String> getEnabledFileExtensions() {
-        return splitConfig(globalConfig.getString(KEY_ENABLED_FILE_EXTENSIONS, DEFAULT_ENABLED_FILE_EXTENSIONS));
+    public Set<String> getEnabledFileExtensions() {
+        return enabledFileExtensions.get();
     }
 
     public boolean isVotingEnabled() {
@@ -294,6 +411,18 @@ public class Configuration {
         return getBoolean(KEY_ENABLE_MESSAGE_DEBUGGING, DEFAULT_ENABLE_MESSAGE_DEBUGGING);
     }
 
+    public int getVectorStoreMaxIncrementalFiles() {
+        return getInt(KEY_VECTOR_STORE_MAX_INCREMENTAL_FILES, DEFAULT_VECTOR_STORE_MAX_INCREMENTAL_FILES);
+    }
+
+    public int getRepoFileMaxSize() {
+        return getInt(KEY_REPO_FILE_MAX_SIZE, DEFAULT_REPO_FILE_MAX_SIZE);
+    }
+
+    public int getRepoFileLoadingParallelism() {
+        return getInt(KEY_REPO_FILE_LOADING_PARALLELISM, DEFAULT_REPO_FILE_LOADING_PARALLELISM);
+    }
+
     public boolean getIgnoreOutdatedInlineComments() {
         return getBoolean(KEY_IGNORE_OUTDATED_INLINE_COMMENTS, DEFAULT_IGNORE_OUTDATED_INLINE_COMMENTS);
     }
@@ -340,6 +469,10 @@ public class Configuration {
         return Double.parseDouble(getString(key, String.valueOf(defaultValue)));
     }
 
+    private Supplier<Set<String>> memoizeSetConfig(String key, String defaultValue) {
+        return Suppliers.memoize(() -> ImmutableSet.copyOf(splitConfig(globalConfig.getString(key, defaultValue))));
+    }
+
     private List<String> splitConfig(String value) {
         Pattern separator=Pattern.compile("\\s*,\\s*");
         return Arrays.asList(separator.split(value));
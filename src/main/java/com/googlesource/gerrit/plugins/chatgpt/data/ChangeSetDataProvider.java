@@ -1,6 +1,5 @@
 package com.googlesource.gerrit.plugins.chatgpt.data;
 
-import com.google.gerrit.server.account.AccountCache;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
@@ -11,9 +10,10 @@ public class ChangeSetDataProvider implements Provider<ChangeSetData> {
     private final Configuration config;
 
     @Inject
-    ChangeSetDataProvider(Configuration config, AccountCache accountCache) {
+    ChangeSetDataProvider(Configuration config) {
         this.config = config;
-        this.gptAccountId = accountCache.getByUsername(config.getGerritUserName()).get().account().id().get();
+        // The account of the ChatGPT user is already resolved when the Configuration is created
+        this.gptAccountId = config.getUserId().get();
     }
 
     @Override
@@ -0,0 +1,98 @@
+package com.googlesource.gerrit.plugins.chatgpt.data;
+
+import com.google.inject.Inject;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptReplyItem;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import com.googlesource.gerrit.plugins.chatgpt.utils.HashUtils;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+// Memo of the reviews of the single files of a change, stored in the change data: a file is reviewed again only if
+// its diff or the prompt used for the review have changed since its last review.
+@Slf4j
+public class FileReviewMemo {
+    // To be increased whenever a change of the prompts invalidates the reviews previously memoized
+    public static final String PROMPT_VERSION = "1";
+
+    private static final String KEY_FILE_REVIEW_MEMO = "fileReviewMemo";
+
+    private final PluginDataHandlerProvider pluginDataHandlerProvider;
+
+    private Map<String, FileReview> fileReviews;
+
+    @Inject
+    public FileReviewMemo(PluginDataHandlerProvider pluginDataHandlerProvider) {
+        this.pluginDataHandlerProvider = pluginDataHandlerProvider;
+    }
+
+    public String getFileKey(Configuration config, ChangeSetData changeSetData, String filename, String fileDiff) {
+        List<String> sortedDirectives = new ArrayList<>(changeSetData.getDirectives());
+        Collections.sort(sortedDirectives);
+        return HashUtils.hashData(List.of(
+                PROMPT_VERSION,
+                config.getGptModel(),
+                config.getString(Configuration.KEY_GPT_SYSTEM_PROMPT, ""),
+                String.join("\n", sortedDirectives),
+                filename,
+                fileDiff
+        ));
+    }
+
+    public Optional<List<ChatGptReplyItem>> getReplies(String filename, String fileKey) {
+        FileReview fileReview = getFileReviews().get(filename);
+        if (fileReview == null || !fileReview.getKey().equals(fileKey)) {
+            return Optional.empty();
+        }
+        return Optional.of(fileReview.getReplies());
+    }
+
+    // Only the files of the current Patch Set are retained: the reviewed ones are stored with their new replies, while
+    // the memoized ones are kept as they are. The replies of a superseded review are discarded, so they are not
+    // memoized either.
+    public void update(ChangeSetData changeSetData, Map<String, String> fileKeys, Set<String> reviewedFiles,
+                       List<ChatGptReplyItem> replies) {
+        if (changeSetData.getSupersededReview()) {
+            log.debug("File review memo not updated for superseded review");
+            return;
+        }
+        Map<String, FileReview> updatedFileReviews = new HashMap<>();
+        for (Map.Entry<String, String> fileKey : fileKeys.entrySet()) {
+            String filename = fileKey.getKey();
+            if (reviewedFiles.contains(filename)) {
+                updatedFileReviews.put(filename, new FileReview(fileKey.getValue(), new ArrayList<>()));
+            }
+            else if (getFileReviews().containsKey(filename)) {
+                updatedFileReviews.put(filename, getFileReviews().get(filename));
+            }
+        }
+        for (ChatGptReplyItem replyItem : replies) {
+            FileReview fileReview = updatedFileReviews.get(replyItem.getFilename());
+            if (fileReview != null && reviewedFiles.contains(replyItem.getFilename())) {
+                fileReview.getReplies().add(replyItem);
+            }
+        }
+        log.debug("File review memo updated for files: {}", reviewedFiles);
+        fileReviews = updatedFileReviews;
+        pluginDataHandlerProvider.getChangeScope().setJsonValue(KEY_FILE_REVIEW_MEMO, fileReviews);
+    }
+
+    private Map<String, FileReview> getFileReviews() {
+        if (fileReviews == null) {
+            fileReviews = Optional.ofNullable(pluginDataHandlerProvider.getChangeScope()
+                    .getJsonValue(KEY_FILE_REVIEW_MEMO, FileReview.class))
+                    .orElseGet(HashMap::new);
+        }
+        return fileReviews;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class FileReview {
+        private String key;
+        private List<ChatGptReplyItem> replies;
+    }
+}
@@ -0,0 +1,301 @@
+package com.googlesource.gerrit.plugins.chatgpt.data;
+
+import com.google.gson.JsonParseException;
+import com.googlesource.gerrit.plugins.chatgpt.interfaces.data.IPluginDataStorage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static com.googlesource.gerrit.plugins.chatgpt.data.PluginDataPropertiesStorage.PATH_SUFFIX;
+import static com.googlesource.gerrit.plugins.chatgpt.data.PluginDataPropertiesStorage.loadProperties;
+import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
+
+// Embedded storage of the plugin data in a single append-only log file. Each record holds the whole content of a
+// scope, prefixed by its length; only the location of the latest record of each scope is kept in memory. The log is
+// compacted once the superseded records take up most of it.
+// The scopes of closed Changes are given an expiry time, after which they are garbage collected.
+@Slf4j
+public class PluginDataEmbeddedStorage implements IPluginDataStorage {
+    public static final String STORAGE_FILENAME = "plugin-data.log";
+
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES;
+    private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+    private static final int COMPACTION_RATIO = 2;
+
+    private final Path storageFile;
+    private final Duration changeTtl;
+    private final Map<String, RecordLocation> locations = new HashMap<>();
+    private final Map<String, Long> expiries = new HashMap<>();
+
+    private FileChannel channel;
+    private long liveSize;
+
+    public PluginDataEmbeddedStorage(Path defaultPluginDataPath, Duration changeTtl) {
+        storageFile = defaultPluginDataPath.resolve(STORAGE_FILENAME);
+        this.changeTtl = changeTtl;
+        try {
+            if (Files.notExists(storageFile)) {
+                migrateLegacyFiles(defaultPluginDataPath);
+            }
+            channel = openChannel();
+            loadLocations();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open the plugin data storage: " + storageFile, e);
+        }
+    }
+
+    @Override
+    public synchronized Map<String, String> load(PluginDataScope scope) {
+        RecordLocation location = locations.get(scope.getKey());
+        if (location == null) {
+            return new HashMap<>();
+        }
+        try {
+            return new HashMap<>(readRecord(location).getValues());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read the plugin data of scope " + scope.getKey(), e);
+        }
+    }
+
+    @Override
+    public synchronized void store(PluginDataScope scope, Map<String, String> values) {
+        String key = scope.getKey();
+        writeRecord(new StorageRecord(key, new HashMap<>(values), expiries.get(key)));
+    }
+
+    @Override
+    public synchronized void delete(PluginDataScope scope) {
+        String key = scope.getKey();
+        if (!locations.containsKey(key)) return;
+        writeRecord(new StorageRecord(key, null, null));
+    }
+
+    @Override
+    public synchronized void expire(PluginDataScope scope) {
+        String key = scope.getKey();
+        if (!locations.containsKey(key) || expiries.containsKey(key)) return;
+        long expiry = Instant.now().plus(changeTtl).toEpochMilli();
+        log.debug("Plugin data of scope {} set to expire at {}", key, Instant.ofEpochMilli(expiry));
+        writeRecord(new StorageRecord(key, load(scope), expiry));
+    }
+
+    @Override
+    public synchronized void clearExpiry(PluginDataScope scope) {
+        String key = scope.getKey();
+        if (!expiries.containsKey(key)) return;
+        log.debug("Expiry of the plugin data of scope {} cleared", key);
+        writeRecord(new StorageRecord(key, load(scope), null));
+    }
+
+    @Override
+    public synchronized List<PluginDataScope> purgeExpired(Instant now) {
+        List<PluginDataScope> purgedScopes = new ArrayList<>();
+        for (String key : new ArrayList<>(expiries.keySet())) {
+            if (expiries.get(key) > now.toEpochMilli()) continue;
+            PluginDataScope.fromKey(key).ifPresent(scope -> {
+                delete(scope);
+                purgedScopes.add(scope);
+            });
+        }
+        if (!purgedScopes.isEmpty()) {
+            log.info("Purged the expired plugin data of {} scopes", purgedScopes.size());
+        }
+        return purgedScopes;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the plugin data storage {}", storageFile, e);
+        }
+    }
+
+    private void writeRecord(StorageRecord record) {
+        try {
+            RecordLocation location = appendRecord(channel, record);
+            channel.force(false);
+            updateLocation(record, location);
+            long size = channel.size();
+            if (size > MIN_COMPACTION_SIZE && size > liveSize * COMPACTION_RATIO) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write the plugin data of scope " + record.getScope(), e);
+        }
+    }
+
+    private void updateLocation(StorageRecord record, RecordLocation location) {
+        String key = record.getScope();
+        RecordLocation previousLocation = record.getValues() == null ? locations.remove(key)
+                : locations.put(key, location);
+        if (previousLocation != null) {
+            liveSize -= previousLocation.size();
+        }
+        if (record.getValues() == null) {
+            expiries.remove(key);
+            return;
+        }
+        liveSize += location.size();
+        if (record.getExpiry() != null) {
+            expiries.put(key, record.getExpiry());
+        }
+        else {
+            expiries.remove(key);
+        }
+    }
+
+    // The live records are copied to a new log, which then atomically replaces the current one
+    private void compact() throws IOException {
+        long previousSize = channel.size();
+        Path tempFile = Files.createTempFile(storageFile.toAbsolutePath().getParent(), STORAGE_FILENAME, ".tmp");
+        Map<String, RecordLocation> compactedLocations = new HashMap<>();
+        try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, RecordLocation> location : locations.entrySet()) {
+                compactedLocations.put(location.getKey(), appendRecord(tempChannel, readRecord(location.getValue())));
+            }
+            tempChannel.force(true);
+        }
+        Files.move(tempFile, storageFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        channel = openChannel();
+        locations.clear();
+        locations.putAll(compactedLocations);
+        liveSize = channel.size();
+        log.debug("Plugin data storage compacted from {} to {} bytes", previousSize, liveSize);
+    }
+
+    private void loadLocations() throws IOException {
+        long offset = 0;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (offset < size) {
+            header.clear();
+            if (!readFully(channel, header, offset)) break;
+            int length = header.flip().getInt();
+            if (length < 0) {
+                // Without a valid length the following records cannot be located
+                throw new IOException("Invalid plugin data record length " + length + " at offset " + offset);
+            }
+            if (offset + RECORD_HEADER_SIZE + length > size) break;
+            RecordLocation location = new RecordLocation(offset, length);
+            offset += location.size();
+            StorageRecord record;
+            try {
+                record = readRecord(location);
+            } catch (JsonParseException e) {
+                if (offset == size) {
+                    offset = location.offset();
+                    break;
+                }
+                // A corrupted record followed by valid ones is skipped by its length
+                log.warn("Skipping the invalid plugin data record at offset {} of {}", location.offset(),
+                        storageFile, e);
+                continue;
+            }
+            updateLocation(record, location);
+        }
+        if (offset < size) {
+            // A trailing record left incomplete by an interrupted write is discarded
+            log.warn("Discarding {} bytes of incomplete records at the end of {}", size - offset, storageFile);
+            channel.truncate(offset);
+        }
+    }
+
+    private StorageRecord readRecord(RecordLocation location) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(location.length());
+        if (!readFully(channel, buffer, location.offset() + RECORD_HEADER_SIZE)) {
+            throw new IOException("Unexpected end of the plugin data storage at offset " + location.offset());
+        }
+        String json = new String(buffer.array(), StandardCharsets.UTF_8);
+        StorageRecord record = getGson().fromJson(json, StorageRecord.class);
+        if (record == null || record.getScope() == null) {
+            throw new JsonParseException("Invalid plugin data record at offset " + location.offset());
+        }
+        return record;
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(storageFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    // The legacy `.data` files are copied into a new log, and deleted only once the log is complete
+    private void migrateLegacyFiles(Path defaultPluginDataPath) throws IOException {
+        List<Path> legacyFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(defaultPluginDataPath, "*" + PATH_SUFFIX)) {
+            files.forEach(file -> {
+                if (Files.isRegularFile(file)) {
+                    legacyFiles.add(file);
+                }
+            });
+        }
+        if (legacyFiles.isEmpty()) return;
+        log.info("Migrating {} plugin data files to {}", legacyFiles.size(), storageFile);
+        Path tempFile = Files.createTempFile(defaultPluginDataPath, STORAGE_FILENAME, ".tmp");
+        try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            for (Path legacyFile : legacyFiles) {
+                String filename = legacyFile.getFileName().toString();
+                PluginDataScope scope = PluginDataScope.fromFilename(
+                        filename.substring(0, filename.length() - PATH_SUFFIX.length()));
+                Map<String, String> values = loadProperties(legacyFile);
+                if (values.isEmpty()) continue;
+                appendRecord(tempChannel, new StorageRecord(scope.getKey(), values, null));
+            }
+            tempChannel.force(true);
+        }
+        Files.move(tempFile, storageFile, StandardCopyOption.ATOMIC_MOVE);
+        for (Path legacyFile : legacyFiles) {
+            Files.deleteIfExists(legacyFile);
+        }
+    }
+
+    private static RecordLocation appendRecord(FileChannel fileChannel, StorageRecord record) throws IOException {
+        byte[] json = getGson().toJson(record).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + json.length);
+        buffer.putInt(json.length).put(json).flip();
+        long offset = fileChannel.size();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += fileChannel.write(buffer, position);
+        }
+        return new RecordLocation(offset, json.length);
+    }
+
+    private static boolean readFully(FileChannel fileChannel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = fileChannel.read(buffer, position + buffer.position());
+            if (read < 0) return false;
+        }
+        return true;
+    }
+
+    private record RecordLocation(long offset, int length) {
+        long size() {
+            return RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class StorageRecord {
+        private String scope;
+        // Null for the records marking the deletion of a scope
+        private Map<String, String> values;
+        private Long expiry;
+    }
+}
@@ -1,36 +1,41 @@
 package com.googlesource.gerrit.plugins.chatgpt.data;
 
 import com.google.gson.reflect.TypeToken;
-import com.google.inject.Inject;
-import com.google.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 
-@Singleton
+@Slf4j
 public class PluginDataHandler {
-    private final Path configFile;
-    private final Properties configProperties = new Properties();
+    @Getter
+    private final PluginDataScope scope;
+    private final PluginDataStore pluginDataStore;
+    private final Map<String, String> configProperties = new ConcurrentHashMap<>();
 
-    @Inject
-    public PluginDataHandler(Path configFilePath) {
-        this.configFile = configFilePath;
-        try {
-            loadOrCreateProperties();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    private boolean dirty;
+    // Set once the handler has been evicted from the store: another handler may then have been loaded for the same
+    // scope, so the calls are forwarded to it rather than served from stale data or overwriting newer data
+    private volatile boolean invalidated;
+
+    public PluginDataHandler(PluginDataScope scope, PluginDataStore pluginDataStore) {
+        this.scope = scope;
+        this.pluginDataStore = pluginDataStore;
+        configProperties.putAll(pluginDataStore.getStorage().load(scope));
     }
 
     public synchronized void setValue(String key, String value) {
-        configProperties.setProperty(key, value);
-        storeProperties();
+        if (invalidated) {
+            pluginDataStore.getHandler(scope).setValue(key, value);
+            return;
+        }
+        configProperties.put(key, value);
+        markDirty();
     }
 
     public synchronized void setJsonValue(String key, Object value) {
@@ -38,7 +43,10 @@ public class PluginDataHandler {
     }
 
     public String getValue(String key) {
-        return configProperties.getProperty(key);
+        if (invalidated) {
+            return pluginDataStore.getHandler(scope).getValue(key);
+        }
+        return configProperties.get(key);
     }
 
     public <T> Map<String, T> getJsonValue(String key, Class<T> clazz) {
@@ -49,36 +57,50 @@ public class PluginDataHandler {
     }
 
     public synchronized void removeValue(String key) {
+        if (invalidated) {
+            pluginDataStore.getHandler(scope).removeValue(key);
+            return;
+        }
         if (configProperties.containsKey(key)) {
             configProperties.remove(key);
-            storeProperties();
+            markDirty();
         }
     }
 
     public synchronized void destroy() {
-        try {
-            Files.deleteIfExists(configFile);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to delete the config file: " + configFile, e);
+        if (invalidated) {
+            pluginDataStore.getHandler(scope).destroy();
+            return;
         }
+        configProperties.clear();
+        dirty = false;
+        pluginDataStore.remove(this);
+        pluginDataStore.getStorage().delete(scope);
     }
 
-    private void storeProperties() {
-        try (var output = Files.newOutputStream(configFile)) {
-            configProperties.store(output, null);
+    // Returns false if the data could not be stored, in which case the handler is left dirty
+    synchronized boolean flush() {
+        if (!dirty || invalidated) return true;
+        try {
+            pluginDataStore.getStorage().store(scope, new HashMap<>(configProperties));
+            dirty = false;
+            return true;
         }
-        catch (IOException e) {
-            throw new RuntimeException(e);
+        catch (RuntimeException e) {
+            log.error("Failed to store the plugin data of scope {}", scope.getKey(), e);
+            return false;
         }
     }
 
-    private void loadOrCreateProperties() throws IOException {
-        if (Files.notExists(configFile)) {
-            Files.createFile(configFile);
-        } else {
-            try (var input = Files.newInputStream(configFile)) {
-                configProperties.load(input);
-            }
+    synchronized void invalidate() {
+        if (!flush()) {
+            log.error("Plugin data of scope {} lost on eviction", scope.getKey());
         }
+        invalidated = true;
+    }
+
+    private void markDirty() {
+        dirty = true;
+        pluginDataStore.scheduleFlush(this);
     }
 }
@@ -4,26 +4,21 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
 
-import java.nio.file.Path;
-
 @Singleton
 public class PluginDataHandlerBaseProvider implements Provider<PluginDataHandler> {
-    private static final String PATH_SUFFIX = ".data";
-    private static final String PATH_GLOBAL = "global";
-
-    private final Path defaultPluginDataPath;
+    private final PluginDataStore pluginDataStore;
 
     @Inject
-    public PluginDataHandlerBaseProvider(@com.google.gerrit.extensions.annotations.PluginData Path defaultPluginDataPath) {
-        this.defaultPluginDataPath = defaultPluginDataPath;
+    public PluginDataHandlerBaseProvider(PluginDataStore pluginDataStore) {
+        this.pluginDataStore = pluginDataStore;
     }
 
-    public PluginDataHandler get(String path) {
-        return new PluginDataHandler(defaultPluginDataPath.resolve(path + PATH_SUFFIX));
+    public PluginDataHandler get(PluginDataScope scope) {
+        return pluginDataStore.getHandler(scope);
     }
 
     @Override
     public PluginDataHandler get() {
-        return get(PATH_GLOBAL);
+        return get(PluginDataScope.global());
     }
 }
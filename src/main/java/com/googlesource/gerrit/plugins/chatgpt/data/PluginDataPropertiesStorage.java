@@ -0,0 +1,99 @@
+package com.googlesource.gerrit.plugins.chatgpt.data;
+
+import com.googlesource.gerrit.plugins.chatgpt.interfaces.data.IPluginDataStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+// Legacy storage of the plugin data, with one properties file per scope under the plugin data directory
+public class PluginDataPropertiesStorage implements IPluginDataStorage {
+    public static final String PATH_SUFFIX = ".data";
+
+    private final Path defaultPluginDataPath;
+
+    public PluginDataPropertiesStorage(Path defaultPluginDataPath) {
+        this.defaultPluginDataPath = defaultPluginDataPath;
+    }
+
+    @Override
+    public Map<String, String> load(PluginDataScope scope) {
+        Path configFile = getConfigFile(scope);
+        try {
+            if (Files.notExists(configFile)) {
+                Files.createFile(configFile);
+                return new HashMap<>();
+            }
+            return loadProperties(configFile);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // The properties are written to a temporary file which then replaces the config file, so that a failed or
+    // interrupted write never leaves a truncated config file behind
+    @Override
+    public void store(PluginDataScope scope, Map<String, String> values) {
+        Path configFile = getConfigFile(scope);
+        Properties configProperties = new Properties();
+        configProperties.putAll(values);
+        try {
+            Path tempFile = Files.createTempFile(configFile.toAbsolutePath().getParent(),
+                    configFile.getFileName().toString(), ".tmp");
+            try (var output = Files.newOutputStream(tempFile)) {
+                configProperties.store(output, null);
+            }
+            Files.move(tempFile, configFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store the config file: " + configFile, e);
+        }
+    }
+
+    @Override
+    public void delete(PluginDataScope scope) {
+        Path configFile = getConfigFile(scope);
+        try {
+            Files.deleteIfExists(configFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete the config file: " + configFile, e);
+        }
+    }
+
+    // The legacy files are kept until they are migrated to the embedded storage
+    @Override
+    public void expire(PluginDataScope scope) {
+    }
+
+    @Override
+    public void clearExpiry(PluginDataScope scope) {
+    }
+
+    @Override
+    public List<PluginDataScope> purgeExpired(Instant now) {
+        return List.of();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public static Map<String, String> loadProperties(Path configFile) throws IOException {
+        Properties configProperties = new Properties();
+        try (var input = Files.newInputStream(configFile)) {
+            configProperties.load(input);
+        }
+        Map<String, String> values = new HashMap<>();
+        configProperties.stringPropertyNames().forEach(key -> values.put(key, configProperties.getProperty(key)));
+        return values;
+    }
+
+    private Path getConfigFile(PluginDataScope scope) {
+        return defaultPluginDataPath.resolve(scope.getFilename() + PATH_SUFFIX);
+    }
+}
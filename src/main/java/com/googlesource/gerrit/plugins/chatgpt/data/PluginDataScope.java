@@ -0,0 +1,68 @@
+package com.googlesource.gerrit.plugins.chatgpt.data;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public record PluginDataScope(Type type, String name) {
+    public enum Type {
+        GLOBAL,
+        PROJECT,
+        CHANGE,
+        ASSISTANTS
+    }
+
+    private static final String GLOBAL_NAME = "global";
+    private static final String ASSISTANTS_SUFFIX = ".assistants";
+    private static final String KEY_SEPARATOR = ":";
+    private static final Pattern CHANGE_KEY_PATTERN = Pattern.compile("I[0-9a-f]{40}");
+
+    public static PluginDataScope global() {
+        return new PluginDataScope(Type.GLOBAL, GLOBAL_NAME);
+    }
+
+    public static PluginDataScope project(String projectName) {
+        return new PluginDataScope(Type.PROJECT, projectName);
+    }
+
+    public static PluginDataScope change(String changeKey) {
+        return new PluginDataScope(Type.CHANGE, changeKey);
+    }
+
+    public static PluginDataScope assistants(String projectName) {
+        return new PluginDataScope(Type.ASSISTANTS, projectName);
+    }
+
+    public static Optional<PluginDataScope> fromKey(String key) {
+        int separatorIndex = key.indexOf(KEY_SEPARATOR);
+        if (separatorIndex < 0) return Optional.empty();
+        try {
+            Type type = Type.valueOf(key.substring(0, separatorIndex));
+            return Optional.of(new PluginDataScope(type, key.substring(separatorIndex + 1)));
+        }
+        catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Maps the names of the legacy `.data` files, which do not record the type of their scope, back to the scopes
+    public static PluginDataScope fromFilename(String filename) {
+        if (filename.equals(GLOBAL_NAME)) {
+            return global();
+        }
+        if (filename.endsWith(ASSISTANTS_SUFFIX)) {
+            return assistants(filename.substring(0, filename.length() - ASSISTANTS_SUFFIX.length()));
+        }
+        if (CHANGE_KEY_PATTERN.matcher(filename).matches()) {
+            return change(filename);
+        }
+        return project(filename);
+    }
+
+    public String getKey() {
+        return type.name() + KEY_SEPARATOR + name;
+    }
+
+    public String getFilename() {
+        return type == Type.ASSISTANTS ? name + ASSISTANTS_SUFFIX : name;
+    }
+}
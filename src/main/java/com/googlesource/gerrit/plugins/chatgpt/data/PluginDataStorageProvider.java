@@ -0,0 +1,45 @@
+package com.googlesource.gerrit.plugins.chatgpt.data;
+
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.chatgpt.interfaces.data.IPluginDataStorage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static com.googlesource.gerrit.plugins.chatgpt.config.Configuration.*;
+import static com.googlesource.gerrit.plugins.chatgpt.settings.Settings.PluginDataStorages;
+
+@Slf4j
+@Singleton
+public class PluginDataStorageProvider implements Provider<IPluginDataStorage> {
+    private final Path defaultPluginDataPath;
+    private final PluginConfig globalConfig;
+
+    @Inject
+    public PluginDataStorageProvider(
+            @PluginData Path defaultPluginDataPath,
+            @PluginName String pluginName,
+            PluginConfigFactory configFactory
+    ) {
+        this.defaultPluginDataPath = defaultPluginDataPath;
+        globalConfig = configFactory.getFromGerritConfig(pluginName);
+    }
+
+    @Override
+    public IPluginDataStorage get() {
+        PluginDataStorages storageType = globalConfig.getEnum(KEY_PLUGIN_DATA_STORAGE, DEFAULT_PLUGIN_DATA_STORAGE);
+        log.debug("Plugin data storage: {}", storageType);
+        return switch (storageType) {
+            case properties -> new PluginDataPropertiesStorage(defaultPluginDataPath);
+            case embedded -> new PluginDataEmbeddedStorage(defaultPluginDataPath, Duration.ofDays(
+                    globalConfig.getInt(KEY_PLUGIN_DATA_CHANGE_TTL_DAYS, DEFAULT_PLUGIN_DATA_CHANGE_TTL_DAYS)));
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package com.googlesource.gerrit.plugins.chatgpt.data;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.chatgpt.interfaces.data.IPluginDataStorage;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind store of the plugin data: the handlers are cached per scope, and their changes are written to the
+// storage by a single delayed flush, which coalesces all the changes made in the meantime. Pending changes are flushed
+// when the plugin is stopped, after the event lanes have terminated.
+@Slf4j
+@Singleton
+public class PluginDataStore implements LifecycleListener {
+    private static final long FLUSH_DELAY_MILLIS = 1000;
+    private static final long PURGE_INTERVAL_MINUTES = 60;
+    private static final long MAX_CACHED_HANDLERS = 1000;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final IPluginDataStorage storage;
+    private final Set<PluginDataHandler> dirtyHandlers = ConcurrentHashMap.newKeySet();
+    private final Cache<PluginDataScope, PluginDataHandler> handlers = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_HANDLERS)
+            .<PluginDataScope, PluginDataHandler>removalListener(notification -> {
+                if (notification.getCause() == RemovalCause.SIZE) {
+                    dirtyHandlers.remove(notification.getValue());
+                    notification.getValue().invalidate();
+                }
+            })
+            .build();
+    private final ScheduledExecutorService flushExecutor;
+
+    private ScheduledFuture<?> pendingFlush;
+
+    @Inject
+    PluginDataStore(IPluginDataStorage storage, WorkQueue workQueue) {
+        this(storage, workQueue.createQueue(1, "ChatGPT plugin data flush"));
+    }
+
+    @VisibleForTesting
+    public PluginDataStore(IPluginDataStorage storage, ScheduledExecutorService flushExecutor) {
+        this.storage = storage;
+        this.flushExecutor = flushExecutor;
+    }
+
+    public PluginDataHandler getHandler(PluginDataScope scope) {
+        return handlers.asMap().computeIfAbsent(scope, key -> new PluginDataHandler(key, this));
+    }
+
+    public void flush() {
+        synchronized (this) {
+            pendingFlush = null;
+        }
+        List<PluginDataHandler> failedHandlers = new ArrayList<>();
+        for (PluginDataHandler handler : dirtyHandlers) {
+            dirtyHandlers.remove(handler);
+            if (!handler.flush()) {
+                failedHandlers.add(handler);
+            }
+        }
+        if (failedHandlers.isEmpty()) return;
+        // The handlers that failed to be stored are retried with the next flush
+        dirtyHandlers.addAll(failedHandlers);
+        if (!schedulePendingFlush()) {
+            log.error("Plugin data of {} scopes could not be stored", failedHandlers.size());
+        }
+    }
+
+    // The data of a closed Change is retained for a while, in case the Change is reopened, before being purged
+    public void expireChangeScope(String changeKey) {
+        PluginDataScope scope = PluginDataScope.change(changeKey);
+        // Changes still buffered by the write-behind are stored first, so that the scope exists in the storage
+        flushScope(scope);
+        storage.expire(scope);
+    }
+
+    // The data of a reopened Change is kept until the Change is closed again
+    public void restoreChangeScope(String changeKey) {
+        PluginDataScope scope = PluginDataScope.change(changeKey);
+        flushScope(scope);
+        storage.clearExpiry(scope);
+    }
+
+    public void purgeExpired() {
+        try {
+            for (PluginDataScope scope : storage.purgeExpired(Instant.now())) {
+                PluginDataHandler handler = handlers.asMap().remove(scope);
+                if (handler != null) {
+                    dirtyHandlers.remove(handler);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            log.error("Failed to purge the expired plugin data", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        flushExecutor.scheduleWithFixedDelay(this::purgeExpired, 0, PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void stop() {
+        log.debug("Flushing plugin data on stop");
+        flushExecutor.shutdown();
+        flush();
+        storage.close();
+    }
+
+    void scheduleFlush(PluginDataHandler handler) {
+        dirtyHandlers.add(handler);
+        if (schedulePendingFlush()) return;
+        log.debug("Plugin data flush executor stopped, flushing synchronously");
+        dirtyHandlers.remove(handler);
+        handler.flush();
+    }
+
+    private void flushScope(PluginDataScope scope) {
+        PluginDataHandler handler = handlers.getIfPresent(scope);
+        if (handler == null) return;
+        dirtyHandlers.remove(handler);
+        if (!handler.flush()) {
+            dirtyHandlers.add(handler);
+        }
+    }
+
+    // Returns false if the flush executor has been stopped
+    private synchronized boolean schedulePendingFlush() {
+        if (pendingFlush != null) return true;
+        try {
+            pendingFlush = flushExecutor.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        }
+        catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    void remove(PluginDataHandler handler) {
+        dirtyHandlers.remove(handler);
+        handlers.asMap().remove(handler.getScope(), handler);
+    }
+}
@@ -0,0 +1,127 @@
+package com.googlesource.gerrit.plugins.chatgpt.data;
+
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptResponseContent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
+
+// Persistent cache of the ChatGPT review responses, stored as one file per entry under the plugin data directory.
+// The last-modified time of the entries is refreshed on each hit, so that it serves both for TTL and LRU eviction.
+// The entries are counted as they are written, so that the cache directory is only scanned when the maximum number of
+// entries is exceeded or, for the expired entries, once per scan interval.
+@Slf4j
+@Singleton
+public class ReviewCache {
+    private static final String PATH_REVIEW_CACHE = "review-cache";
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final Duration EXPIRY_SCAN_INTERVAL = Duration.ofHours(1);
+
+    private final Path cacheDir;
+    // Number of entries in the cache directory, unknown until the directory is first scanned
+    private int entryCount = -1;
+    private Instant lastScan = Instant.EPOCH;
+
+    @Inject
+    public ReviewCache(@PluginData Path defaultPluginDataPath) {
+        cacheDir = defaultPluginDataPath.resolve(PATH_REVIEW_CACHE);
+    }
+
+    public synchronized Optional<ChatGptResponseContent> get(Configuration config, String key) {
+        Path entry = getEntryPath(key);
+        try {
+            if (Files.notExists(entry)) return Optional.empty();
+            if (isExpired(config, Files.getLastModifiedTime(entry))) {
+                if (Files.deleteIfExists(entry) && entryCount > 0) {
+                    entryCount--;
+                }
+                return Optional.empty();
+            }
+            String content = Files.readString(entry, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+            return Optional.ofNullable(getGson().fromJson(content, ChatGptResponseContent.class));
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("Failed to read review cache entry {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    public synchronized void put(Configuration config, String key, ChatGptResponseContent responseContent) {
+        try {
+            Files.createDirectories(cacheDir);
+            Path entry = getEntryPath(key);
+            boolean newEntry = Files.notExists(entry);
+            Path tempEntry = Files.createTempFile(cacheDir, key, ".tmp");
+            Files.writeString(tempEntry, getGson().toJson(responseContent), StandardCharsets.UTF_8);
+            Files.move(tempEntry, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (newEntry && entryCount >= 0) {
+                entryCount++;
+            }
+            if (entryCount < 0 || entryCount > config.getReviewCacheMaxEntries()
+                    || lastScan.plus(EXPIRY_SCAN_INTERVAL).isBefore(Instant.now())) {
+                evict(config);
+            }
+        }
+        catch (IOException e) {
+            log.warn("Failed to write review cache entry {}", key, e);
+        }
+    }
+
+    private void evict(Configuration config) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            entries = files.filter(file -> file.getFileName().toString().endsWith(ENTRY_SUFFIX))
+                    .sorted(Comparator.comparing(this::getLastModifiedTime).reversed())
+                    .collect(Collectors.toList());
+        }
+        int maxEntries = config.getReviewCacheMaxEntries();
+        entryCount = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            Path entry = entries.get(i);
+            if (i >= maxEntries || isExpired(config, getLastModifiedTime(entry))) {
+                log.debug("Evicting review cache entry {}", entry.getFileName());
+                Files.deleteIfExists(entry);
+            }
+            else {
+                entryCount++;
+            }
+        }
+        lastScan = Instant.now();
+    }
+
+    private boolean isExpired(Configuration config, FileTime lastModifiedTime) {
+        Duration ttl = Duration.ofHours(config.getReviewCacheTtlHours());
+        return lastModifiedTime.toInstant().plus(ttl).isBefore(Instant.now());
+    }
+
+    private FileTime getLastModifiedTime(Path entry) {
+        try {
+            return Files.getLastModifiedTime(entry);
+        }
+        catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path getEntryPath(String key) {
+        return cacheDir.resolve(key + ENTRY_SUFFIX);
+    }
+}
@@ -0,0 +1,17 @@
+package com.googlesource.gerrit.plugins.chatgpt.interfaces.data;
+
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataScope;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public interface IPluginDataStorage {
+    Map<String, String> load(PluginDataScope scope);
+    void store(PluginDataScope scope, Map<String, String> values);
+    void delete(PluginDataScope scope);
+    void expire(PluginDataScope scope);
+    void clearExpiry(PluginDataScope scope);
+    List<PluginDataScope> purgeExpired(Instant now);
+    void close();
+}
@@ -1,22 +1,47 @@
 package com.googlesource.gerrit.plugins.chatgpt.listener;
 
 import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.client.ChangeKind;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.config.PluginConfig;
 import com.google.gerrit.server.config.PluginConfigFactory;
 import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.PatchSetCreatedEvent;
 import com.google.gerrit.server.git.WorkQueue;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.Injector;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.listener.EventHandlerTask.SupportedEvents;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Singleton
-public class EventHandlerExecutor {
+public class EventHandlerExecutor implements LifecycleListener {
+    private static final int DEFAULT_MAXIMUM_POOL_SIZE = 2;
+    private static final int DEFAULT_COMMENT_ADDED_POOL_SIZE = 1;
+    private static final int DEFAULT_CHANGE_MERGED_POOL_SIZE = 1;
+    private static final int DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENCY = 20;
+    private static final String EXECUTOR_MODE_VIRTUAL = "virtual";
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
     private final Injector injector;
-    private final ScheduledExecutorService executor;
+    // Each supported event type runs in a dedicated lane, so that replies to comments are not queued behind the
+    // lengthy Patch Set reviews or the repository uploads triggered by merged changes
+    private final Map<SupportedEvents, ExecutorService> executors = new EnumMap<>(SupportedEvents.class);
+    private final WorkQueue workQueue;
+    private final boolean virtualThreads;
+    private final int virtualThreadMaxConcurrency;
+    private final boolean coalescePatchSetEvents;
+    private final PatchSetReviewCoalescer patchSetReviewCoalescer;
 
     @Inject
     EventHandlerExecutor(
@@ -26,15 +51,99 @@ public class EventHandlerExecutor {
             PluginConfigFactory pluginConfigFactory
     ) {
         this.injector = injector;
-        int maximumPoolSize = pluginConfigFactory.getFromGerritConfig(pluginName)
-                .getInt("maximumPoolSize", 2);
-        this.executor = workQueue.createQueue(maximumPoolSize, "ChatGPT request executor");
+        this.workQueue = workQueue;
+        PluginConfig globalConfig = pluginConfigFactory.getFromGerritConfig(pluginName);
+        int maximumPoolSize = globalConfig.getInt("maximumPoolSize", DEFAULT_MAXIMUM_POOL_SIZE);
+        int commentAddedPoolSize = globalConfig.getInt("commentAddedPoolSize", DEFAULT_COMMENT_ADDED_POOL_SIZE);
+        int changeMergedPoolSize = globalConfig.getInt("changeMergedPoolSize", DEFAULT_CHANGE_MERGED_POOL_SIZE);
+        coalescePatchSetEvents = globalConfig.getBoolean("coalescePatchSetEvents", true);
+        virtualThreads = EXECUTOR_MODE_VIRTUAL.equalsIgnoreCase(globalConfig.getString("executorMode", ""));
+        virtualThreadMaxConcurrency = globalConfig.getInt("virtualThreadMaxConcurrency",
+                DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENCY);
+        executors.put(SupportedEvents.PATCH_SET_CREATED,
+                createExecutor(maximumPoolSize, "ChatGPT request executor"));
+        executors.put(SupportedEvents.COMMENT_ADDED,
+                createExecutor(commentAddedPoolSize, "ChatGPT comment executor"));
+        executors.put(SupportedEvents.CHANGE_MERGED,
+                createExecutor(changeMergedPoolSize, "ChatGPT change merged executor"));
+        patchSetReviewCoalescer = new PatchSetReviewCoalescer(executors.get(SupportedEvents.PATCH_SET_CREATED));
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        // The lanes are created by the plugin, so they have to be released when it is stopped or reloaded: the queued
+        // events are dropped and the running ones interrupted
+        for (Map.Entry<SupportedEvents, ExecutorService> executor : executors.entrySet()) {
+            log.debug("Shutting down the {} executor", executor.getKey());
+            executor.getValue().shutdownNow();
+        }
+        // The interrupted events are waited for, so that the plugin data they are still writing is part of the final
+        // flush of the plugin data store, which is stopped afterward
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STOP_TIMEOUT_SECONDS);
+        try {
+            for (Map.Entry<SupportedEvents, ExecutorService> executor : executors.entrySet()) {
+                if (!executor.getValue().awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    log.warn("The {} executor did not terminate within {} s", executor.getKey(),
+                            STOP_TIMEOUT_SECONDS);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     public void execute(Configuration config, Event event) {
         GerritEventContextModule contextModule = new GerritEventContextModule(config, event);
-        EventHandlerTask task = injector.createChildInjector(contextModule)
-                .getInstance(EventHandlerTask.class);
-        executor.execute(task);
+        Injector eventInjector = injector.createChildInjector(contextModule);
+        EventHandlerTask task = eventInjector.getInstance(EventHandlerTask.class);
+        GerritChange change = eventInjector.getInstance(GerritChange.class);
+        ChangeSetData changeSetData = eventInjector.getInstance(ChangeSetData.class);
+        // A comment forcing a review of the Patch Set is preprocessed in the comment lane, while the review itself is
+        // handed over to the Patch Set lane like any other full review
+        task.setPatchSetReviewDispatcher(review -> submitPatchSetReview(change, changeSetData, review));
+        if (!isReworkPatchSetCreated(event, change)) {
+            getExecutor(event).execute(task);
+            return;
+        }
+        submitPatchSetReview(change, changeSetData, task);
+    }
+
+    private void submitPatchSetReview(GerritChange change, ChangeSetData changeSetData, Runnable review) {
+        if (!coalescePatchSetEvents) {
+            executors.get(SupportedEvents.PATCH_SET_CREATED).execute(review);
+            return;
+        }
+        patchSetReviewCoalescer.submit(change.getFullChangeId(), changeSetData, review);
+    }
+
+    private ExecutorService createExecutor(int poolSize, String name) {
+        // In virtual mode, the tasks blocked on I/O no longer hold a pool thread: concurrency is bounded by
+        // `virtualThreadMaxConcurrency` instead of the pool size, in each of the lanes
+        if (virtualThreads) {
+            Optional<ExecutorService> virtualThreadExecutor = VirtualThreadExecutor.create(
+                    virtualThreadMaxConcurrency, name);
+            if (virtualThreadExecutor.isPresent()) {
+                return virtualThreadExecutor.get();
+            }
+        }
+        return workQueue.createQueue(poolSize, name);
+    }
+
+    private ExecutorService getExecutor(Event event) {
+        SupportedEvents eventType = EventHandlerTask.getSupportedEvent(event.getType())
+                .orElse(SupportedEvents.PATCH_SET_CREATED);
+        return executors.get(eventType);
+    }
+
+    private boolean isReworkPatchSetCreated(Event event, GerritChange change) {
+        // Only a REWORK Patch Set triggers a new review, so it is the only kind that can replace a pending one
+        return event instanceof PatchSetCreatedEvent && change.getPatchSetAttribute()
+                .map(patchSetAttribute -> patchSetAttribute.kind == ChangeKind.REWORK)
+                .orElse(false);
     }
 }
@@ -1,7 +1,6 @@
 package com.googlesource.gerrit.plugins.chatgpt.listener;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Splitter;
 import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.events.ChangeMergedEvent;
 import com.google.gerrit.server.events.CommentAddedEvent;
@@ -14,12 +13,14 @@ import com.googlesource.gerrit.plugins.chatgpt.interfaces.listener.IEventHandler
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptHttpClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.git.GitRepoFiles;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 public class EventHandlerTask implements Runnable {
@@ -52,9 +53,14 @@ public class EventHandlerTask implements Runnable {
     private final PatchSetReviewer reviewer;
     private final GitRepoFiles gitRepoFiles;
     private final PluginDataHandlerProvider pluginDataHandlerProvider;
+    private final ChatGptHttpClient chatGptHttpClient;
 
     private SupportedEvents processing_event_type;
     private IEventHandlerType eventHandlerType;
+    private boolean switchedToPatchSetReview;
+    // Set by the executor, so that the Patch Set reviews forced by comments leave the comment lane
+    @Setter
+    private Consumer<Runnable> patchSetReviewDispatcher;
 
     @Inject
     EventHandlerTask(
@@ -64,7 +70,8 @@ public class EventHandlerTask implements Runnable {
             PatchSetReviewer reviewer,
             GerritClient gerritClient,
             GitRepoFiles gitRepoFiles,
-            PluginDataHandlerProvider pluginDataHandlerProvider
+            PluginDataHandlerProvider pluginDataHandlerProvider,
+            ChatGptHttpClient chatGptHttpClient
     ) {
         this.changeSetData = changeSetData;
         this.change = change;
@@ -73,6 +80,11 @@ public class EventHandlerTask implements Runnable {
         this.config = config;
         this.gitRepoFiles = gitRepoFiles;
         this.pluginDataHandlerProvider = pluginDataHandlerProvider;
+        this.chatGptHttpClient = chatGptHttpClient;
+    }
+
+    public static Optional<SupportedEvents> getSupportedEvent(String eventType) {
+        return Optional.ofNullable(EVENT_TYPE_MAP.get(eventType));
     }
 
     @Override
@@ -85,7 +97,15 @@ public class EventHandlerTask implements Runnable {
         if (!preProcessEvent()) {
             return Result.NOT_SUPPORTED;
         }
+        if (switchedToPatchSetReview && patchSetReviewDispatcher != null) {
+            log.info("Dispatching the forced review of change {} as a Patch Set review", change.getFullChangeId());
+            patchSetReviewDispatcher.accept(this::processEvent);
+            return Result.OK;
+        }
+        return processEvent();
+    }
 
+    private Result processEvent() {
         try {
             log.info("Processing change: {}", change.getFullChangeId());
             eventHandlerType.processEvent();
@@ -120,6 +140,7 @@ public class EventHandlerTask implements Runnable {
                 }
                 case SWITCH_TO_PATCH_SET_CREATED -> {
                     processing_event_type = SupportedEvents.PATCH_SET_CREATED;
+                    switchedToPatchSetReview = true;
                     continue;
                 }
             }
@@ -133,15 +154,14 @@ public class EventHandlerTask implements Runnable {
         return switch (processing_event_type) {
             case PATCH_SET_CREATED -> new EventHandlerTypePatchSetReview(config, changeSetData, change, reviewer, gerritClient);
             case COMMENT_ADDED -> new EventHandlerTypeCommentAdded(changeSetData, change, reviewer, gerritClient);
-            case CHANGE_MERGED -> new EventHandlerTypeChangeMerged(config, changeSetData, change, gitRepoFiles, pluginDataHandlerProvider);
+            case CHANGE_MERGED -> new EventHandlerTypeChangeMerged(config, changeSetData, change, gitRepoFiles, pluginDataHandlerProvider,
+                    chatGptHttpClient);
         };
     }
 
     private boolean isReviewEnabled(GerritChange change) {
-        List<String> enabledProjects = Splitter.on(",").omitEmptyStrings()
-                .splitToList(config.getEnabledProjects());
         if (!config.isGlobalEnable() &&
-                !enabledProjects.contains(change.getProjectNameKey().get()) &&
+                !config.getEnabledProjects().contains(change.getProjectNameKey().get()) &&
                 !config.isProjectEnable()) {
             log.debug("The project {} is not enabled for review", change.getProjectNameKey());
             return false;
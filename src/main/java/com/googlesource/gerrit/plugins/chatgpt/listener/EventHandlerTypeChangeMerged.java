@@ -6,6 +6,7 @@ import com.googlesource.gerrit.plugins.chatgpt.interfaces.listener.IEventHandler
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptAssistant;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptHttpClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.git.GitRepoFiles;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,19 +17,22 @@ public class EventHandlerTypeChangeMerged implements IEventHandlerType {
     private final GerritChange change;
     private final GitRepoFiles gitRepoFiles;
     private final PluginDataHandlerProvider pluginDataHandlerProvider;
+    private final ChatGptHttpClient httpClient;
 
     EventHandlerTypeChangeMerged(
             Configuration config,
             ChangeSetData changeSetData,
             GerritChange change,
             GitRepoFiles gitRepoFiles,
-            PluginDataHandlerProvider pluginDataHandlerProvider
+            PluginDataHandlerProvider pluginDataHandlerProvider,
+            ChatGptHttpClient httpClient
     ) {
         this.config = config;
         this.changeSetData = changeSetData;
         this.change = change;
         this.gitRepoFiles = gitRepoFiles;
         this.pluginDataHandlerProvider = pluginDataHandlerProvider;
+        this.httpClient = httpClient;
     }
 
     @Override
@@ -43,8 +47,13 @@ public class EventHandlerTypeChangeMerged implements IEventHandlerType {
                 changeSetData,
                 change,
                 gitRepoFiles,
-                pluginDataHandlerProvider
+                pluginDataHandlerProvider,
+                httpClient
         );
+        // The Assistants remain valid as long as the Vector Store is updated in place
+        if (chatGptAssistant.syncVectorStore()) {
+            return;
+        }
         chatGptAssistant.flushAssistantIds();
         chatGptAssistant.createVectorStore();
     }
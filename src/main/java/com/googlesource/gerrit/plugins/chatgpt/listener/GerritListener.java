@@ -9,6 +9,7 @@ import com.google.gerrit.server.project.NoSuchProjectException;
 import com.google.inject.Inject;
 import com.googlesource.gerrit.plugins.chatgpt.config.ConfigCreator;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Objects;
@@ -20,15 +21,18 @@ public class GerritListener implements EventListener {
     private final String myInstanceId;
     private final ConfigCreator configCreator;
     private final EventHandlerExecutor evenHandlerExecutor;
+    private final PluginDataStore pluginDataStore;
 
     @Inject
     public GerritListener(
             ConfigCreator configCreator,
             EventHandlerExecutor evenHandlerExecutor,
+            PluginDataStore pluginDataStore,
             @GerritInstanceId @Nullable String myInstanceId
     ) {
         this.configCreator = configCreator;
         this.evenHandlerExecutor = evenHandlerExecutor;
+        this.pluginDataStore = pluginDataStore;
         this.myInstanceId = myInstanceId;
     }
 
@@ -38,6 +42,12 @@ public class GerritListener implements EventListener {
             log.debug("Ignore event from another instance");
             return;
         }
+        if (event instanceof ChangeMergedEvent || event instanceof ChangeAbandonedEvent) {
+            pluginDataStore.expireChangeScope(((ChangeEvent) event).getChangeKey().toString());
+        }
+        else if (event instanceof ChangeRestoredEvent changeRestoredEvent) {
+            pluginDataStore.restoreChangeScope(changeRestoredEvent.getChangeKey().toString());
+        }
         if (!EVENT_CLASS_MAP.containsValue(event.getClass())) {
             log.debug("The event {} is not managed by the plugin", event);
             return;
@@ -0,0 +1,65 @@
+package com.googlesource.gerrit.plugins.chatgpt.listener;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Keeps only the latest Patch Set review of each change: submitting a review supersedes the one still pending for the
+// same change
+@Slf4j
+public class PatchSetReviewCoalescer {
+    private final ExecutorService executor;
+    // Latest Patch Set review submitted for each change, keyed by the full Change Id
+    private final Map<String, PendingReview> pendingReviews = new ConcurrentHashMap<>();
+
+    public PatchSetReviewCoalescer(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public synchronized void submit(String fullChangeId, ChangeSetData changeSetData, Runnable task) {
+        PendingReview pendingReview = new PendingReview(changeSetData);
+        PendingReview supersededReview = pendingReviews.put(fullChangeId, pendingReview);
+        if (supersededReview != null) {
+            log.info("Superseding the pending review of change {} with a newer Patch Set", fullChangeId);
+            supersededReview.supersede();
+        }
+        pendingReview.future = executor.submit(() -> {
+            try {
+                if (changeSetData.getSupersededReview()) {
+                    log.info("Skipping superseded review of change {}", fullChangeId);
+                    return;
+                }
+                task.run();
+            }
+            finally {
+                pendingReviews.remove(fullChangeId, pendingReview);
+            }
+        });
+    }
+
+    public boolean hasPendingReview(String fullChangeId) {
+        return pendingReviews.containsKey(fullChangeId);
+    }
+
+    private static class PendingReview {
+        private final ChangeSetData changeSetData;
+        private Future<?> future;
+
+        PendingReview(ChangeSetData changeSetData) {
+            this.changeSetData = changeSetData;
+        }
+
+        void supersede() {
+            // A queued review is dropped, whereas a review already in progress is left to complete without posting
+            // its results
+            changeSetData.setSupersededReview(true);
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.googlesource.gerrit.plugins.chatgpt.listener;
+
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.chatgpt.config.ConfigCreator;
+
+// Drops the cached configuration of a project whenever its `project.config` is updated
+@Singleton
+public class ProjectConfigListener implements GitReferenceUpdatedListener {
+    private final ConfigCreator configCreator;
+
+    @Inject
+    public ProjectConfigListener(ConfigCreator configCreator) {
+        this.configCreator = configCreator;
+    }
+
+    @Override
+    public void onGitReferenceUpdated(Event event) {
+        if (RefNames.REFS_CONFIG.equals(event.getRefName())) {
+            configCreator.invalidate(Project.nameKey(event.getProjectName()));
+        }
+    }
+}
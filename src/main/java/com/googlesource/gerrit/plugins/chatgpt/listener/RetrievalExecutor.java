@@ -0,0 +1,76 @@
+package com.googlesource.gerrit.plugins.chatgpt.listener;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Pool shared by the retrievals run in parallel while the events are handled (e.g. the file diffs of a Patch Set or
+// the files of the codebase), so that the number of threads is bounded plugin-wide regardless of the events in progress
+@Singleton
+public class RetrievalExecutor implements LifecycleListener {
+    private static final int DEFAULT_RETRIEVAL_POOL_SIZE = 8;
+
+    private final ExecutorService executor;
+
+    @Inject
+    RetrievalExecutor(WorkQueue workQueue, @PluginName String pluginName, PluginConfigFactory pluginConfigFactory) {
+        this(workQueue.createQueue(pluginConfigFactory.getFromGerritConfig(pluginName)
+                .getInt("retrievalPoolSize", DEFAULT_RETRIEVAL_POOL_SIZE), "ChatGPT retrieval executor"));
+    }
+
+    @VisibleForTesting
+    public RetrievalExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    // Runs the tasks with no more than `parallelism` of them in progress at once and returns their results in the
+    // order of the tasks, regardless of their completion order. The first failure cancels the pending tasks.
+    public <T> List<T> invokeInOrder(List<Callable<T>> tasks, int parallelism) throws Exception {
+        List<T> results = new ArrayList<>(tasks.size());
+        Deque<Future<T>> pendingResults = new ArrayDeque<>();
+        int submittedTasks = 0;
+        try {
+            while (results.size() < tasks.size()) {
+                while (submittedTasks < tasks.size() && pendingResults.size() < Math.max(1, parallelism)) {
+                    pendingResults.add(executor.submit(tasks.get(submittedTasks++)));
+                }
+                try {
+                    results.add(pendingResults.poll().get());
+                }
+                catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
+        finally {
+            pendingResults.forEach(pendingResult -> pendingResult.cancel(true));
+        }
+        return results;
+    }
+}
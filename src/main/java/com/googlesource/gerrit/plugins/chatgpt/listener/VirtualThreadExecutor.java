@@ -0,0 +1,92 @@
+package com.googlesource.gerrit.plugins.chatgpt.listener;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Runs each task on its own virtual thread, with at most `maxConcurrency` tasks running at once. The limit is held by
+// each executor, so it applies to each event lane separately rather than to the plugin as a whole.
+@Slf4j
+public class VirtualThreadExecutor extends AbstractExecutorService {
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final String name;
+
+    @VisibleForTesting
+    public VirtualThreadExecutor(ExecutorService delegate, int maxConcurrency, String name) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.name = name;
+    }
+
+    public static Optional<ExecutorService> create(int maxConcurrency, String name) {
+        // Virtual threads are looked up reflectively, as the plugin is still built for Java 17
+        try {
+            ExecutorService delegate = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("{} running on virtual threads with maximum concurrency {}", name, maxConcurrency);
+            return Optional.of(new VirtualThreadExecutor(delegate, maxConcurrency, name));
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Virtual threads not supported by the running JVM: {} falls back to the Work Queue", name);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(() -> {
+            // Each task gets its own virtual thread, while the semaphore bounds how many run at once
+            try {
+                permits.acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("{} interrupted while waiting to run a task", name);
+                return;
+            }
+            try {
+                command.run();
+            }
+            catch (RuntimeException e) {
+                log.error("{} task failed", name, e);
+            }
+            finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -7,10 +7,8 @@ import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.*;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.BufferedReader;
-import java.io.StringReader;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 
@@ -19,27 +17,29 @@ abstract public class ChatGptClient extends ClientBase {
     protected boolean isCommentEvent = false;
     @Getter
     protected String requestBody;
+    protected ChatGptUsage usage;
 
     public ChatGptClient(Configuration config) {
         super(config);
     }
 
-    protected ChatGptResponseContent extractContent(Configuration config, String body) throws Exception {
-        if (config.getGptStreamOutput() && !isCommentEvent) {
-            StringBuilder finalContent = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new StringReader(body))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    extractContentFromLine(line).ifPresent(finalContent::append);
-                }
-            }
-            return convertResponseContentFromJson(finalContent.toString());
-        }
-        else {
-            ChatGptResponseUnstreamed chatGptResponseUnstreamed =
-                    getGson().fromJson(body, ChatGptResponseUnstreamed.class);
-            return getResponseContent(chatGptResponseUnstreamed.getChoices().get(0).getMessage().getToolCalls());
-        }
+    protected boolean isStreamedResponse(Configuration config) {
+        return config.getGptStreamOutput() && !isCommentEvent;
+    }
+
+    protected ChatGptResponseContent extractContent(String body) {
+        ChatGptResponseUnstreamed chatGptResponseUnstreamed =
+                getGson().fromJson(body, ChatGptResponseUnstreamed.class);
+        usage = chatGptResponseUnstreamed.getUsage();
+        return getResponseContent(chatGptResponseUnstreamed.getChoices().get(0).getMessage().getToolCalls());
+    }
+
+    protected ChatGptResponseContent extractStreamedContent(Stream<String> lines) {
+        // Events are processed as they are received from ChatGPT, without buffering the whole response body
+        ChatGptStreamAssembler streamAssembler = new ChatGptStreamAssembler();
+        lines.forEach(streamAssembler::processLine);
+        usage = streamAssembler.getUsage();
+        return getResponseContent(streamAssembler.getToolCalls());
     }
 
     protected boolean validateResponse(ChatGptResponseContent chatGptResponseContent, String changeId, int attemptInd) {
@@ -62,22 +62,6 @@ abstract public class ChatGptClient extends ClientBase {
         }
     }
 
-    protected Optional<String> extractContentFromLine(String line) {
-        String dataPrefix = "data: {\"id\"";
-
-        if (!line.startsWith(dataPrefix)) {
-            return Optional.empty();
-        }
-        ChatGptResponseStreamed chatGptResponseStreamed =
-                getGson().fromJson(line.substring("data: ".length()), ChatGptResponseStreamed.class);
-        ChatGptResponseMessage delta = chatGptResponseStreamed.getChoices().get(0).getDelta();
-        if (delta == null || delta.getToolCalls() == null) {
-            return Optional.empty();
-        }
-        String content = getArgumentAsString(delta.getToolCalls(), 0);
-        return Optional.ofNullable(content);
-    }
-
     private ChatGptResponseContent convertResponseContentFromJson(String content) {
         return getGson().fromJson(content, ChatGptResponseContent.class);
     }
@@ -0,0 +1,87 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt;
+
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptUsage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.googlesource.gerrit.plugins.chatgpt.utils.ThreadUtils.threadSleep;
+
+// Plugin-wide governor of the requests and tokens sent to ChatGPT per minute: budget is reserved before each request is
+// sent and reconciled with the token usage returned by ChatGPT once the request is completed
+@Slf4j
+@Singleton
+public class ChatGptRateLimiter {
+    private static final String MODEL_LIMITS_SEPARATOR = ":";
+
+    private final Map<String, ModelBudget> modelBudgets = new ConcurrentHashMap<>();
+
+    public Reservation reserve(Configuration config, String model, String requestBody) {
+        int estimatedTokens = ChatGptTokenizer.forModel(model).estimateTokens(requestBody);
+        ModelBudget modelBudget = modelBudgets.computeIfAbsent(model, ModelBudget::new);
+        modelBudget.updateLimits(config);
+        long waitNanos = modelBudget.reserve(estimatedTokens);
+        if (waitNanos > 0) {
+            log.info("ChatGPT rate limit reached for model {}: request delayed by {} ms", model,
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            threadSleep(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        return new Reservation(modelBudget, estimatedTokens);
+    }
+
+    public static class Reservation {
+        private final ModelBudget modelBudget;
+        private final int estimatedTokens;
+
+        private Reservation(ModelBudget modelBudget, int estimatedTokens) {
+            this.modelBudget = modelBudget;
+            this.estimatedTokens = estimatedTokens;
+        }
+
+        public void reconcile(ChatGptUsage usage) {
+            // Without usage data (e.g. if the response was interrupted) the estimate is retained
+            if (usage == null || usage.getTotalTokens() == 0) return;
+            log.debug("ChatGPT tokens estimated: {}, used: {}", estimatedTokens, usage.getTotalTokens());
+            modelBudget.tokens.consume(usage.getTotalTokens() - estimatedTokens);
+        }
+    }
+
+    private static class ModelBudget {
+        private final String model;
+        private final TokenBucket requests = new TokenBucket();
+        private final TokenBucket tokens = new TokenBucket();
+
+        ModelBudget(String model) {
+            this.model = model;
+        }
+
+        void updateLimits(Configuration config) {
+            int requestsPerMinute = config.getGptRequestsPerMinute();
+            int tokensPerMinute = config.getGptTokensPerMinute();
+            // Per-model limits are defined as `<model>:<requests per minute>:<tokens per minute>`
+            for (String modelLimits : config.getGptModelRateLimits()) {
+                String[] limits = modelLimits.split(MODEL_LIMITS_SEPARATOR);
+                if (limits.length != 3 || !limits[0].equals(model)) continue;
+                try {
+                    requestsPerMinute = Integer.parseInt(limits[1].trim());
+                    tokensPerMinute = Integer.parseInt(limits[2].trim());
+                }
+                catch (NumberFormatException e) {
+                    log.warn("Invalid ChatGPT rate limits for model {}: {}", model, modelLimits);
+                }
+            }
+            requests.setLimitPerMinute(requestsPerMinute);
+            tokens.setLimitPerMinute(tokensPerMinute);
+        }
+
+        synchronized long reserve(int estimatedTokens) {
+            // Requests are queued by pre-allocating the budget, so that waiting tasks are released in arrival order
+            // instead of retrying all at once when the budget is replenished
+            return Math.max(requests.consume(1), tokens.consume(estimatedTokens));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptResponseMessage;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptResponseStreamed;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptToolCall;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptUsage;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
+
+// Assembles the tool call arguments of a streamed ChatGPT response as the Server-Sent Events are received
+@Slf4j
+public class ChatGptStreamAssembler {
+    private static final String DATA_PREFIX = "data: ";
+    private static final String DONE_DATA = "[DONE]";
+
+    // Argument deltas are appended to the tool call identified by their index
+    private final Map<Integer, StringBuilder> toolCallArguments = new TreeMap<>();
+    @Getter
+    private ChatGptUsage usage;
+
+    public void processLine(String line) {
+        if (!line.startsWith(DATA_PREFIX)) return;
+        String data = line.substring(DATA_PREFIX.length());
+        if (data.startsWith(DONE_DATA)) return;
+
+        ChatGptResponseStreamed chatGptResponseStreamed = getGson().fromJson(data, ChatGptResponseStreamed.class);
+        if (chatGptResponseStreamed.getUsage() != null) {
+            usage = chatGptResponseStreamed.getUsage();
+        }
+        if (chatGptResponseStreamed.getChoices() == null || chatGptResponseStreamed.getChoices().isEmpty()) return;
+        ChatGptResponseMessage delta = chatGptResponseStreamed.getChoices().get(0).getDelta();
+        if (delta == null || delta.getToolCalls() == null) return;
+
+        for (ChatGptToolCall toolCallDelta : delta.getToolCalls()) {
+            if (toolCallDelta.getFunction() == null || toolCallDelta.getFunction().getArguments() == null) continue;
+            int index = toolCallDelta.getIndex() != null ? toolCallDelta.getIndex() : 0;
+            toolCallArguments.computeIfAbsent(index, k -> new StringBuilder())
+                    .append(toolCallDelta.getFunction().getArguments());
+        }
+    }
+
+    public List<ChatGptToolCall> getToolCalls() {
+        List<ChatGptToolCall> toolCalls = new ArrayList<>(toolCallArguments.size());
+        for (Map.Entry<Integer, StringBuilder> arguments : toolCallArguments.entrySet()) {
+            ChatGptToolCall.Function function = new ChatGptToolCall.Function();
+            function.setArguments(arguments.getValue().toString());
+            ChatGptToolCall toolCall = new ChatGptToolCall();
+            toolCall.setIndex(arguments.getKey());
+            toolCall.setFunction(function);
+            toolCalls.add(toolCall);
+        }
+        log.debug("Streamed tool calls assembled: {}", toolCalls);
+        return toolCalls;
+    }
+}
@@ -0,0 +1,71 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Local estimator of the token counts of the OpenAI models. The text is split with the pre-tokenization pattern of the
+// encoding of the model, as `tiktoken` does before merging the byte pairs, and the tokens of each piece are estimated
+// from its UTF-8 length, rounded up. No byte pair is merged, so this is an estimate and not a count: it tends to exceed
+// the actual tokens of English text and code, but it can fall short for long words and for scripts written without
+// spaces. The callers compare it to a budget reduced by `gptPromptTokenSafetyMargin`.
+public class ChatGptTokenizer {
+    private enum Encoding {
+        cl100k_base("(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|" +
+                "\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+"),
+        o200k_base("[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]*[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]+" +
+                "(?i:'s|'t|'re|'ve|'m|'ll|'d)?|[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]+" +
+                "[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]*(?i:'s|'t|'re|'ve|'m|'ll|'d)?|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n/]*|" +
+                "\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+        private final Pattern pattern;
+
+        Encoding(String regex) {
+            pattern = Pattern.compile(regex);
+        }
+    }
+
+    private static final List<String> O200K_MODEL_PREFIXES = List.of(
+            "gpt-4o",
+            "gpt-4.1",
+            "gpt-4.5",
+            "gpt-5",
+            "chatgpt-4o",
+            "o1",
+            "o3",
+            "o4"
+    );
+    private static final int ESTIMATED_BYTES_PER_TOKEN = 4;
+    private static final Map<Encoding, ChatGptTokenizer> TOKENIZERS = new ConcurrentHashMap<>();
+
+    private final Pattern pattern;
+
+    private ChatGptTokenizer(Encoding encoding) {
+        pattern = encoding.pattern;
+    }
+
+    public static ChatGptTokenizer forModel(String model) {
+        String modelName = model == null ? "" : model.toLowerCase();
+        Encoding encoding = O200K_MODEL_PREFIXES.stream().anyMatch(modelName::startsWith)
+                ? Encoding.o200k_base
+                : Encoding.cl100k_base;
+        return TOKENIZERS.computeIfAbsent(encoding, ChatGptTokenizer::new);
+    }
+
+    public int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int tokens = 0;
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            tokens += estimatePieceTokens(matcher.group().getBytes(StandardCharsets.UTF_8).length);
+        }
+        return tokens;
+    }
+
+    private int estimatePieceTokens(int pieceLength) {
+        return Math.max(1, (pieceLength + ESTIMATED_BYTES_PER_TOKEN - 1) / ESTIMATED_BYTES_PER_TOKEN);
+    }
+}
@@ -0,0 +1,51 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Budget replenished continuously up to its limit per minute. The budget can go negative, so that consumers queue up
+// behind each other for the time needed to cover what they consumed.
+public class TokenBucket {
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final LongSupplier nanoClock;
+    private long limitPerMinute;
+    private double available;
+    private long lastRefill;
+
+    public TokenBucket() {
+        this(System::nanoTime);
+    }
+
+    @VisibleForTesting
+    public TokenBucket(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        lastRefill = nanoClock.getAsLong();
+    }
+
+    public synchronized void setLimitPerMinute(long limitPerMinute) {
+        if (this.limitPerMinute != limitPerMinute) {
+            this.limitPerMinute = limitPerMinute;
+            available = limitPerMinute;
+        }
+    }
+
+    // Returns the time to wait, in nanoseconds, before the amount consumed is covered by the budget. A negative amount
+    // gives back budget that was overestimated, without exceeding the limit.
+    public synchronized long consume(long amount) {
+        if (limitPerMinute <= 0) return 0;
+        refill();
+        available = Math.min(limitPerMinute, available - Math.min(amount, limitPerMinute));
+        if (available >= 0) return 0;
+        return (long) (-available * NANOS_PER_MINUTE / limitPerMinute);
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        available = Math.min(limitPerMinute, available + (double) (now - lastRefill) * limitPerMinute
+                / NANOS_PER_MINUTE);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,28 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Singleton;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The group membership of the accounts is shared by the events of all the Changes, and refreshed after a short time
+@Singleton
+public class AccountGroupsCache {
+    private static final long ACCOUNT_GROUPS_TTL_SECONDS = 60;
+    private static final long MAX_CACHED_ACCOUNT_GROUPS = 1000;
+
+    private final Cache<Integer, List<String>> accountGroups = CacheBuilder.newBuilder()
+            .expireAfterWrite(ACCOUNT_GROUPS_TTL_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(MAX_CACHED_ACCOUNT_GROUPS)
+            .build();
+
+    public List<String> getIfPresent(Integer accountId) {
+        return accountGroups.getIfPresent(accountId);
+    }
+
+    public void put(Integer accountId, List<String> groups) {
+        accountGroups.put(accountId, groups);
+    }
+}
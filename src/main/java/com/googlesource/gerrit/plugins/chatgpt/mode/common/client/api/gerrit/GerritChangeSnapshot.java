@@ -0,0 +1,24 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit;
+
+import com.google.gerrit.extensions.common.ChangeInfo;
+import com.google.gerrit.extensions.common.CommentInfo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+// State of a change retrieved from Gerrit with one change request and one comments request, shared by the Gerrit
+// clients of the event. Either part is null if its retrieval failed.
+@Getter
+@AllArgsConstructor
+public class GerritChangeSnapshot {
+    public static final String PHASE_CHANGE = "change";
+    public static final String PHASE_COMMENTS = "comments";
+
+    private final GerritChange change;
+    private final ChangeInfo changeInfo;
+    private final Map<String, List<CommentInfo>> comments;
+    // Duration in milliseconds of each retrieval phase, in order of execution
+    private final Map<String, Long> phaseTimings;
+}
@@ -8,6 +8,7 @@ import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.GerritClie
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.HashMap;
+import java.util.Map;
 
 @Slf4j
 @Singleton
@@ -47,6 +48,10 @@ public class GerritClient {
         return gerritClientFacade.getFileDiffsProcessed();
     }
 
+    public Map<String, String> getFileDiffsJson(GerritChange change) {
+        return gerritClientFacade.getFileDiffsJson();
+    }
+
     public Integer getNotNullAccountId(String authorUsername) {
         return gerritClientFacade.getNotNullAccountId(authorUsername);
     }
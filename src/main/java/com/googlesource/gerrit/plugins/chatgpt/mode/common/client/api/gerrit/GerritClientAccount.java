@@ -11,19 +11,23 @@ import static java.util.stream.Collectors.toList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 public class GerritClientAccount extends GerritClientBase {
     private final AccountCache accountCache;
+    private final AccountGroupsCache accountGroupsCache;
 
-    public GerritClientAccount(Configuration config, AccountCache accountCache) {
+    public GerritClientAccount(Configuration config, AccountCache accountCache,
+            AccountGroupsCache accountGroupsCache) {
         super(config);
         this.accountCache = accountCache;
+        this.accountGroupsCache = accountGroupsCache;
     }
 
     public boolean isDisabledUser(String authorUsername) {
-        List<String> enabledUsers = config.getEnabledUsers();
-        List<String> disabledUsers = config.getDisabledUsers();
+        Set<String> enabledUsers = config.getEnabledUsers();
+        Set<String> disabledUsers = config.getDisabledUsers();
         return !enabledUsers.contains(Configuration.ENABLED_USERS_ALL)
                 && !enabledUsers.contains(authorUsername)
                 || disabledUsers.contains(authorUsername)
@@ -31,11 +35,9 @@ public class GerritClientAccount extends GerritClientBase {
     }
 
     public boolean isDisabledTopic(String topic) {
-        List<String> enabledTopicFilter = config.getEnabledTopicFilter();
-        List<String> disabledTopicFilter = config.getDisabledTopicFilter();
-        return !enabledTopicFilter.contains(Configuration.ENABLED_TOPICS_ALL)
-                && enabledTopicFilter.stream().noneMatch(topic::contains)
-                || !topic.isEmpty() && disabledTopicFilter.stream().anyMatch(topic::contains);
+        return !config.getEnabledTopicFilter().contains(Configuration.ENABLED_TOPICS_ALL)
+                && !config.getEnabledTopicMatcher().containsAny(topic)
+                || !topic.isEmpty() && config.getDisabledTopicMatcher().containsAny(topic);
     }
 
     protected Optional<Integer> getAccountId(String authorUsername) {
@@ -56,9 +58,15 @@ public class GerritClientAccount extends GerritClientBase {
     }
 
     private List<String> getAccountGroups(Integer accountId) {
+        List<String> accountGroups = accountGroupsCache.getIfPresent(accountId);
+        if (accountGroups != null) {
+            return accountGroups;
+        }
         try (ManualRequestContext requestContext = config.openRequestContext()) {
             List<GroupInfo> groups = config.getGerritApi().accounts().id(accountId).getGroups();
-            return groups.stream().map(g -> g.name).collect(toList());
+            accountGroups = groups.stream().map(g -> g.name).collect(toList());
+            accountGroupsCache.put(accountId, accountGroups);
+            return accountGroups;
         }
         catch (Exception e) {
             log.error("Could not find groups for account ID {}", accountId);
@@ -67,11 +75,16 @@ public class GerritClientAccount extends GerritClientBase {
     }
 
     private boolean isDisabledUserGroup(String authorUsername) {
-        List<String> enabledGroups = config.getEnabledGroups();
-        List<String> disabledGroups = config.getDisabledGroups();
+        Set<String> enabledGroups = config.getEnabledGroups();
+        Set<String> disabledGroups = config.getDisabledGroups();
         if (enabledGroups.isEmpty() && disabledGroups.isEmpty()) {
             return false;
         }
+        // With all the groups enabled and none disabled, the groups of the account do not need to be retrieved
+        boolean allGroupsEnabled = enabledGroups.contains(Configuration.ENABLED_GROUPS_ALL);
+        if (allGroupsEnabled && disabledGroups.stream().allMatch(String::isEmpty)) {
+            return false;
+        }
         Optional<Integer> accountId = getAccountId(authorUsername);
         if (accountId.isEmpty()) {
             return false;
@@ -80,8 +93,7 @@ public class GerritClientAccount extends GerritClientBase {
         if (accountGroups == null || accountGroups.isEmpty()) {
             return false;
         }
-        return !enabledGroups.contains(Configuration.ENABLED_GROUPS_ALL)
-                && enabledGroups.stream().noneMatch(accountGroups::contains)
-                || disabledGroups.stream().anyMatch(accountGroups::contains);
+        return !allGroupsEnabled && accountGroups.stream().noneMatch(enabledGroups::contains)
+                || accountGroups.stream().anyMatch(disabledGroups::contains);
     }
 }
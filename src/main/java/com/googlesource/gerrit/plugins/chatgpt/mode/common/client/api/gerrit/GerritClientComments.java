@@ -4,7 +4,6 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.gerrit.extensions.common.CommentInfo;
 import com.google.gerrit.server.account.AccountCache;
 import com.google.gerrit.server.events.CommentAddedEvent;
-import com.google.gerrit.server.util.ManualRequestContext;
 import com.google.inject.Inject;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
@@ -20,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import static java.util.stream.Collectors.toList;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.TimeUtils.getTimeStamp;
 import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientDetail.toAuthor;
@@ -45,11 +45,12 @@ public class GerritClientComments extends GerritClientAccount {
     public GerritClientComments(
             Configuration config,
             AccountCache accountCache,
+            AccountGroupsCache accountGroupsCache,
             ChangeSetData changeSetData,
             PluginDataHandlerProvider pluginDataHandlerProvider,
             Localizer localizer
     ) {
-        super(config, accountCache);
+        super(config, accountCache, accountGroupsCache);
         this.changeSetData = changeSetData;
         this.pluginDataHandlerProvider = pluginDataHandlerProvider;
         this.localizer = localizer;
@@ -62,7 +63,8 @@ public class GerritClientComments extends GerritClientAccount {
         return new CommentData(commentProperties, commentMap, patchSetCommentMap);
     }
 
-    public boolean retrieveLastComments(GerritChange change) {
+    // The snapshot is only retrieved once the comments are known to need processing
+    public boolean retrieveLastComments(GerritChange change, Supplier<GerritChangeSnapshot> snapshotSupplier) {
         CommentAddedEvent commentAddedEvent = (CommentAddedEvent) change.getEvent();
         authorUsername = commentAddedEvent.author.get().username;
         log.debug("Found comments by '{}' on {}", authorUsername, change.getEventTimeStamp());
@@ -74,84 +76,78 @@ public class GerritClientComments extends GerritClientAccount {
             log.info("Review of comments from user '{}' is disabled.", authorUsername);
             return false;
         }
-        addLastComments(change);
+        addLastComments(snapshotSupplier.get());
 
         return !commentProperties.isEmpty();
     }
 
-    public void retrieveAllComments(GerritChange change) {
+    public void retrieveAllComments(GerritChangeSnapshot snapshot) {
         try {
-            retrieveComments(change);
+            retrieveComments(snapshot);
         } catch (Exception e) {
-            log.error("Error while retrieving all comments for change: {}", change.getFullChangeId(), e);
+            log.error("Error while retrieving all comments for change: {}", snapshot.getChange().getFullChangeId(), e);
         }
     }
 
-    private List<GerritComment> retrieveComments(GerritChange change) throws Exception {
-        try (ManualRequestContext requestContext = config.openRequestContext()) {
-            Map<String, List<CommentInfo>> comments =
-                config
-                    .getGerritApi()
-                    .changes()
-                    .id(
-                        change.getProjectName(),
-                        change.getBranchNameKey().shortName(),
-                        change.getChangeKey().get())
-                    .commentsRequest()
-                    .get();
-
-            // note that list of Map.Entry was used in order to keep the original response order
-            List<Map.Entry<String, List<GerritComment>>> lastCommentEntries =
-                comments.entrySet().stream()
-                    .map(
-                        entry ->
-                            Map.entry(
-                                entry.getKey(),
-                                entry.getValue().stream()
-                                    .map(GerritClientComments::toComment)
-                                    .collect(toList())))
-                    .collect(toList());
-
-            String latestChangeMessageId = null;
-            HashMap<String, List<GerritComment>> latestComments = new HashMap<>();
-            for (Map.Entry<String, List<GerritComment>> entry : lastCommentEntries) {
-                String filename = entry.getKey();
-                log.info("Commented filename: {}", filename);
-
-                List<GerritComment> commentsArray = entry.getValue();
-
-                for (GerritComment commentObject : commentsArray) {
-                    commentObject.setFilename(filename);
-                    String commentId = commentObject.getId();
-                    String changeMessageId = commentObject.getChangeMessageId();
-                    String commentAuthorUsername = commentObject.getAuthor().getUsername();
-                    log.debug(
-                        "Change Message Id: {} - Author: {}", latestChangeMessageId, commentAuthorUsername);
-                    long updatedTimeStamp = getTimeStamp(commentObject.getUpdated());
-                    if (commentAuthorUsername.equals(authorUsername)
-                        && updatedTimeStamp
-                            >= change.getEventTimeStamp() - MAX_SECS_GAP_BETWEEN_EVENT_AND_COMMENT) {
-                      log.debug("Found comment with updatedTimeStamp : {}", updatedTimeStamp);
-                      latestChangeMessageId = changeMessageId;
-                    }
-                    latestComments
-                        .computeIfAbsent(changeMessageId, k -> new ArrayList<>())
-                        .add(commentObject);
-                    commentMap.put(commentId, commentObject);
-                    if (filename.equals(GERRIT_PATCH_SET_FILENAME)) {
-                        patchSetCommentMap.put(changeMessageId, commentObject);
-                    }
+    private List<GerritComment> retrieveComments(GerritChangeSnapshot snapshot) {
+        GerritChange change = snapshot.getChange();
+        Map<String, List<CommentInfo>> comments = snapshot.getComments();
+        // A failed retrieval has already been logged when loading the snapshot
+        if (comments == null) {
+            return null;
+        }
+
+        // note that list of Map.Entry was used in order to keep the original response order
+        List<Map.Entry<String, List<GerritComment>>> lastCommentEntries =
+            comments.entrySet().stream()
+                .map(
+                    entry ->
+                        Map.entry(
+                            entry.getKey(),
+                            entry.getValue().stream()
+                                .map(GerritClientComments::toComment)
+                                .collect(toList())))
+                .collect(toList());
+
+        String latestChangeMessageId = null;
+        HashMap<String, List<GerritComment>> latestComments = new HashMap<>();
+        for (Map.Entry<String, List<GerritComment>> entry : lastCommentEntries) {
+            String filename = entry.getKey();
+            log.info("Commented filename: {}", filename);
+
+            List<GerritComment> commentsArray = entry.getValue();
+
+            for (GerritComment commentObject : commentsArray) {
+                commentObject.setFilename(filename);
+                String commentId = commentObject.getId();
+                String changeMessageId = commentObject.getChangeMessageId();
+                String commentAuthorUsername = commentObject.getAuthor().getUsername();
+                log.debug(
+                    "Change Message Id: {} - Author: {}", latestChangeMessageId, commentAuthorUsername);
+                long updatedTimeStamp = getTimeStamp(commentObject.getUpdated());
+                if (commentAuthorUsername.equals(authorUsername)
+                    && updatedTimeStamp
+                        >= change.getEventTimeStamp() - MAX_SECS_GAP_BETWEEN_EVENT_AND_COMMENT) {
+                  log.debug("Found comment with updatedTimeStamp : {}", updatedTimeStamp);
+                  latestChangeMessageId = changeMessageId;
+                }
+                latestComments
+                    .computeIfAbsent(changeMessageId, k -> new ArrayList<>())
+                    .add(commentObject);
+                commentMap.put(commentId, commentObject);
+                if (filename.equals(GERRIT_PATCH_SET_FILENAME)) {
+                    patchSetCommentMap.put(changeMessageId, commentObject);
                 }
             }
-
-            return latestComments.getOrDefault(latestChangeMessageId, null);
         }
+
+        return latestComments.getOrDefault(latestChangeMessageId, null);
     }
 
-    private void addLastComments(GerritChange change) {
+    private void addLastComments(GerritChangeSnapshot snapshot) {
         ClientMessage clientMessage = new ClientMessage(config, changeSetData, pluginDataHandlerProvider, localizer);
         try {
-            List<GerritComment> latestComments = retrieveComments(change);
+            List<GerritComment> latestComments = retrieveComments(snapshot);
             if (latestComments == null) {
                 return;
             }
@@ -169,7 +165,8 @@ public class GerritClientComments extends GerritClientAccount {
                 }
             }
         } catch (Exception e) {
-            log.error("Error while retrieving last comments for change: {}", change.getFullChangeId(), e);
+            log.error("Error while retrieving last comments for change: {}", snapshot.getChange().getFullChangeId(),
+                    e);
         }
     }
 
@@ -6,8 +6,6 @@ import com.google.gerrit.extensions.common.ApprovalInfo;
 import com.google.gerrit.extensions.common.ChangeInfo;
 import com.google.gerrit.extensions.common.ChangeMessageInfo;
 import com.google.gerrit.extensions.common.LabelInfo;
-import com.google.gerrit.server.util.ManualRequestContext;
-import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritComment;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritPatchSetDetail;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritPermittedVotingRange;
@@ -32,25 +30,23 @@ public class GerritClientDetail {
 
     private GerritPatchSetDetail gerritPatchSetDetail;
     private final int gptAccountId;
-    private final Configuration config;
 
-    public GerritClientDetail(Configuration config, ChangeSetData changeSetData) {
+    public GerritClientDetail(ChangeSetData changeSetData) {
         this.gptAccountId = changeSetData.getGptAccountId();
-        this.config = config;
     }
 
-    public List<GerritComment> getMessages(GerritChange change) {
-        loadPatchSetDetail(change);
+    public List<GerritComment> getMessages(GerritChangeSnapshot snapshot) {
+        loadPatchSetDetail(snapshot);
         return gerritPatchSetDetail.getMessages();
     }
 
-    public boolean isWorkInProgress(GerritChange change) {
-        loadPatchSetDetail(change);
+    public boolean isWorkInProgress(GerritChangeSnapshot snapshot) {
+        loadPatchSetDetail(snapshot);
         return gerritPatchSetDetail.getWorkInProgress() != null && gerritPatchSetDetail.getWorkInProgress();
     }
 
-    public GerritPermittedVotingRange getPermittedVotingRange(GerritChange change) {
-        loadPatchSetDetail(change);
+    public GerritPermittedVotingRange getPermittedVotingRange(GerritChangeSnapshot snapshot) {
+        loadPatchSetDetail(snapshot);
         List<GerritPatchSetDetail.Permission> permissions = gerritPatchSetDetail.getLabels().getCodeReview().getAll();
         if (permissions == null) {
             log.debug("No limitations on the ChatGPT voting range were detected");
@@ -65,45 +61,35 @@ public class GerritClientDetail {
         return null;
     }
 
-    private void loadPatchSetDetail(GerritChange change) {
+    private void loadPatchSetDetail(GerritChangeSnapshot snapshot) {
         if (gerritPatchSetDetail != null) {
             return;
         }
-        try {
-            gerritPatchSetDetail = getReviewDetail(change);
-        }
-        catch (Exception e) {
-            log.error("Error retrieving PatchSet details", e);
+        if (snapshot.getChangeInfo() == null) {
+            log.error("Error retrieving PatchSet details of change: {}", snapshot.getChange().getFullChangeId());
+            return;
         }
+        gerritPatchSetDetail = getReviewDetail(snapshot.getChangeInfo());
     }
 
-    private GerritPatchSetDetail getReviewDetail(GerritChange change) throws Exception {
-        try (ManualRequestContext requestContext = config.openRequestContext()) {
-          ChangeInfo info =
-              config
-                  .getGerritApi()
-                  .changes()
-                  .id(change.getProjectName(), change.getBranchNameKey().shortName(), change.getChangeKey().get())
-                  .get();
-
-          GerritPatchSetDetail detail = new GerritPatchSetDetail();
-          detail.setWorkInProgress(info.workInProgress);
-          Optional.ofNullable(info.labels)
-              .map(Map::entrySet)
-              .map(Set::stream)
-              .flatMap(
-                  labels ->
-                      labels
-                          .filter(label -> LabelId.CODE_REVIEW.equals(label.getKey()))
-                          .map(GerritClientDetail::toLabels)
-                          .findAny())
-              .ifPresent(detail::setLabels);
-          Optional.ofNullable(info.messages)
-              .map(messages -> messages.stream().map(GerritClientDetail::toComment).collect(toList()))
-              .ifPresent(detail::setMessages);
-
-          return detail;
-        }
+    private GerritPatchSetDetail getReviewDetail(ChangeInfo info) {
+        GerritPatchSetDetail detail = new GerritPatchSetDetail();
+        detail.setWorkInProgress(info.workInProgress);
+        Optional.ofNullable(info.labels)
+            .map(Map::entrySet)
+            .map(Set::stream)
+            .flatMap(
+                labels ->
+                    labels
+                        .filter(label -> LabelId.CODE_REVIEW.equals(label.getKey()))
+                        .map(GerritClientDetail::toLabels)
+                        .findAny())
+            .ifPresent(detail::setLabels);
+        Optional.ofNullable(info.messages)
+            .map(messages -> messages.stream().map(GerritClientDetail::toComment).collect(toList()))
+            .ifPresent(detail::setMessages);
+
+        return detail;
     }
 
     private static GerritPatchSetDetail.Labels toLabels(Entry<String, LabelInfo> label) {
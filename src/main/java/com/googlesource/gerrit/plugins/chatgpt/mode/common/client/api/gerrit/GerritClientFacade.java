@@ -1,6 +1,12 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.gerrit.extensions.api.changes.ChangeApi;
+import com.google.gerrit.extensions.client.ListChangesOption;
+import com.google.gerrit.extensions.common.ChangeInfo;
+import com.google.gerrit.extensions.common.CommentInfo;
+import com.google.gerrit.server.util.ManualRequestContext;
 import com.google.inject.Inject;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.gerrit.IGerritClientPatchSet;
@@ -10,15 +16,36 @@ import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetD
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.GerritClientData;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChangeSnapshot.PHASE_CHANGE;
+import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChangeSnapshot.PHASE_COMMENTS;
 
 @Slf4j
 public class GerritClientFacade {
+    // Everything needed by the detail, comments and Patch Set clients, without the costly defaults of `get()` such as
+    // the diff stats and the files of all the revisions
+    private static final EnumSet<ListChangesOption> SNAPSHOT_OPTIONS = EnumSet.of(
+            ListChangesOption.ALL_REVISIONS,
+            ListChangesOption.DETAILED_LABELS,
+            ListChangesOption.DETAILED_ACCOUNTS,
+            ListChangesOption.MESSAGES,
+            ListChangesOption.SKIP_DIFFSTAT
+    );
+
+    private final Configuration config;
     private final ChangeSetData changeSetData;
     private final GerritClientDetail gerritClientDetail;
     private final GerritClientComments gerritClientComments;
     private final IGerritClientPatchSet gerritClientPatchSet;
 
+    private GerritChangeSnapshot changeSnapshot;
+
     @VisibleForTesting
     @Inject
     public GerritClientFacade(
@@ -26,14 +53,15 @@ public class GerritClientFacade {
             ChangeSetData changeSetData,
             GerritClientComments gerritClientComments,
             IGerritClientPatchSet gerritClientPatchSet) {
-        gerritClientDetail = new GerritClientDetail(config, changeSetData);
+        gerritClientDetail = new GerritClientDetail(changeSetData);
+        this.config = config;
         this.gerritClientPatchSet = gerritClientPatchSet;
         this.changeSetData = changeSetData;
         this.gerritClientComments = gerritClientComments;
     }
 
     public GerritPermittedVotingRange getPermittedVotingRange(GerritChange change) {
-        return gerritClientDetail.getPermittedVotingRange(change);
+        return gerritClientDetail.getPermittedVotingRange(getChangeSnapshot(change));
     }
 
     public String getPatchSet(GerritChange change) throws Exception {
@@ -49,32 +77,78 @@ public class GerritClientFacade {
     }
 
     public boolean isWorkInProgress(GerritChange change) {
-        return gerritClientDetail.isWorkInProgress(change);
+        return gerritClientDetail.isWorkInProgress(getChangeSnapshot(change));
     }
 
     public HashMap<String, FileDiffProcessed> getFileDiffsProcessed() {
         return gerritClientPatchSet.getFileDiffsProcessed();
     }
 
+    public Map<String, String> getFileDiffsJson() {
+        return gerritClientPatchSet.getFileDiffsJson();
+    }
+
     public Integer getNotNullAccountId(String authorUsername) {
         return gerritClientPatchSet.getNotNullAccountId(authorUsername);
     }
 
     public boolean retrieveLastComments(GerritChange change) {
-        return gerritClientComments.retrieveLastComments(change);
+        return gerritClientComments.retrieveLastComments(change, () -> getChangeSnapshot(change));
     }
 
     public void retrievePatchSetInfo(GerritChange change) {
-        gerritClientComments.retrieveAllComments(change);
-        gerritClientPatchSet.retrieveRevisionBase(change);
+        GerritChangeSnapshot snapshot = getChangeSnapshot(change);
+        gerritClientComments.retrieveAllComments(snapshot);
+        gerritClientPatchSet.retrieveRevisionBase(snapshot);
     }
 
     public GerritClientData getClientData(GerritChange change) {
         return new GerritClientData(
                 gerritClientPatchSet.getFileDiffsProcessed(),
-                gerritClientDetail.getMessages(change),
+                gerritClientDetail.getMessages(getChangeSnapshot(change)),
                 gerritClientComments.getCommentData(),
                 gerritClientPatchSet.getRevisionBase()
         );
     }
+
+    // The snapshot is retrieved once per change and then shared by the clients for the whole event
+    private GerritChangeSnapshot getChangeSnapshot(GerritChange change) {
+        if (changeSnapshot == null || !changeSnapshot.getChange().getFullChangeId().equals(change.getFullChangeId())) {
+            changeSnapshot = loadChangeSnapshot(change);
+        }
+        return changeSnapshot;
+    }
+
+    private GerritChangeSnapshot loadChangeSnapshot(GerritChange change) {
+        Map<String, Long> phaseTimings = new LinkedHashMap<>();
+        ChangeInfo changeInfo = null;
+        Map<String, List<CommentInfo>> comments = null;
+        try (ManualRequestContext requestContext = config.openRequestContext()) {
+            ChangeApi changeApi = config.getGerritApi()
+                    .changes()
+                    .id(change.getProjectName(), change.getBranchNameKey().shortName(), change.getChangeKey().get());
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            try {
+                changeInfo = changeApi.get(SNAPSHOT_OPTIONS);
+            }
+            catch (Exception e) {
+                log.error("Error retrieving details of change: {}", change.getFullChangeId(), e);
+            }
+            phaseTimings.put(PHASE_CHANGE, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            stopwatch.reset().start();
+            try {
+                comments = changeApi.commentsRequest().get();
+            }
+            catch (Exception e) {
+                log.error("Error retrieving comments of change: {}", change.getFullChangeId(), e);
+            }
+            phaseTimings.put(PHASE_COMMENTS, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        }
+        catch (Exception e) {
+            log.error("Error retrieving snapshot of change: {}", change.getFullChangeId(), e);
+        }
+        log.debug("Change snapshot of {} retrieved with phase timings (ms): {}", change.getFullChangeId(),
+                phaseTimings);
+        return new GerritChangeSnapshot(change, changeInfo, comments, phaseTimings);
+    }
 }
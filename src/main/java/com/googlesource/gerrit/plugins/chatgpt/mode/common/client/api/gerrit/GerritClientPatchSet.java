@@ -1,15 +1,18 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
-import com.google.gerrit.extensions.client.ListChangesOption;
-import com.google.gerrit.extensions.common.ChangeInfo;
 import com.google.gerrit.extensions.common.DiffInfo;
 import com.google.gerrit.server.account.AccountCache;
 import com.google.gerrit.server.util.ManualRequestContext;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.diff.FileDiffProcessed;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritFileDiff;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritPatchSetFileDiff;
@@ -24,39 +27,28 @@ import static java.util.stream.Collectors.toList;
 
 @Slf4j
 public class GerritClientPatchSet extends GerritClientAccount {
+    protected final RetrievalExecutor retrievalExecutor;
     protected final List<String> diffs;
+    // Review diffs of the single files, in the same order as `diffs`
+    @Getter
+    protected final Map<String, String> fileDiffsJson = new LinkedHashMap<>();
 
     @Getter
     protected Integer revisionBase = 0;
 
-    private boolean isCommitMessage;
-
-    public GerritClientPatchSet(Configuration config, AccountCache accountCache) {
-        super(config, accountCache);
+    public GerritClientPatchSet(Configuration config, AccountCache accountCache,
+            AccountGroupsCache accountGroupsCache, RetrievalExecutor retrievalExecutor) {
+        super(config, accountCache, accountGroupsCache);
+        this.retrievalExecutor = retrievalExecutor;
         diffs = new ArrayList<>();
     }
 
-    public void retrieveRevisionBase(GerritChange change) {
-        try (ManualRequestContext requestContext = config.openRequestContext()) {
-            ChangeInfo changeInfo =
-                config
-                    .getGerritApi()
-                    .changes()
-                    .id(
-                        change.getProjectName(),
-                        change.getBranchNameKey().shortName(),
-                        change.getChangeKey().get())
-                    .get(ListChangesOption.ALL_REVISIONS);
-            revisionBase =
-                Optional.ofNullable(changeInfo)
-                    .map(info -> info.revisions)
-                    .map(revisions -> revisions.size() - 1)
-                    .orElse(0);
-        }
-        catch (Exception e) {
-            log.error("Could not retrieve revisions for PatchSet with fullChangeId: {}", change.getFullChangeId(), e);
-            revisionBase = 0;
-        }
+    public void retrieveRevisionBase(GerritChangeSnapshot snapshot) {
+        revisionBase =
+            Optional.ofNullable(snapshot.getChangeInfo())
+                .map(info -> info.revisions)
+                .map(revisions -> revisions.size() - 1)
+                .orElse(0);
     }
 
     protected int getChangeSetRevisionBase(ChangeSetData changeSetData) {
@@ -64,34 +56,67 @@ public class GerritClientPatchSet extends GerritClientAccount {
     }
 
     protected void retrieveFileDiff(GerritChange change, List<String> files, int revisionBase) throws Exception {
-        List<String> enabledFileExtensions = config.getEnabledFileExtensions();
-        try (ManualRequestContext requestContext = config.openRequestContext()) {
-            for (String filename : files) {
-                isCommitMessage = filename.equals("/COMMIT_MSG");
-                if (!isCommitMessage && !matchesExtensionList(filename, enabledFileExtensions)) {
-                    continue;
-                }
-                DiffInfo diff =
-                        config
-                                .getGerritApi()
-                                .changes()
-                                .id(
-                                        change.getProjectName(),
-                                        change.getBranchNameKey().shortName(),
-                                        change.getChangeKey().get())
-                                .current()
-                                .file(filename)
-                                .diff(revisionBase);
-                processFileDiff(filename, diff);
+        Set<String> enabledFileExtensions = config.getEnabledFileExtensions();
+        List<String> reviewedFiles = files.stream()
+                .filter(filename -> isCommitMessage(filename) || matchesExtensionList(filename, enabledFileExtensions))
+                .collect(toList());
+        int parallelism = Math.min(config.getFileDiffRetrievalParallelism(), reviewedFiles.size());
+        List<FileDiffResult> fileDiffResults = new ArrayList<>();
+        if (parallelism <= 1) {
+            for (String filename : reviewedFiles) {
+                fileDiffResults.add(retrieveAndProcessFileDiff(change, filename, revisionBase));
             }
         }
+        else {
+            fileDiffResults = retrieveFileDiffsInParallel(change, reviewedFiles, revisionBase, parallelism);
+        }
+        // The results are collected on the calling thread in the order of the files, so that the Patch Set content
+        // is deterministic regardless of the completion order of the retrievals
+        for (FileDiffResult fileDiffResult : fileDiffResults) {
+            fileDiffsProcessed.put(fileDiffResult.filename(), fileDiffResult.fileDiffProcessed());
+            fileDiffsJson.put(fileDiffResult.filename(), fileDiffResult.fileDiffJson());
+            diffs.add(fileDiffResult.fileDiffJson());
+        }
+    }
+
+    private List<FileDiffResult> retrieveFileDiffsInParallel(GerritChange change, List<String> files,
+            int revisionBase, int parallelism) throws Exception {
+        log.debug("Retrieving {} file diffs with parallelism {}", files.size(), parallelism);
+        List<Callable<FileDiffResult>> retrievals = new ArrayList<>();
+        for (String filename : files) {
+            retrievals.add(() -> retrieveAndProcessFileDiff(change, filename, revisionBase));
+        }
+        return retrievalExecutor.invokeInOrder(retrievals, parallelism);
+    }
+
+    private FileDiffResult retrieveAndProcessFileDiff(GerritChange change, String filename, int revisionBase)
+            throws Exception {
+        // The request context is bound to the thread, so it is opened by each retrieval
+        try (ManualRequestContext requestContext = config.openRequestContext()) {
+            DiffInfo diff =
+                    config
+                            .getGerritApi()
+                            .changes()
+                            .id(
+                                    change.getProjectName(),
+                                    change.getBranchNameKey().shortName(),
+                                    change.getChangeKey().get())
+                            .current()
+                            .file(filename)
+                            .diff(revisionBase);
+            return processFileDiff(filename, diff);
+        }
     }
 
     private boolean isChangeSetBased(ChangeSetData changeSetData) {
         return !changeSetData.getForcedReviewLastPatchSet();
     }
 
-    private void processFileDiff(String filename, DiffInfo diff) {
+    private boolean isCommitMessage(String filename) {
+        return filename.equals("/COMMIT_MSG");
+    }
+
+    private FileDiffResult processFileDiff(String filename, DiffInfo diff) {
         log.debug("FileDiff content processed: {}", filename);
 
         GerritPatchSetFileDiff gerritPatchSetFileDiff = new GerritPatchSetFileDiff();
@@ -112,10 +137,10 @@ public class GerritClientPatchSet extends GerritClientAccount {
         // Initialize the reduced file diff for the Gerrit review with fields `meta_a` and `meta_b`
         GerritReviewFileDiff gerritReviewFileDiff = new GerritReviewFileDiff(gerritPatchSetFileDiff.getMetaA(),
                 gerritPatchSetFileDiff.getMetaB());
-        FileDiffProcessed fileDiffProcessed = new FileDiffProcessed(config, isCommitMessage, gerritPatchSetFileDiff);
-        fileDiffsProcessed.put(filename, fileDiffProcessed);
+        FileDiffProcessed fileDiffProcessed = new FileDiffProcessed(config, isCommitMessage(filename),
+                gerritPatchSetFileDiff);
         gerritReviewFileDiff.setContent(fileDiffProcessed.getReviewDiffContent());
-        diffs.add(getNoEscapedGson().toJson(gerritReviewFileDiff));
+        return new FileDiffResult(filename, fileDiffProcessed, getNoEscapedGson().toJson(gerritReviewFileDiff));
     }
 
     protected static GerritFileDiff.Meta toMeta(DiffInfo.FileMeta input) {
@@ -132,4 +157,6 @@ public class GerritClientPatchSet extends GerritClientAccount {
         content.ab = input.ab;
         return content;
     }
+
+    private record FileDiffResult(String filename, FileDiffProcessed fileDiffProcessed, String fileDiffJson) {}
 }
@@ -39,10 +39,11 @@ public class GerritClientReview extends GerritClientAccount {
     public GerritClientReview(
             Configuration config,
             AccountCache accountCache,
+            AccountGroupsCache accountGroupsCache,
             PluginDataHandlerProvider pluginDataHandlerProvider,
             Localizer localizer
     ) {
-        super(config, accountCache);
+        super(config, accountCache, accountGroupsCache);
         this.pluginDataHandlerProvider = pluginDataHandlerProvider;
         this.localizer = localizer;
         debugCodeBlocksDynamicSettings = new DebugCodeBlocksDynamicSettings(localizer);
@@ -1,16 +1,35 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http;
 
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 
 @Slf4j
+@Singleton
 public class HttpClient {
-    private final OkHttpClient client = new OkHttpClient();
+    private static final String EVENT_STREAM_SUBTYPE = "event-stream";
+    // Events of a stream can be spaced out while ChatGPT is processing the request
+    private static final Duration STREAM_READ_TIMEOUT = Duration.ofMinutes(2);
+
+    private final OkHttpClient client;
+    private final OkHttpClient streamingClient;
+
+    @Inject
+    public HttpClient(HttpTransport httpTransport) {
+        client = httpTransport.getOkHttpClient();
+        // The streaming client shares the connection pool of the default one
+        streamingClient = client.newBuilder()
+                .readTimeout(STREAM_READ_TIMEOUT)
+                .build();
+    }
 
     public String execute(Request request) {
         try (Response response = client.newCall(request).execute()) {
@@ -28,6 +47,30 @@ public class HttpClient {
         return null;
     }
 
+    // Lines of an event-stream response are passed to `eventLineConsumer` as they are received, whereas any other
+    // response body is returned as a whole
+    public String executeStreamed(Request request, Consumer<String> eventLineConsumer) {
+        try (Response response = streamingClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) throw new IOException("Unexpected code " + response);
+            ResponseBody body = response.body();
+            if (body == null) {
+                log.error("Request {} returned an empty string", request);
+                return null;
+            }
+            MediaType contentType = body.contentType();
+            if (contentType == null || !EVENT_STREAM_SUBTYPE.equals(contentType.subtype())) {
+                return body.string();
+            }
+            String line;
+            while ((line = body.source().readUtf8Line()) != null) {
+                eventLineConsumer.accept(line);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return null;
+    }
+
     public Request createRequest(String uri, String bearer, RequestBody body, Map<String, String> additionalHeaders) {
         // If body is null, a GET request is initiated. Otherwise, a POST request is sent with the specified body.
         Request.Builder builder = new Request.Builder()
@@ -48,6 +91,19 @@ public class HttpClient {
         return builder.build();
     }
 
+    public Request createDeleteRequest(String uri, String bearer, Map<String, String> additionalHeaders) {
+        Request.Builder builder = new Request.Builder()
+                .url(uri)
+                .header("Authorization", "Bearer " + bearer)
+                .delete();
+        if (additionalHeaders != null) {
+            for (Map.Entry<String, String> header : additionalHeaders.entrySet()) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        return builder.build();
+    }
+
     public Request createRequestFromJson(String uri, String bearer, Object requestObject,
                                          Map<String, String> additionalHeaders) {
         if (requestObject != null) {
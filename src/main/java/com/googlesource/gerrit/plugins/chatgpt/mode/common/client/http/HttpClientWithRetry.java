@@ -1,28 +1,72 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http;
 
 import com.github.rholder.retry.*;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpRetryMetrics.*;
 import static java.net.HttpURLConnection.HTTP_OK;
 
 @Singleton
 @Slf4j
 public class HttpClientWithRetry {
-    private final Retryer<HttpResponse<String>> retryer;
+    private static final int MAX_ATTEMPTS = 5;
 
-    private final HttpClient httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofMinutes(5))
-            .build();
+    private final HttpRetryMetrics retryMetrics;
+    private final HttpClient httpClient;
 
-    public HttpClientWithRetry() {
+    @Inject
+    public HttpClientWithRetry(HttpRetryMetrics retryMetrics, HttpTransport httpTransport) {
+        this.retryMetrics = retryMetrics;
+        httpClient = httpTransport.getHttpClient();
+    }
+
+    // `beforeAttempt` is run before sending each attempt, e.g. to reserve the rate-limit budget of every retry
+    public HttpResponse<String> execute(HttpRequest request, Runnable beforeAttempt)
+            throws ExecutionException, RetryException {
+        HttpResponse<String> response = call(request, HttpResponse.BodyHandlers.ofString(), beforeAttempt);
+        if (response.statusCode() != HTTP_OK) {
+            throw new RuntimeException(getFatalStatusMessage(response.statusCode(), response.body()));
+        }
+        return response;
+    }
+
+    // The body of a successful response is returned as a lazy stream of lines, consumed while it is being received
+    public HttpResponse<Stream<String>> executeLines(HttpRequest request, Runnable beforeAttempt)
+            throws ExecutionException, RetryException {
+        HttpResponse<Stream<String>> response = call(request, responseInfo -> responseInfo.statusCode() == HTTP_OK
+                ? HttpResponse.BodyHandlers.ofLines().apply(responseInfo)
+                : HttpResponse.BodySubscribers.mapping(
+                        HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), String::lines), beforeAttempt);
+        if (response.statusCode() != HTTP_OK) {
+            throw new RuntimeException(getFatalStatusMessage(response.statusCode(),
+                    response.body().collect(Collectors.joining("\n"))));
+        }
+        return response;
+    }
+
+    private <T> HttpResponse<T> call(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+            Runnable beforeAttempt) throws ExecutionException, RetryException {
+        return this.<T>createRetryer().call(() -> {
+            beforeAttempt.run();
+            return sendAttempt(request, bodyHandler);
+        });
+    }
+
+    private String getFatalStatusMessage(int statusCode, String body) {
+        return "Request failed with non-retryable HTTP status code " + statusCode + ": " + body;
+    }
+
+    private <T> Retryer<HttpResponse<T>> createRetryer() {
         //Attention, 'com.github.rholder.retry.RetryListener' is marked unstable with @Beta annotation
         RetryListener listener = new RetryListener() {
             @Override
@@ -33,24 +77,42 @@ public class HttpClientWithRetry {
             }
         };
 
-        this.retryer = RetryerBuilder.<HttpResponse<String>>newBuilder()
+        // A new policy is created for each request, as the backoff depends on the previous waits
+        return RetryerBuilder.<HttpResponse<T>>newBuilder()
                 .retryIfException()
                 .retryIfResult(response -> {
-                    if (response.statusCode() != HTTP_OK) {
-                        log.error("Retry because HTTP status code is not 200. The status code is: " + response.statusCode());
-                        return true;
-                    } else {
+                    int statusCode = response.statusCode();
+                    if (statusCode == HTTP_OK || !HttpRetryPolicy.isRetryable(statusCode)) {
                         return false;
                     }
-                }).withWaitStrategy(WaitStrategies.fixedWait(20, TimeUnit.SECONDS))
-                .withStopStrategy(StopStrategies.stopAfterAttempt(5))
+                    log.error("Retry because HTTP status code is not 200. The status code is: " + statusCode);
+                    return true;
+                }).withWaitStrategy(new HttpRetryPolicy())
+                .withStopStrategy(StopStrategies.stopAfterAttempt(MAX_ATTEMPTS))
                 .withRetryListener(listener)
                 .build();
     }
 
-    public HttpResponse<String> execute(HttpRequest request) throws ExecutionException, RetryException {
-        return retryer.call(() -> httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+    private <T> HttpResponse<T> sendAttempt(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws Exception {
+        long start = System.currentTimeMillis();
+        try {
+            HttpResponse<T> response = httpClient.send(request, bodyHandler);
+            int statusCode = response.statusCode();
+            retryMetrics.recordStatusCode(statusCode);
+            retryMetrics.recordAttempt(getOutcome(statusCode), System.currentTimeMillis() - start);
+            return response;
+        }
+        catch (Exception e) {
+            retryMetrics.recordAttempt(OUTCOME_EXCEPTION, System.currentTimeMillis() - start);
+            throw e;
+        }
     }
 
+    private String getOutcome(int statusCode) {
+        if (statusCode == HTTP_OK) {
+            return OUTCOME_SUCCESS;
+        }
+        return HttpRetryPolicy.isRetryable(statusCode) ? OUTCOME_RETRYABLE_STATUS : OUTCOME_FATAL_STATUS;
+    }
 }
-
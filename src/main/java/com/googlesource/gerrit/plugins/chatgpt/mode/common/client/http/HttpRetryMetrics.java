@@ -0,0 +1,58 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http;
+
+import com.google.gerrit.metrics.Counter1;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.Field;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.metrics.Timer1;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.concurrent.TimeUnit;
+
+@Singleton
+public class HttpRetryMetrics {
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_RETRYABLE_STATUS = "retryable_status";
+    public static final String OUTCOME_FATAL_STATUS = "fatal_status";
+    public static final String OUTCOME_EXCEPTION = "exception";
+
+    private final Counter1<String> attempts;
+    private final Timer1<String> attemptLatency;
+    private final Counter1<Integer> statusCodes;
+
+    @Inject
+    public HttpRetryMetrics(MetricMaker metricMaker) {
+        Field<String> outcomeField = Field.ofString("outcome", Field.ignoreMetadata())
+                .description("Outcome of the attempt")
+                .build();
+        attempts = metricMaker.newCounter(
+                "chatgpt/http_attempts",
+                new Description("Number of attempts of the requests sent to ChatGPT").setRate().setUnit("attempts"),
+                outcomeField
+        );
+        attemptLatency = metricMaker.newTimer(
+                "chatgpt/http_attempt_latency",
+                new Description("Latency of the attempts of the requests sent to ChatGPT")
+                        .setCumulative()
+                        .setUnit(Description.Units.MILLISECONDS),
+                outcomeField
+        );
+        statusCodes = metricMaker.newCounter(
+                "chatgpt/http_status_codes",
+                new Description("HTTP status codes returned by ChatGPT").setRate().setUnit("responses"),
+                Field.ofInteger("status", Field.ignoreMetadata())
+                        .description("HTTP status code")
+                        .build()
+        );
+    }
+
+    public void recordAttempt(String outcome, long latencyMillis) {
+        attempts.increment(outcome);
+        attemptLatency.record(outcome, latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordStatusCode(int statusCode) {
+        statusCodes.increment(statusCode);
+    }
+}
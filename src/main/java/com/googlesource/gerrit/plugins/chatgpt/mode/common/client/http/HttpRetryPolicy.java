@@ -0,0 +1,116 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class HttpRetryPolicy implements WaitStrategy {
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(408, 409, 429, 500, 502, 503, 504);
+    private static final long BASE_WAIT_MILLIS = 1000;
+    private static final long MAX_WAIT_MILLIS = 60000;
+    private static final String RETRY_AFTER_MS_HEADER = "retry-after-ms";
+    private static final String RETRY_AFTER_HEADER = "retry-after";
+    private static final List<String> RATE_LIMIT_RESET_HEADERS = List.of(
+            "x-ratelimit-reset-requests",
+            "x-ratelimit-reset-tokens"
+    );
+    // Reset durations are returned in the Go format, e.g. `1s`, `6m0s` or `20ms`
+    private static final Pattern RESET_DURATION_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+
+    private long previousWaitMillis = BASE_WAIT_MILLIS;
+
+    public static boolean isRetryable(int statusCode) {
+        return RETRYABLE_STATUS_CODES.contains(statusCode);
+    }
+
+    @Override
+    public long computeSleepTime(Attempt failedAttempt) {
+        if (failedAttempt.hasResult() && failedAttempt.getResult() instanceof HttpResponse<?> response) {
+            Optional<Long> serverWaitMillis = getServerWaitMillis(response.headers());
+            if (serverWaitMillis.isPresent()) {
+                log.debug("Retry delay of {} ms requested by server", serverWaitMillis.get());
+                return Math.min(serverWaitMillis.get(), MAX_WAIT_MILLIS);
+            }
+        }
+        return getDecorrelatedJitterWait();
+    }
+
+    private long getDecorrelatedJitterWait() {
+        // Decorrelated jitter: the next wait is drawn between the base wait and three times the previous one, which
+        // spreads out the retries of concurrent requests failing at the same time
+        long upperBound = Math.max(BASE_WAIT_MILLIS + 1, previousWaitMillis * 3);
+        previousWaitMillis = Math.min(MAX_WAIT_MILLIS,
+                ThreadLocalRandom.current().nextLong(BASE_WAIT_MILLIS, upperBound));
+        return previousWaitMillis;
+    }
+
+    private Optional<Long> getServerWaitMillis(HttpHeaders headers) {
+        Optional<String> retryAfterMillis = headers.firstValue(RETRY_AFTER_MS_HEADER);
+        if (retryAfterMillis.isPresent()) {
+            try {
+                return Optional.of((long) Double.parseDouble(retryAfterMillis.get()));
+            }
+            catch (NumberFormatException e) {
+                log.debug("Invalid {} header: {}", RETRY_AFTER_MS_HEADER, retryAfterMillis.get());
+            }
+        }
+        Optional<Long> retryAfter = headers.firstValue(RETRY_AFTER_HEADER).flatMap(this::parseRetryAfter);
+        if (retryAfter.isPresent()) {
+            return retryAfter;
+        }
+        return RATE_LIMIT_RESET_HEADERS.stream()
+                .map(headers::firstValue)
+                .flatMap(Optional::stream)
+                .map(this::parseResetDuration)
+                .flatMap(Optional::stream)
+                .max(Long::compare);
+    }
+
+    private Optional<Long> parseRetryAfter(String retryAfter) {
+        // The `Retry-After` header contains either a number of seconds or an HTTP date
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(retryAfter.trim())).toMillis());
+        }
+        catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryDate = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Optional.of(Math.max(0, Duration.between(ZonedDateTime.now(), retryDate).toMillis()));
+            }
+            catch (DateTimeParseException ex) {
+                log.debug("Invalid {} header: {}", RETRY_AFTER_HEADER, retryAfter);
+                return Optional.empty();
+            }
+        }
+    }
+
+    private Optional<Long> parseResetDuration(String resetDuration) {
+        Matcher matcher = RESET_DURATION_PATTERN.matcher(resetDuration);
+        double millis = 0;
+        boolean found = false;
+        while (matcher.find()) {
+            found = true;
+            double value = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "ms" -> value;
+                case "s" -> value * 1000;
+                case "m" -> value * 60000;
+                default -> value * 3600000;
+            };
+        }
+        return found ? Optional.of((long) Math.ceil(millis)) : Optional.empty();
+    }
+}
@@ -0,0 +1,33 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http;
+
+import com.google.inject.Singleton;
+import lombok.Getter;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Connections to ChatGPT are shared by all the requests of the plugin, so that they are kept alive and multiplexed
+// over HTTP/2 instead of being established anew by each client
+@Singleton
+@Getter
+public class HttpTransport {
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+    private static final long KEEP_ALIVE_DURATION_MINUTES = 5;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMinutes(5);
+
+    private final OkHttpClient okHttpClient = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_MINUTES, TimeUnit.MINUTES))
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .retryOnConnectionFailure(true)
+            .build();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+}
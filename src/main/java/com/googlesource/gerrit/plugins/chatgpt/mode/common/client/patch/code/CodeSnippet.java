@@ -0,0 +1,61 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.code;
+
+import java.util.regex.Pattern;
+
+// Code snippet of a ChatGPT reply, normalized for the search in the diff: non-printing chars are removed while the
+// positions where they are allowed in the code are recorded
+class CodeSnippet {
+    private static final Pattern BEGINNING_DIFF_PATTERN = Pattern.compile("(?:^|\n)[+\\-]");
+    private static final Pattern ENDING_ELLIPSIS_PATTERN = Pattern.compile("\\.\\.\\.\\W*$");
+    private static final String PUNCTUATION_CHARS = "()[]{}<>:;,?&+-*/%|=";
+
+    private final String strippedCode;
+    // Flags set for the chars that can be preceded in the code by a sequence of non-printing chars
+    private final boolean[] spacedBefore;
+
+    CodeSnippet(String codeSnippet) {
+        String commentedCode = ENDING_ELLIPSIS_PATTERN.matcher(
+                BEGINNING_DIFF_PATTERN.matcher(codeSnippet).replaceAll("")
+        ).replaceAll("").trim();
+        StringBuilder strippedCodeBuilder = new StringBuilder(commentedCode.length());
+        boolean[] spacedBeforeBuilder = new boolean[commentedCode.length()];
+        boolean previousIsSpace = false;
+        for (int i = 0; i < commentedCode.length(); i++) {
+            char c = commentedCode.charAt(i);
+            if (isNonPrinting(c)) {
+                previousIsSpace = true;
+                continue;
+            }
+            int strippedPosition = strippedCodeBuilder.length();
+            // Non-printing chars are allowed where they are in the snippet and around the punctuation marks, except
+            // after the last char of the snippet
+            spacedBeforeBuilder[strippedPosition] = previousIsSpace || isPunctuation(c) ||
+                    (strippedPosition > 0 && isPunctuation(strippedCodeBuilder.charAt(strippedPosition - 1)));
+            strippedCodeBuilder.append(c);
+            previousIsSpace = false;
+        }
+        strippedCode = strippedCodeBuilder.toString();
+        spacedBefore = spacedBeforeBuilder;
+    }
+
+    static boolean isNonPrinting(char c) {
+        // Same set of chars matched by `\s` in regular expressions
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    static boolean isPunctuation(char c) {
+        return PUNCTUATION_CHARS.indexOf(c) != -1;
+    }
+
+    String getStrippedCode() {
+        return strippedCode;
+    }
+
+    int length() {
+        return strippedCode.length();
+    }
+
+    boolean isSpacedBefore(int strippedPosition) {
+        return spacedBefore[strippedPosition];
+    }
+}
@@ -0,0 +1,105 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.code;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.CharToLineIndex;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Index of the code of a diff content entry, built once per file and shared by the searches of all the snippets: the
+// code is stored without non-printing chars, along with the offsets of the stripped chars in the original code and
+// the starting positions of the lines
+public class DiffCodeIndex {
+    @Getter
+    private final String diffCode;
+    private final CharToLineIndex charToLineIndex;
+    private final String strippedCode;
+    private final int[] strippedToOriginal;
+    private final int[] lineStarts;
+
+    public DiffCodeIndex(String diffCode, CharToLineIndex charToLineIndex) {
+        this.diffCode = diffCode;
+        this.charToLineIndex = charToLineIndex;
+        StringBuilder strippedCodeBuilder = new StringBuilder(diffCode.length());
+        int[] strippedToOriginalBuilder = new int[diffCode.length()];
+        int[] lineStartsBuilder = new int[16];
+        int lineCount = 1;
+        for (int i = 0; i < diffCode.length(); i++) {
+            char c = diffCode.charAt(i);
+            if (c == '\n') {
+                if (lineCount == lineStartsBuilder.length) {
+                    lineStartsBuilder = Arrays.copyOf(lineStartsBuilder, lineCount * 2);
+                }
+                lineStartsBuilder[lineCount++] = i + 1;
+            }
+            if (!CodeSnippet.isNonPrinting(c)) {
+                strippedToOriginalBuilder[strippedCodeBuilder.length()] = i;
+                strippedCodeBuilder.append(c);
+            }
+        }
+        strippedCode = strippedCodeBuilder.toString();
+        strippedToOriginal = Arrays.copyOf(strippedToOriginalBuilder, strippedCode.length());
+        lineStarts = Arrays.copyOf(lineStartsBuilder, lineCount);
+    }
+
+    // Returns the start and end positions of the non-overlapping occurrences of the snippet in the code, as found by
+    // a whitespace-tolerant regex matching the snippet
+    List<int[]> findOccurrences(CodeSnippet codeSnippet) {
+        List<int[]> occurrences = new ArrayList<>();
+        int snippetLength = codeSnippet.length();
+        if (snippetLength == 0) {
+            // A snippet left empty once normalized (e.g. only made of non-printing chars or of an ellipsis) is
+            // matched by the regex with an empty match at every position of the code
+            for (int position = 0; position <= diffCode.length(); position++) {
+                occurrences.add(new int[]{position, position});
+            }
+            return occurrences;
+        }
+        int previousEnd = 0;
+        int strippedPosition = strippedCode.indexOf(codeSnippet.getStrippedCode());
+        while (strippedPosition != -1) {
+            int nextSearchPosition = strippedPosition + 1;
+            if (strippedToOriginal[strippedPosition] >= previousEnd && isValidOccurrence(codeSnippet,
+                    strippedPosition)) {
+                int start = strippedToOriginal[strippedPosition];
+                if (codeSnippet.isSpacedBefore(0)) {
+                    while (start > previousEnd && CodeSnippet.isNonPrinting(diffCode.charAt(start - 1))) {
+                        start--;
+                    }
+                }
+                int end = strippedToOriginal[strippedPosition + snippetLength - 1] + 1;
+                occurrences.add(new int[]{start, end});
+                previousEnd = end;
+                nextSearchPosition = strippedPosition + snippetLength;
+            }
+            strippedPosition = strippedCode.indexOf(codeSnippet.getStrippedCode(), nextSearchPosition);
+        }
+        return occurrences;
+    }
+
+    int getLineNumber(int position) {
+        return charToLineIndex.getFloorLine(position);
+    }
+
+    int getLineCharacter(int position) {
+        // Return the offset relative to the nearest preceding newline character if found, `position` otherwise
+        int lineIndex = Arrays.binarySearch(lineStarts, position);
+        if (lineIndex < 0) {
+            lineIndex = -lineIndex - 2;
+        }
+        return position - lineStarts[lineIndex];
+    }
+
+    private boolean isValidOccurrence(CodeSnippet codeSnippet, int strippedPosition) {
+        // Non-printing chars in the code are only allowed where they are allowed by the snippet
+        for (int i = 1; i < codeSnippet.length(); i++) {
+            boolean isSpaced = strippedToOriginal[strippedPosition + i] - strippedToOriginal[strippedPosition + i - 1]
+                    > 1;
+            if (isSpaced && !codeSnippet.isSpacedBefore(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
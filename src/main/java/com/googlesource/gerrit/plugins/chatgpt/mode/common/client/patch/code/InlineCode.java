@@ -7,7 +7,9 @@ import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.Gerr
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.TextUtils.joinWithNewLine;
@@ -16,19 +18,20 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.TextUtils.joinWithNe
 public class InlineCode {
     private final CodeFinder codeFinder;
     private final List<String> newContent;
-    private GerritCodeRange range;
+    // Ranges found for the snippets of the replies, by snippet and line number suggested by ChatGPT
+    private final Map<String, Optional<GerritCodeRange>> commentRanges = new HashMap<>();
 
     public InlineCode(FileDiffProcessed fileDiffProcessed) {
-        codeFinder = new CodeFinder(fileDiffProcessed.getCodeFinderDiffs(), fileDiffProcessed.getRandomPlaceholder());
+        codeFinder = new CodeFinder(fileDiffProcessed.getDiffCodeIndexes());
         newContent = fileDiffProcessed.getNewContent();
     }
 
     public String getInlineCode(GerritComment commentProperty) {
         if (commentProperty.getRange() != null) {
             List<String> codeByRange = new ArrayList<>();
-            range = commentProperty.getRange();
+            GerritCodeRange range = commentProperty.getRange();
             for (int line_num = range.startLine; line_num <= range.endLine; line_num++) {
-                codeByRange.add(getLineSlice(line_num));
+                codeByRange.add(getLineSlice(range, line_num));
             }
             return joinWithNewLine(codeByRange);
         }
@@ -37,7 +40,7 @@ public class InlineCode {
         }
     }
 
-    public Optional<GerritCodeRange> findCommentRange(ChatGptReplyItem replyItem) {
+    public synchronized Optional<GerritCodeRange> findCommentRange(ChatGptReplyItem replyItem) {
         int commentedLine;
         try {
             commentedLine = replyItem.getLineNumber();
@@ -47,10 +50,16 @@ public class InlineCode {
             commentedLine = newContent.size() / 2;
         }
 
-        return Optional.ofNullable(codeFinder.findCommentedCode(replyItem, commentedLine));
+        int finalCommentedLine = commentedLine;
+        Optional<GerritCodeRange> commentRange = commentRanges.computeIfAbsent(
+                commentedLine + ":" + replyItem.getCodeSnippet(),
+                k -> Optional.ofNullable(codeFinder.findCommentedCode(replyItem, finalCommentedLine))
+        );
+        // A copy is returned, as the same range can be assigned to multiple replies
+        return commentRange.map(range -> range.toBuilder().build());
     }
 
-    private String getLineSlice(int line_num) {
+    private String getLineSlice(GerritCodeRange range, int line_num) {
         String line = getLineFromLineNumber(line_num);
         if (line == null) {
             throw new RuntimeException("Error retrieving line number from content");
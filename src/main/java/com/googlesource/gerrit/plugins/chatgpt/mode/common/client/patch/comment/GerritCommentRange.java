@@ -34,7 +34,7 @@ public class GerritCommentRange {
                     fileDiffsProcessed);
             return gerritCommentRange;
         }
-        InlineCode inlineCode = new InlineCode(fileDiffsProcessed.get(filename));
+        InlineCode inlineCode = fileDiffsProcessed.get(filename).getInlineCode();
         gerritCommentRange = inlineCode.findCommentRange(replyItem);
         if (gerritCommentRange.isEmpty()) {
             log.info("Inline code not found for reply {}", replyItem);
@@ -1,25 +1,24 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.diff;
 
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.code.DiffCodeIndex;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.code.InlineCode;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritPatchSetFileDiff;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.code.CodeFinderDiff;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.CharToLineIndex;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.DiffContent;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.DiffType;
 import com.googlesource.gerrit.plugins.chatgpt.settings.Settings;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.RandomStringUtils;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.TreeMap;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.TextUtils.joinWithNewLine;
 
 @Slf4j
 public class FileDiffProcessed {
-    private static final int MIN_RANDOM_PLACEHOLDER_VARIABLE_LENGTH = 1;
-
     private final Configuration config;
     private final boolean isCommitMessage;
     @Getter
@@ -28,12 +27,12 @@ public class FileDiffProcessed {
     private List<String> newContent;
     @Getter
     private List<DiffContent> reviewDiffContent;
-    @Getter
-    private String randomPlaceholder;
     private int lineNum;
+    private List<DiffCodeIndex> diffCodeIndexes;
+    private InlineCode inlineCode;
     private DiffContent diffContentItem;
     private DiffContent reviewDiffContentItem;
-    private TreeMap<Integer, Integer> charToLineMapItem;
+    private CharToLineIndex charToLineIndexItem;
 
     public FileDiffProcessed(Configuration config, boolean isCommitMessage,
                              GerritPatchSetFileDiff gerritPatchSetFileDiff) {
@@ -41,7 +40,30 @@ public class FileDiffProcessed {
         this.isCommitMessage = isCommitMessage;
 
         updateContent(gerritPatchSetFileDiff);
-        updateRandomPlaceholder(gerritPatchSetFileDiff);
+    }
+
+    // The index used to locate the code snippets in the diff is built on first use and shared by all the searches
+    public synchronized List<DiffCodeIndex> getDiffCodeIndexes() {
+        if (diffCodeIndexes == null) {
+            diffCodeIndexes = new ArrayList<>();
+            for (CodeFinderDiff codeFinderDiff : codeFinderDiffs) {
+                for (DiffType diffType : DiffType.values()) {
+                    String diffCode = codeFinderDiff.getContent().get(diffType);
+                    if (diffCode != null) {
+                        diffCodeIndexes.add(new DiffCodeIndex(diffCode, codeFinderDiff.getCharToLineIndex()));
+                    }
+                }
+            }
+        }
+        return diffCodeIndexes;
+    }
+
+    // The same InlineCode instance is shared by all the replies and comments related to the file
+    public synchronized InlineCode getInlineCode() {
+        if (inlineCode == null) {
+            inlineCode = new InlineCode(this);
+        }
+        return inlineCode;
     }
 
     private void updateContent(GerritPatchSetFileDiff gerritPatchSetFileDiff) {
@@ -56,23 +78,14 @@ public class FileDiffProcessed {
         for (GerritPatchSetFileDiff.Content patchSetContentItem : patchSetDiffContent) {
             diffContentItem = new DiffContent();
             reviewDiffContentItem = new DiffContent();
-            charToLineMapItem = new TreeMap<>();
-            // Iterate over the fields `a`, `b` and `ab` of each diff content
-            for (Field patchSetDiffField : GerritPatchSetFileDiff.Content.class.getDeclaredFields()) {
-                processFileDiffItem(patchSetDiffField, patchSetContentItem);
+            charToLineIndexItem = new CharToLineIndex();
+            // Iterate over the types `a`, `b` and `ab` of each diff content
+            for (DiffType diffType : DiffType.values()) {
+                processFileDiffItem(diffType, patchSetContentItem);
             }
             reviewDiffContent.add(reviewDiffContentItem);
-            codeFinderDiffs.add(new CodeFinderDiff(diffContentItem, charToLineMapItem));
-        }
-    }
-
-    private void updateRandomPlaceholder(GerritPatchSetFileDiff gerritPatchSetFileDiff) {
-        int placeholderVariableLength = MIN_RANDOM_PLACEHOLDER_VARIABLE_LENGTH;
-        do {
-            randomPlaceholder = '#' + RandomStringUtils.random(placeholderVariableLength, true, false);
-            placeholderVariableLength++;
+            codeFinderDiffs.add(new CodeFinderDiff(diffContentItem, charToLineIndexItem));
         }
-        while (gerritPatchSetFileDiff.toString().contains(randomPlaceholder));
     }
 
     private void filterCommitMessageContent(List<String> fieldValue) {
@@ -80,54 +93,45 @@ public class FileDiffProcessed {
                 s.isEmpty() || Settings.COMMIT_MESSAGE_FILTER_OUT_PREFIXES.values().stream().anyMatch(s::startsWith));
     }
 
-    private void updateCodeEntities(Field diffField, List<String> diffLines) throws IllegalAccessException {
-        String diffType = diffField.getName();
+    private void updateCodeEntities(DiffType diffType, List<String> diffLines) {
         String content = joinWithNewLine(diffLines);
-        diffField.set(diffContentItem, content);
+        diffContentItem.set(diffType, content);
         // If the lines modified in the PatchSet are not deleted, they are utilized to populate newContent and
-        // charToLineMapItem
-        if (diffType.contains("b")) {
+        // charToLineIndexItem
+        if (diffType.isInNewRevision()) {
             int diffCharPointer = -1;
             for (String diffLine : diffLines) {
                 // Increase of 1 to take into account of the newline character
                 diffCharPointer++;
-                charToLineMapItem.put(diffCharPointer, lineNum);
+                charToLineIndexItem.put(diffCharPointer, lineNum);
                 diffCharPointer += diffLine.length();
                 lineNum++;
             }
-            // Add the last line to charToLineMapItem
-            charToLineMapItem.put(diffCharPointer +1, lineNum);
+            // Add the last line to charToLineIndexItem
+            charToLineIndexItem.put(diffCharPointer +1, lineNum);
             newContent.addAll(diffLines);
         }
-        // If the lines modified in the PatchSet are deleted, they are mapped in charToLineMapItem to current lineNum
+        // If the lines modified in the PatchSet are deleted, they are mapped in charToLineIndexItem to current lineNum
         else {
-            int startingPosition = charToLineMapItem.isEmpty() ? 0 : content.length();
-            charToLineMapItem.put(startingPosition, lineNum);
+            int startingPosition = charToLineIndexItem.isEmpty() ? 0 : content.length();
+            charToLineIndexItem.put(startingPosition, lineNum);
         }
 
-        if (config.getGptFullFileReview() || !diffType.equals("ab")) {
-            // Store the new field's value in the diff content for the Patch Set review `reviewDiffContentItem`
-            diffField.set(reviewDiffContentItem, content);
+        if (config.getGptFullFileReview() || diffType != DiffType.ab) {
+            // Store the new type's value in the diff content for the Patch Set review `reviewDiffContentItem`
+            reviewDiffContentItem.set(diffType, content);
         }
     }
 
-    private void processFileDiffItem(Field patchSetDiffField, GerritPatchSetFileDiff.Content contentItem) {
-        try {
-            // Get the `a`, `b` or `ab` field's value from the Patch Set diff content
-            @SuppressWarnings("unchecked")
-            List<String> diffLines = (List<String>) patchSetDiffField.get(contentItem);
-            if (diffLines == null) {
-                return;
-            }
-            if (isCommitMessage) {
-                filterCommitMessageContent(diffLines);
-            }
-            // Get the corresponding `a`, `b` or `ab` field from the DiffContent class
-            Field diffField = DiffContent.class.getDeclaredField(patchSetDiffField.getName());
-            updateCodeEntities(diffField, diffLines);
-
-        } catch (IllegalAccessException | NoSuchFieldException e) {
-            log.error("Error while processing file difference (diff type: {})", patchSetDiffField.getName(), e);
+    private void processFileDiffItem(DiffType diffType, GerritPatchSetFileDiff.Content contentItem) {
+        // Get the `a`, `b` or `ab` lines from the Patch Set diff content
+        List<String> diffLines = contentItem.get(diffType);
+        if (diffLines == null) {
+            return;
+        }
+        if (isCommitMessage) {
+            filterCommitMessageContent(diffLines);
         }
+        updateCodeEntities(diffType, diffLines);
     }
 }
@@ -8,12 +8,17 @@ import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.Gerr
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Slf4j
 public class ChatGptComment extends ClientBase {
     protected ClientMessage commentMessage;
 
     private final ChangeSetData changeSetData;
     private final Localizer localizer;
+    // Cleaned messages by comment id, so that the sanitizers run once per comment however many histories include it
+    private final Map<String, ClientMessage> cleanedMessages = new HashMap<>();
 
     public ChatGptComment(Configuration config, ChangeSetData changeSetData, Localizer localizer) {
         super(config);
@@ -22,14 +27,26 @@ public class ChatGptComment extends ClientBase {
     }
 
     protected String getCleanedMessage(GerritComment commentProperty) {
-        commentMessage = new ClientMessage(config, changeSetData, commentProperty.getMessage(), localizer);
+        String commentId = commentProperty.getId();
+        commentMessage = commentId == null ? null : cleanedMessages.get(commentId);
+        if (commentMessage == null) {
+            commentMessage = cleanMessage(commentProperty);
+            if (commentId != null) {
+                cleanedMessages.put(commentId, commentMessage);
+            }
+        }
+        return commentMessage.getMessage();
+    }
+
+    private ClientMessage cleanMessage(GerritComment commentProperty) {
+        ClientMessage clientMessage = new ClientMessage(config, changeSetData, commentProperty.getMessage(), localizer);
         if (isFromAssistant(commentProperty)) {
-            commentMessage.removeDebugCodeBlocksReview().removeDebugCodeBlocksDynamicSettings();
+            clientMessage.removeDebugCodeBlocksReview().removeDebugCodeBlocksDynamicSettings();
         }
         else {
-            commentMessage.removeMentions().parseRemoveCommands();
+            clientMessage.removeMentions().parseRemoveCommands();
         }
-        return commentMessage.removeHeadings().getMessage();
+        return clientMessage.removeHeadings();
     }
 
     protected boolean isFromAssistant(GerritComment commentProperty) {
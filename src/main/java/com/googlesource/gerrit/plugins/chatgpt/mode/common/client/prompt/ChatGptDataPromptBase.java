@@ -54,7 +54,7 @@ public abstract class ChatGptDataPromptBase implements IChatGptDataPrompt {
             if (fileDiffProcessed == null) {
                 return messageItem;
             }
-            InlineCode inlineCode = new InlineCode(fileDiffProcessed);
+            InlineCode inlineCode = fileDiffProcessed.getInlineCode();
             messageItem.setFilename(filename);
             messageItem.setLineNumber(commentProperty.getLine());
             messageItem.setCodeSnippet(inlineCode.getInlineCode(commentProperty));
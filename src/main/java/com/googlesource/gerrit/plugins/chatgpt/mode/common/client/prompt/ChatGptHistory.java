@@ -21,6 +21,12 @@ public class ChatGptHistory extends ChatGptComment {
     private final HashMap<String, GerritComment> patchSetCommentMap;
     private final Set<String> patchSetCommentAdded;
     private final List<GerritComment> patchSetComments;
+    // Comments of the inline threads already walked, with the filter mode of the walk. The ancestors of a walked
+    // comment have been walked as well and their contents are already in `patchSetCommentAdded`, so reaching it again
+    // cannot add anything to the history: each node of the thread forest is processed at most once per filter mode.
+    private final Map<String, Boolean> walkedThreadComments;
+    // Filter modes of the Patch Set history already retrieved, for the same reason
+    private final Set<Boolean> patchSetHistoryRetrieved;
     private final int revisionBase;
 
     private boolean filterActive;
@@ -42,6 +48,8 @@ public class ChatGptHistory extends ChatGptComment {
         patchSetComments = retrievePatchSetComments(gerritClientData);
         revisionBase = gerritClientData.getOneBasedRevisionBase();
         patchSetCommentAdded = new HashSet<>();
+        walkedThreadComments = new HashMap<>();
+        patchSetHistoryRetrieved = new HashSet<>();
     }
 
     public List<ChatGptRequestMessage> retrieveHistory(GerritComment commentProperty, boolean filterActive) {
@@ -91,7 +99,8 @@ public class ChatGptHistory extends ChatGptComment {
 
     private List<ChatGptRequestMessage> retrieveMessageHistory(GerritComment currentComment) {
         List<ChatGptRequestMessage> messageHistory = new ArrayList<>();
-        while (currentComment != null) {
+        while (currentComment != null && !isWalkedThreadComment(currentComment)) {
+            walkedThreadComments.put(currentComment.getId(), filterActive);
             addMessageToHistory(messageHistory, currentComment);
             currentComment = commentMap.get(currentComment.getInReplyTo());
         }
@@ -103,6 +112,9 @@ public class ChatGptHistory extends ChatGptComment {
 
     private List<ChatGptRequestMessage> retrievePatchSetMessageHistory() {
         List<ChatGptRequestMessage> messageHistory = new ArrayList<>();
+        if (!patchSetHistoryRetrieved.add(filterActive)) {
+            return messageHistory;
+        }
         for (GerritComment patchSetComment : patchSetComments) {
             if (patchSetComment.isAutogenerated()) {
                 continue;
@@ -118,6 +130,11 @@ public class ChatGptHistory extends ChatGptComment {
         return messageHistory;
     }
 
+    private boolean isWalkedThreadComment(GerritComment comment) {
+        Boolean walkFilterActive = walkedThreadComments.get(comment.getId());
+        return walkFilterActive != null && walkFilterActive == filterActive;
+    }
+
     private boolean isInactiveComment(GerritComment comment) {
         return config.getIgnoreResolvedChatGptComments() && isFromAssistant(comment) && comment.isResolved() ||
                 config.getIgnoreOutdatedInlineComments() && comment.getOneBasedPatchSet() != revisionBase &&
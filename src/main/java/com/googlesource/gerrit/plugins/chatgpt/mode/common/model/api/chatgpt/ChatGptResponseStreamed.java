@@ -8,6 +8,7 @@ import java.util.List;
 @Data
 public class ChatGptResponseStreamed {
     private List<Choice> choices;
+    private ChatGptUsage usage;
 
     @Data
     public static class Choice {
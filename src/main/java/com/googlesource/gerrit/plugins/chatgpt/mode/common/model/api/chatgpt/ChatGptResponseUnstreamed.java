@@ -7,6 +7,7 @@ import java.util.List;
 @Data
 public class ChatGptResponseUnstreamed {
     private List<MessageChoice> choices;
+    private ChatGptUsage usage;
 
     @Data
     public static class MessageChoice {
@@ -4,6 +4,7 @@ import lombok.Data;
 
 @Data
 public class ChatGptToolCall {
+    private Integer index;
     private String id;
     private String type;
     private Function function;
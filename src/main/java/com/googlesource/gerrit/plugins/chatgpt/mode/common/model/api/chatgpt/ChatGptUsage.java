@@ -0,0 +1,14 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Data;
+
+@Data
+public class ChatGptUsage {
+    @SerializedName("prompt_tokens")
+    private int promptTokens;
+    @SerializedName("completion_tokens")
+    private int completionTokens;
+    @SerializedName("total_tokens")
+    private int totalTokens;
+}
@@ -1,5 +1,6 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit;
 
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.DiffType;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -15,5 +16,13 @@ public class GerritPatchSetFileDiff extends GerritFileDiff {
         public List<String> a;
         public List<String> b;
         public List<String> ab;
+
+        public List<String> get(DiffType diffType) {
+            return switch (diffType) {
+                case a -> a;
+                case b -> b;
+                case ab -> ab;
+            };
+        }
     }
 }
@@ -30,6 +30,9 @@ public class ChangeSetData {
     private Set<String> directives = new HashSet<>();
     private String reviewSystemMessage;
 
+    // Execution variables
+    private volatile Boolean supersededReview = false;
+
     public Boolean shouldHideChatGptReview() {
         return hideChatGptReview && !forcedReview;
     }
@@ -1,14 +1,13 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.code;
 
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.CharToLineIndex;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.DiffContent;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
-import java.util.TreeMap;
-
 @AllArgsConstructor
 @Data
 public class CodeFinderDiff {
     private DiffContent content;
-    private TreeMap<Integer, Integer> charToLineMap;
+    private CharToLineIndex charToLineIndex;
 }
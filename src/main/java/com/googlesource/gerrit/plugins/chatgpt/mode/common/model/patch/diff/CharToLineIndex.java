@@ -0,0 +1,56 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff;
+
+import java.util.Arrays;
+
+// Sorted map from the char positions in a diff content entry to the corresponding line numbers, backed by primitive
+// arrays and searched by binary search
+public class CharToLineIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private int[] lines = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void put(int position, int line) {
+        // Positions are usually added in ascending order, so the last one is checked before searching
+        if (size == 0 || positions[size - 1] < position) {
+            insertAt(size, position, line);
+            return;
+        }
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        if (index >= 0) {
+            lines[index] = line;
+        }
+        else {
+            insertAt(-index - 1, position, line);
+        }
+    }
+
+    // Returns the line number mapped to the greatest position less than or equal to `position`
+    public int getFloorLine(int position) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Position: " + position);
+        }
+        return lines[index];
+    }
+
+    private void insertAt(int index, int position, int line) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            lines = Arrays.copyOf(lines, size * 2);
+        }
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        System.arraycopy(lines, index, lines, index + 1, size - index);
+        positions[index] = position;
+        lines[index] = line;
+        size++;
+    }
+}
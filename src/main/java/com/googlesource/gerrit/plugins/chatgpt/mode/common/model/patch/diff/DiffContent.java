@@ -7,4 +7,20 @@ public class DiffContent {
     public String a;
     public String b;
     public String ab;
+
+    public String get(DiffType diffType) {
+        return switch (diffType) {
+            case a -> a;
+            case b -> b;
+            case ab -> ab;
+        };
+    }
+
+    public void set(DiffType diffType, String content) {
+        switch (diffType) {
+            case a -> a = content;
+            case b -> b = content;
+            case ab -> ab = content;
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff;
+
+// Types of the diff content entries, in the order in which they are processed: lines only in the base revision
+// (`a`), only in the new revision (`b`) or common to both (`ab`)
+public enum DiffType {
+    a(false),
+    b(true),
+    ab(true);
+
+    private final boolean inNewRevision;
+
+    DiffType(boolean inNewRevision) {
+        this.inNewRevision = inNewRevision;
+    }
+
+    public boolean isInNewRevision() {
+        return inNewRevision;
+    }
+}
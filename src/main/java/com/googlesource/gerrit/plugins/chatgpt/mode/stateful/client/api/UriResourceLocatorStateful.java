@@ -7,6 +7,10 @@ public class UriResourceLocatorStateful {
         return VERSION_URI + "/files";
     }
 
+    public static String fileRetrieveUri(String fileId) {
+        return filesCreateUri() + "/" + fileId;
+    }
+
     public static String assistantCreateUri() {
         return VERSION_URI + "/assistants";
     }
@@ -46,4 +50,16 @@ public class UriResourceLocatorStateful {
     public static String vectorStoreCreateUri() {
         return VERSION_URI + "/vector_stores";
     }
+
+    public static String vectorStoreRetrieveUri(String vectorStoreId) {
+        return vectorStoreCreateUri() + "/" + vectorStoreId;
+    }
+
+    public static String vectorStoreFilesUri(String vectorStoreId) {
+        return vectorStoreRetrieveUri(vectorStoreId) + "/files";
+    }
+
+    public static String vectorStoreFileRetrieveUri(String vectorStoreId, String fileId) {
+        return vectorStoreFilesUri(vectorStoreId) + "/" + fileId;
+    }
 }
@@ -14,14 +14,14 @@ import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.UriResou
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.git.GitRepoFiles;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.prompt.ChatGptPromptStatefulBase;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.api.chatgpt.*;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.git.GitRepoFilesDiff;
 import com.googlesource.gerrit.plugins.chatgpt.utils.HashUtils;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Request;
 
 import java.net.URI;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.prompt.ChatGptPromptFactory.getChatGptPromptStateful;
 import static com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptVectorStore.KEY_VECTOR_STORE_ID;
@@ -31,7 +31,10 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 
 @Slf4j
 public class ChatGptAssistant extends ClientBase {
-    private final ChatGptHttpClient httpClient = new ChatGptHttpClient();
+    public static final String KEY_VECTOR_STORE_TREE_ID = "vectorStoreTreeId";
+    public static final String KEY_VECTOR_STORE_FILE_IDS = "vectorStoreFileIds";
+
+    private final ChatGptHttpClient httpClient;
     private final ChangeSetData changeSetData;
     private final GerritChange change;
     private final GitRepoFiles gitRepoFiles;
@@ -48,9 +51,11 @@ public class ChatGptAssistant extends ClientBase {
             ChangeSetData changeSetData,
             GerritChange change,
             GitRepoFiles gitRepoFiles,
-            PluginDataHandlerProvider pluginDataHandlerProvider
+            PluginDataHandlerProvider pluginDataHandlerProvider,
+            ChatGptHttpClient httpClient
     ) {
         super(config);
+        this.httpClient = httpClient;
         this.changeSetData = changeSetData;
         this.change = change;
         this.gitRepoFiles = gitRepoFiles;
@@ -79,12 +84,17 @@ public class ChatGptAssistant extends ClientBase {
     public String createVectorStore() {
         String vectorStoreId = projectDataHandler.getValue(KEY_VECTOR_STORE_ID);
         if (vectorStoreId == null) {
-            String fileId = uploadRepoFiles();
-            ChatGptVectorStore vectorStore = new ChatGptVectorStore(fileId, config, change);
+            String treeId = gitRepoFiles.getMasterTreeId(change);
+            ChatGptVectorStore vectorStore = new ChatGptVectorStore(null, config, change, httpClient);
             ChatGptResponse createVectorStoreResponse = vectorStore.createVectorStore();
             vectorStoreId = createVectorStoreResponse.getId();
+            Map<String, String> fileIds = uploadRepoFiles(vectorStoreId);
+            projectDataHandler.setJsonValue(KEY_VECTOR_STORE_FILE_IDS, fileIds);
             projectDataHandler.setValue(KEY_VECTOR_STORE_ID, vectorStoreId);
-            log.info("Vector Store created with ID: {}", vectorStoreId);
+            if (treeId != null) {
+                projectDataHandler.setValue(KEY_VECTOR_STORE_TREE_ID, treeId);
+            }
+            log.info("Vector Store created with ID: {}, {} files uploaded", vectorStoreId, fileIds.size());
         }
         else {
             log.info("Vector Store found for the project. Vector Store ID: {}", vectorStoreId);
@@ -92,18 +102,140 @@ public class ChatGptAssistant extends ClientBase {
         return vectorStoreId;
     }
 
+    // Upload to the Vector Store only the files changed since its last synchronization, each replacing the previous
+    // version of the same file. Returns false if the Vector Store needs to be rebuilt, which is the case when more
+    // files have changed than can be synchronized incrementally.
+    public boolean syncVectorStore() {
+        String vectorStoreId = projectDataHandler.getValue(KEY_VECTOR_STORE_ID);
+        String lastTreeId = projectDataHandler.getValue(KEY_VECTOR_STORE_TREE_ID);
+        // The file ids are mapped to the paths of all the files uploaded to the Vector Store
+        Map<String, String> lastFileIds = projectDataHandler.getJsonValue(KEY_VECTOR_STORE_FILE_IDS, String.class);
+        if (vectorStoreId == null || lastTreeId == null || lastFileIds == null) {
+            return false;
+        }
+        try {
+            Optional<GitRepoFilesDiff> gitRepoFilesDiff = gitRepoFiles.getGitRepoFilesDiff(config, change,
+                    lastTreeId);
+            if (gitRepoFilesDiff.isEmpty()) {
+                log.info("Too many files changed since the last synchronization of Vector Store {}", vectorStoreId);
+                return false;
+            }
+            Map<String, String> fileIds = new HashMap<>(lastFileIds);
+            ChatGptFiles chatGptFiles = new ChatGptFiles(config, httpClient);
+            try {
+                for (String path : gitRepoFilesDiff.get().getDeletedFiles()) {
+                    removeRepoFile(chatGptFiles, vectorStoreId, fileIds.get(path));
+                    fileIds.remove(path);
+                }
+                for (Map.Entry<String, String> changedFile : gitRepoFilesDiff.get().getChangedFiles().entrySet()) {
+                    String path = changedFile.getKey();
+                    removeRepoFile(chatGptFiles, vectorStoreId, fileIds.get(path));
+                    fileIds.remove(path);
+                    fileIds.put(path, addRepoFile(chatGptFiles, vectorStoreId, path, changedFile.getValue()));
+                }
+            }
+            finally {
+                // The files synchronized so far are recorded even if the synchronization fails, so that none of them
+                // is left untracked
+                projectDataHandler.setJsonValue(KEY_VECTOR_STORE_FILE_IDS, fileIds);
+            }
+            projectDataHandler.setValue(KEY_VECTOR_STORE_TREE_ID, gitRepoFilesDiff.get().getTreeId());
+            log.info("Vector Store {} synchronized: {} files changed, {} deleted", vectorStoreId,
+                    gitRepoFilesDiff.get().getChangedFiles().size(), gitRepoFilesDiff.get().getDeletedFiles().size());
+            return true;
+        }
+        catch (RuntimeException e) {
+            log.warn("Incremental synchronization of Vector Store {} failed", vectorStoreId, e);
+            return false;
+        }
+    }
+
     public void flushAssistantIds() {
+        deleteVectorStore();
         projectDataHandler.removeValue(KEY_VECTOR_STORE_ID);
+        projectDataHandler.removeValue(KEY_VECTOR_STORE_TREE_ID);
+        projectDataHandler.removeValue(KEY_VECTOR_STORE_FILE_IDS);
         assistantsDataHandler.destroy();
     }
 
-    private String uploadRepoFiles() {
-        String repoFiles = gitRepoFiles.getGitRepoFiles(config, change);
-        Path repoPath = createTempFileWithContent(sanitizeFilename(change.getProjectName()), ".json", repoFiles);
-        ChatGptFiles chatGptFiles = new ChatGptFiles(config);
-        ChatGptFilesResponse chatGptFilesResponse = chatGptFiles.uploadFiles(repoPath);
+    // The Vector Store being replaced is deleted with its files on a best-effort basis, as they are no longer used
+    private void deleteVectorStore() {
+        String vectorStoreId = projectDataHandler.getValue(KEY_VECTOR_STORE_ID);
+        Map<String, String> fileIds = projectDataHandler.getJsonValue(KEY_VECTOR_STORE_FILE_IDS, String.class);
+        if (vectorStoreId == null) return;
+        try {
+            new ChatGptVectorStore(null, config, change, httpClient).deleteVectorStore(vectorStoreId);
+        }
+        catch (RuntimeException e) {
+            log.warn("Failed to delete Vector Store {}", vectorStoreId, e);
+        }
+        if (fileIds != null) {
+            deleteRepoFiles(new ChatGptFiles(config, httpClient), fileIds.values());
+        }
+    }
 
-        return chatGptFilesResponse.getId();
+    // Each file of the codebase is uploaded separately, so that it can later be replaced or removed on its own. If an
+    // upload fails, the files already uploaded are deleted along with the Vector Store.
+    private Map<String, String> uploadRepoFiles(String vectorStoreId) {
+        ChatGptFiles chatGptFiles = new ChatGptFiles(config, httpClient);
+        Map<String, String> fileIds = new HashMap<>();
+        try {
+            gitRepoFiles.forEachGitRepoFile(config, change, (path, content) ->
+                    fileIds.put(path, addRepoFile(chatGptFiles, vectorStoreId, path, content)));
+            return fileIds;
+        }
+        catch (RuntimeException e) {
+            log.warn("Upload of the codebase to Vector Store {} failed after {} files", vectorStoreId, fileIds.size());
+            deleteRepoFiles(chatGptFiles, fileIds.values());
+            try {
+                new ChatGptVectorStore(null, config, change, httpClient).deleteVectorStore(vectorStoreId);
+            }
+            catch (RuntimeException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+            throw e;
+        }
+    }
+
+    private String addRepoFile(ChatGptFiles chatGptFiles, String vectorStoreId, String path, String content) {
+        String fileId = uploadRepoFile(chatGptFiles, path, content);
+        try {
+            new ChatGptVectorStore(fileId, config, change, httpClient).addFile(vectorStoreId);
+        }
+        catch (RuntimeException e) {
+            deleteRepoFiles(chatGptFiles, List.of(fileId));
+            throw e;
+        }
+        return fileId;
+    }
+
+    private void removeRepoFile(ChatGptFiles chatGptFiles, String vectorStoreId, String fileId) {
+        if (fileId == null) return;
+        new ChatGptVectorStore(fileId, config, change, httpClient).removeFile(vectorStoreId);
+        chatGptFiles.deleteFile(fileId);
+    }
+
+    private void deleteRepoFiles(ChatGptFiles chatGptFiles, Collection<String> fileIds) {
+        for (String fileId : fileIds) {
+            try {
+                chatGptFiles.deleteFile(fileId);
+            }
+            catch (RuntimeException e) {
+                log.warn("Failed to delete file {}", fileId, e);
+            }
+        }
+    }
+
+    private String uploadRepoFile(ChatGptFiles chatGptFiles, String path, String content) {
+        // Each file is uploaded as a JSON object mapping its path to its content, so that the path remains searchable
+        String repoFile = getGson().toJson(Map.of(path, content));
+        Path repoFilePath = createTempFileWithContent(sanitizeFilename(path), ".json", repoFile);
+        try {
+            return chatGptFiles.uploadFiles(repoFilePath).getId();
+        }
+        finally {
+            repoFilePath.toFile().delete();
+        }
     }
 
     private String createAssistant(String vectorStoreId) {
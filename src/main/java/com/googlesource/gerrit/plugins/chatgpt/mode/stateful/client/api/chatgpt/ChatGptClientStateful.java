@@ -7,6 +7,7 @@ import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.chatgpt.IChatGptClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptClient;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptRateLimiter;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptResponseContent;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
@@ -26,17 +27,23 @@ public class ChatGptClientStateful extends ChatGptClient implements IChatGptClie
 
     private final GitRepoFiles gitRepoFiles;
     private final PluginDataHandlerProvider pluginDataHandlerProvider;
+    private final ChatGptRateLimiter rateLimiter;
+    private final ChatGptHttpClient httpClient;
 
     @VisibleForTesting
     @Inject
     public ChatGptClientStateful(
             Configuration config,
             GitRepoFiles gitRepoFiles,
-            PluginDataHandlerProvider pluginDataHandlerProvider
+            PluginDataHandlerProvider pluginDataHandlerProvider,
+            ChatGptRateLimiter rateLimiter,
+            ChatGptHttpClient httpClient
     ) {
         super(config);
         this.gitRepoFiles = gitRepoFiles;
         this.pluginDataHandlerProvider = pluginDataHandlerProvider;
+        this.rateLimiter = rateLimiter;
+        this.httpClient = httpClient;
     }
 
     public ChatGptResponseContent ask(ChangeSetData changeSetData, GerritChange change, String patchSet) {
@@ -44,12 +51,13 @@ public class ChatGptClientStateful extends ChatGptClient implements IChatGptClie
         String changeId = change.getFullChangeId();
         log.info("Processing STATEFUL ChatGPT Request with changeId: {}, Patch Set: {}", changeId, patchSet);
 
-        ChatGptThread chatGptThread = new ChatGptThread(config, pluginDataHandlerProvider);
+        ChatGptThread chatGptThread = new ChatGptThread(config, pluginDataHandlerProvider, httpClient);
         String threadId = chatGptThread.createThread();
 
         ChatGptThreadMessage chatGptThreadMessage = new ChatGptThreadMessage(
                 threadId,
                 config,
+                httpClient,
                 changeSetData,
                 change,
                 patchSet
@@ -62,10 +70,14 @@ public class ChatGptClientStateful extends ChatGptClient implements IChatGptClie
                 changeSetData,
                 change,
                 gitRepoFiles,
-                pluginDataHandlerProvider
+                pluginDataHandlerProvider,
+                httpClient
         );
+        ChatGptRateLimiter.Reservation reservation = rateLimiter.reserve(config, config.getGptModel(),
+                chatGptThreadMessage.getAddMessageRequestBody());
         chatGptRun.createRun();
         chatGptRun.pollRunStep();
+        reservation.reconcile(chatGptRun.getRunUsage());
         // Attribute `requestBody` is valued for testing purposes
         requestBody = chatGptThreadMessage.getAddMessageRequestBody();
         log.debug("ChatGPT request body: {}", requestBody);
@@ -86,7 +98,7 @@ public class ChatGptClientStateful extends ChatGptClient implements IChatGptClie
     }
 
     private ChatGptResponseContent retrieveThreadMessage(String threadId, ChatGptRun chatGptRun) {
-        ChatGptThreadMessage chatGptThreadMessage = new ChatGptThreadMessage(threadId, config);
+        ChatGptThreadMessage chatGptThreadMessage = new ChatGptThreadMessage(threadId, config, httpClient);
         ChatGptThreadMessageResponse threadMessageResponse = chatGptThreadMessage.retrieveMessage(
                 chatGptRun.getFirstStepDetails().getMessageCreation().getMessageId()
         );
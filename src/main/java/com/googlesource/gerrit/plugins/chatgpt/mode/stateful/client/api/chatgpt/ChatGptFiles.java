@@ -2,7 +2,6 @@ package com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt
 
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.ClientBase;
-import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.UriResourceLocatorStateful;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.api.chatgpt.ChatGptFilesResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -16,10 +15,11 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 
 @Slf4j
 public class ChatGptFiles extends ClientBase {
-    private final HttpClient httpClient = new HttpClient();
+    private final ChatGptHttpClient httpClient;
 
-    public ChatGptFiles(Configuration config) {
+    public ChatGptFiles(Configuration config, ChatGptHttpClient httpClient) {
         super(config);
+        this.httpClient = httpClient;
     }
 
     public ChatGptFilesResponse uploadFiles(Path repoPath) {
@@ -32,6 +32,13 @@ public class ChatGptFiles extends ClientBase {
         return getGson().fromJson(response, ChatGptFilesResponse.class);
     }
 
+    public void deleteFile(String fileId) {
+        URI uri = URI.create(config.getGptDomain() + UriResourceLocatorStateful.fileRetrieveUri(fileId));
+        log.debug("ChatGPT Delete File request URI: {}", uri);
+        String response = httpClient.execute(httpClient.createDeleteRequest(uri.toString(), config.getGptToken()));
+        log.debug("ChatGPT Delete File response: {}", response);
+    }
+
     private Request createUploadFileRequest(Path repoPath) {
         URI uri = URI.create(config.getGptDomain() + UriResourceLocatorStateful.filesCreateUri());
         log.debug("ChatGPT Upload Files request URI: {}", uri);
@@ -1,14 +1,27 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt;
 
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpClient;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpTransport;
 import okhttp3.Request;
 
 import java.util.Map;
 
+@Singleton
 public class ChatGptHttpClient extends HttpClient {
     private static final Map<String, String> BETA_VERSION_HEADER = Map.of("OpenAI-Beta", "assistants=v2");
 
+    @Inject
+    public ChatGptHttpClient(HttpTransport httpTransport) {
+        super(httpTransport);
+    }
+
     public Request createRequestFromJson(String uri, String bearer, Object requestObject) {
         return createRequestFromJson(uri, bearer, requestObject, BETA_VERSION_HEADER);
     }
+
+    public Request createDeleteRequest(String uri, String bearer) {
+        return createDeleteRequest(uri, bearer, BETA_VERSION_HEADER);
+    }
 }
@@ -1,11 +1,13 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.ClientBase;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptResponseMessage;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptToolCall;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptUsage;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.UriResourceLocatorStateful;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.git.GitRepoFiles;
@@ -21,8 +23,11 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.ThreadUtils.threadSl
 
 @Slf4j
 public class ChatGptRun extends ClientBase {
-    private static final int RUN_POLLING_INTERVAL = 1000;
-    private static final int STEP_RETRIEVAL_INTERVAL = 10000;
+    // When the run cannot be streamed, polling starts at a short interval and backs off while the run is in progress
+    public static final long RUN_POLLING_INITIAL_INTERVAL = 200;
+    public static final long RUN_POLLING_MAX_INTERVAL = 2000;
+    private static final double RUN_POLLING_BACKOFF_FACTOR = 1.5;
+    private static final long STEP_RETRIEVAL_INITIAL_INTERVAL = 1000;
     private static final int MAX_STEP_RETRIEVAL_RETRIES = 3;
     private static final Set<String> UNCOMPLETED_STATUSES = new HashSet<>(Arrays.asList(
             "queued",
@@ -32,7 +37,7 @@ public class ChatGptRun extends ClientBase {
     public static final String COMPLETED_STATUS = "completed";
     public static final String CANCELLED_STATUS = "cancelled";
 
-    private final ChatGptHttpClient httpClient = new ChatGptHttpClient();
+    private final ChatGptHttpClient httpClient;
     private final ChangeSetData changeSetData;
     private final GerritChange change;
     private final String threadId;
@@ -41,6 +46,7 @@ public class ChatGptRun extends ClientBase {
 
     private ChatGptResponse runResponse;
     private ChatGptListResponse stepResponse;
+    private List<ChatGptRunStepsResponse> streamedSteps = new ArrayList<>();
     private String assistantId;
 
     public ChatGptRun(
@@ -49,9 +55,11 @@ public class ChatGptRun extends ClientBase {
             ChangeSetData changeSetData,
             GerritChange change,
             GitRepoFiles gitRepoFiles,
-            PluginDataHandlerProvider pluginDataHandlerProvider
+            PluginDataHandlerProvider pluginDataHandlerProvider,
+            ChatGptHttpClient httpClient
     ) {
         super(config);
+        this.httpClient = httpClient;
         this.changeSetData = changeSetData;
         this.change = change;
         this.threadId = threadId;
@@ -65,20 +73,41 @@ public class ChatGptRun extends ClientBase {
                 changeSetData,
                 change,
                 gitRepoFiles,
-                pluginDataHandlerProvider
+                pluginDataHandlerProvider,
+                httpClient
         );
         assistantId = chatGptAssistant.setupAssistant();
 
         Request request = runCreateRequest();
         log.info("ChatGPT Create Run request: {}", request);
 
-        runResponse = getGson().fromJson(httpClient.execute(request), ChatGptResponse.class);
+        ChatGptRunEventStream runEventStream = new ChatGptRunEventStream();
+        String response = httpClient.executeStreamed(request, runEventStream::processLine);
+        if (response != null) {
+            log.debug("Run streaming not available: falling back to polling");
+            runResponse = getGson().fromJson(response, ChatGptResponse.class);
+        }
+        else {
+            runResponse = runEventStream.getRunResponse();
+            if (runResponse == null) {
+                throw new RuntimeException("No run returned by ChatGPT Run stream");
+            }
+            streamedSteps = runEventStream.getCompletedSteps();
+        }
         log.info("Run created: {}", runResponse);
     }
 
     public void pollRunStep() {
+        long stepRetrievalInterval = STEP_RETRIEVAL_INITIAL_INTERVAL;
         for (int retries = 0; retries < MAX_STEP_RETRIEVAL_RETRIES; retries++) {
             int pollingCount = pollRun();
+            if (pollingCount == 0 && !streamedSteps.isEmpty()) {
+                // The run was completed while streaming, so its steps are already available
+                stepResponse = new ChatGptListResponse();
+                stepResponse.setData(streamedSteps);
+                log.info("Run executed with streaming: {}", stepResponse);
+                return;
+            }
 
             Request stepsRequest = getStepsRequest();
             log.debug("ChatGPT Retrieve Run Steps request: {}", stepsRequest);
@@ -88,7 +117,8 @@ public class ChatGptRun extends ClientBase {
             log.info("Run executed after {} polling requests: {}", pollingCount, stepResponse);
             if (stepResponse.getData().isEmpty()) {
                 log.warn("Empty response from ChatGPT");
-                threadSleep(STEP_RETRIEVAL_INTERVAL);
+                threadSleep(stepRetrievalInterval);
+                stepRetrievalInterval *= 2;
                 continue;
             }
             return;
@@ -103,6 +133,10 @@ public class ChatGptRun extends ClientBase {
         return getFirstStepDetails().getToolCalls();
     }
 
+    public ChatGptUsage getRunUsage() {
+        return runResponse.getUsage();
+    }
+
     public void cancelRun() {
         if (getFirstStep().getStatus().equals(COMPLETED_STATUS)) return;
 
@@ -123,11 +157,13 @@ public class ChatGptRun extends ClientBase {
 
     private int pollRun() {
         int pollingCount = 0;
+        long pollingInterval = RUN_POLLING_INITIAL_INTERVAL;
 
         while (UNCOMPLETED_STATUSES.contains(runResponse.getStatus())) {
             pollingCount++;
             log.debug("Polling request #{}", pollingCount);
-            threadSleep(RUN_POLLING_INTERVAL);
+            threadSleep(pollingInterval);
+            pollingInterval = getNextPollingInterval(pollingInterval);
             Request pollRequest = getPollRequest();
             log.debug("ChatGPT Poll Run request: {}", pollRequest);
             runResponse = getGson().fromJson(httpClient.execute(pollRequest), ChatGptResponse.class);
@@ -136,6 +172,11 @@ public class ChatGptRun extends ClientBase {
         return pollingCount;
     }
 
+    @VisibleForTesting
+    public static long getNextPollingInterval(long pollingInterval) {
+        return Math.min(RUN_POLLING_MAX_INTERVAL, (long) (pollingInterval * RUN_POLLING_BACKOFF_FACTOR));
+    }
+
     private ChatGptRunStepsResponse getFirstStep() {
         return stepResponse.getData().get(0);
     }
@@ -145,6 +186,7 @@ public class ChatGptRun extends ClientBase {
         log.debug("ChatGPT Create Run request URI: {}", uri);
         ChatGptCreateRunRequest requestBody = ChatGptCreateRunRequest.builder()
                 .assistantId(assistantId)
+                .stream(true)
                 .build();
 
         return httpClient.createRequestFromJson(uri.toString(), config.getGptToken(), requestBody);
@@ -0,0 +1,53 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.api.chatgpt.ChatGptResponse;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.api.chatgpt.ChatGptRunStepsResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
+
+// Tracks the status and the completed steps of a run from the Server-Sent Events of the streaming Runs API
+@Slf4j
+public class ChatGptRunEventStream {
+    private static final String EVENT_PREFIX = "event: ";
+    private static final String DATA_PREFIX = "data: ";
+    private static final String RUN_EVENT_PREFIX = "thread.run.";
+    private static final String RUN_STEP_EVENT_PREFIX = "thread.run.step.";
+    private static final String RUN_STEP_COMPLETED_EVENT = "thread.run.step.completed";
+    private static final String ERROR_EVENT = "error";
+
+    @Getter
+    private ChatGptResponse runResponse;
+    // Completed steps are listed from the most recent, consistently with the List Run Steps API
+    @Getter
+    private final List<ChatGptRunStepsResponse> completedSteps = new ArrayList<>();
+
+    private String event;
+
+    public void processLine(String line) {
+        if (line.startsWith(EVENT_PREFIX)) {
+            event = line.substring(EVENT_PREFIX.length()).trim();
+        }
+        else if (line.startsWith(DATA_PREFIX) && event != null) {
+            processEvent(event, line.substring(DATA_PREFIX.length()));
+            event = null;
+        }
+    }
+
+    private void processEvent(String event, String data) {
+        log.debug("ChatGPT Run event `{}` received", event);
+        if (event.equals(RUN_STEP_COMPLETED_EVENT)) {
+            completedSteps.add(0, getGson().fromJson(data, ChatGptRunStepsResponse.class));
+        }
+        else if (event.startsWith(RUN_EVENT_PREFIX) && !event.startsWith(RUN_STEP_EVENT_PREFIX)) {
+            runResponse = getGson().fromJson(data, ChatGptResponse.class);
+        }
+        else if (event.equals(ERROR_EVENT)) {
+            log.error("Error event received from ChatGPT Run stream: {}", data);
+        }
+    }
+}
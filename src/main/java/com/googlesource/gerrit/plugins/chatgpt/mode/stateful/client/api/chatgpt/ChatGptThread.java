@@ -16,16 +16,18 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 public class ChatGptThread {
     public static final String KEY_THREAD_ID = "threadId";
 
-    private final ChatGptHttpClient httpClient = new ChatGptHttpClient();
+    private final ChatGptHttpClient httpClient;
     private final Configuration config;
     private final PluginDataHandler changeDataHandler;
 
     public ChatGptThread(
             Configuration config,
-            PluginDataHandlerProvider pluginDataHandlerProvider
+            PluginDataHandlerProvider pluginDataHandlerProvider,
+            ChatGptHttpClient httpClient
     ) {
         this.config = config;
         this.changeDataHandler = pluginDataHandlerProvider.getChangeScope();
+        this.httpClient = httpClient;
     }
 
     public String createThread() {
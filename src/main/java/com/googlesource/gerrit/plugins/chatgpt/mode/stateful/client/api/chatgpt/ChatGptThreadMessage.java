@@ -19,7 +19,7 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 
 @Slf4j
 public class ChatGptThreadMessage extends ClientBase {
-    private final ChatGptHttpClient httpClient = new ChatGptHttpClient();
+    private final ChatGptHttpClient httpClient;
     private final String threadId;
 
     private ChangeSetData changeSetData;
@@ -27,19 +27,21 @@ public class ChatGptThreadMessage extends ClientBase {
     private String patchSet;
     private ChatGptRequestMessage addMessageRequestBody;
 
-    public ChatGptThreadMessage(String threadId, Configuration config) {
+    public ChatGptThreadMessage(String threadId, Configuration config, ChatGptHttpClient httpClient) {
         super(config);
         this.threadId = threadId;
+        this.httpClient = httpClient;
     }
 
     public ChatGptThreadMessage(
             String threadId,
             Configuration config,
+            ChatGptHttpClient httpClient,
             ChangeSetData changeSetData,
             GerritChange change,
             String patchSet
     ) {
-        this(threadId, config);
+        this(threadId, config, httpClient);
         this.changeSetData = changeSetData;
         this.change = change;
         this.patchSet = patchSet;
@@ -16,14 +16,15 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 public class ChatGptVectorStore extends ClientBase {
     public static final String KEY_VECTOR_STORE_ID = "vectorStoreId";
 
-    private final ChatGptHttpClient httpClient = new ChatGptHttpClient();
+    private final ChatGptHttpClient httpClient;
     private final String fileId;
     private final GerritChange change;
 
-    public ChatGptVectorStore(String fileId, Configuration config, GerritChange change) {
+    public ChatGptVectorStore(String fileId, Configuration config, GerritChange change, ChatGptHttpClient httpClient) {
         super(config);
         this.fileId = fileId;
         this.change = change;
+        this.httpClient = httpClient;
     }
 
     public ChatGptResponse createVectorStore() {
@@ -36,13 +37,42 @@ public class ChatGptVectorStore extends ClientBase {
         return createVectorStoreResponse;
     }
 
+    public ChatGptResponse addFile(String vectorStoreId) {
+        URI uri = URI.create(config.getGptDomain() + UriResourceLocatorStateful.vectorStoreFilesUri(vectorStoreId));
+        log.debug("ChatGPT Create Vector Store File request URI: {}", uri);
+        ChatGptCreateVectorStoreFileRequest requestBody = ChatGptCreateVectorStoreFileRequest.builder()
+                .fileId(fileId)
+                .build();
+        Request request = httpClient.createRequestFromJson(uri.toString(), config.getGptToken(), requestBody);
+
+        ChatGptResponse addFileResponse = getGson().fromJson(httpClient.execute(request), ChatGptResponse.class);
+        log.debug("Vector Store File created: {}", addFileResponse);
+
+        return addFileResponse;
+    }
+
+    public void removeFile(String vectorStoreId) {
+        URI uri = URI.create(config.getGptDomain() +
+                UriResourceLocatorStateful.vectorStoreFileRetrieveUri(vectorStoreId, fileId));
+        log.debug("ChatGPT Delete Vector Store File request URI: {}", uri);
+        String response = httpClient.execute(httpClient.createDeleteRequest(uri.toString(), config.getGptToken()));
+        log.debug("Vector Store File deleted: {}", response);
+    }
+
+    public void deleteVectorStore(String vectorStoreId) {
+        URI uri = URI.create(config.getGptDomain() + UriResourceLocatorStateful.vectorStoreRetrieveUri(vectorStoreId));
+        log.debug("ChatGPT Delete Vector Store request URI: {}", uri);
+        String response = httpClient.execute(httpClient.createDeleteRequest(uri.toString(), config.getGptToken()));
+        log.debug("Vector Store deleted: {}", response);
+    }
+
     private Request vectorStoreCreateRequest() {
         URI uri = URI.create(config.getGptDomain() + UriResourceLocatorStateful.vectorStoreCreateUri());
         log.debug("ChatGPT Create Vector Store request URI: {}", uri);
 
+        // The Vector Store is created empty, then its files are added one by one
         ChatGptCreateVectorStoreRequest requestBody = ChatGptCreateVectorStoreRequest.builder()
                 .name(change.getProjectName())
-                .fileIds(new String[] { fileId })
                 .build();
 
         log.debug("ChatGPT Create Vector Store request body: {}", requestBody);
@@ -6,7 +6,9 @@ import com.google.gerrit.server.util.ManualRequestContext;
 import com.google.inject.Inject;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.gerrit.IGerritClientPatchSet;
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.AccountGroupsCache;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientPatchSet;
 import lombok.extern.slf4j.Slf4j;
@@ -21,8 +23,9 @@ public class GerritClientPatchSetStateful extends GerritClientPatchSet implement
 
     @VisibleForTesting
     @Inject
-    public GerritClientPatchSetStateful(Configuration config, AccountCache accountCache) {
-        super(config, accountCache);
+    public GerritClientPatchSetStateful(Configuration config, AccountCache accountCache,
+            AccountGroupsCache accountGroupsCache, RetrievalExecutor retrievalExecutor) {
+        super(config, accountCache, accountGroupsCache, retrievalExecutor);
     }
 
     public String getPatchSet(ChangeSetData changeSetData, GerritChange change) throws Exception {
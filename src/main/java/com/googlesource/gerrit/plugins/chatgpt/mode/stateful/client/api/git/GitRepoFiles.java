@@ -1,9 +1,14 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.git;
 
+import com.google.gson.stream.JsonWriter;
+import com.google.inject.Inject;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.git.GitRepoFilesDiff;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.attributes.Attributes;
+import org.eclipse.jgit.diff.RawText;
 import org.eclipse.jgit.lib.*;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
@@ -13,10 +18,14 @@ import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.FileUtils.matchesExtensionList;
 import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
@@ -25,27 +34,146 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
 public class GitRepoFiles {
     public static final String REPO_PATTERN = "git/%s.git";
 
-    private List<String> enabledFileExtensions;
+    private static final int GENERATED_MARKER_SCAN_LENGTH = 1024;
+    private static final List<String> GENERATED_MARKERS = List.of("@generated", "DO NOT EDIT");
+    private static final List<String> EXCLUDING_ATTRIBUTES = List.of("linguist-generated", "linguist-vendored",
+            "binary");
+    private static final int LOADING_QUEUE_FACTOR = 2;
+
+    private final RetrievalExecutor retrievalExecutor;
+
+    private Set<String> enabledFileExtensions;
+    private int maxFileSize;
+    private int loadingParallelism;
+
+    @Inject
+    public GitRepoFiles(RetrievalExecutor retrievalExecutor) {
+        this.retrievalExecutor = retrievalExecutor;
+    }
 
     public String getGitRepoFiles(Configuration config, GerritChange change) {
-        enabledFileExtensions = config.getEnabledFileExtensions();
+        StringWriter repoFiles = new StringWriter();
+        writeGitRepoFiles(config, change, repoFiles);
+        return repoFiles.toString();
+    }
+
+    // The files are passed to `repoFileConsumer` one by one, so that only a single file content is held in memory
+    public void forEachGitRepoFile(Configuration config, GerritChange change,
+            BiConsumer<String, String> repoFileConsumer) {
+        updateSettings(config);
         log.debug("Open Repo from {}", change.getProjectNameKey());
         String repoPath = String.format(REPO_PATTERN, change.getProjectNameKey().toString());
-        try {
-            Repository repository = openRepository(repoPath);
-            log.debug("Open Repo path {}", repoPath);
-            Map<String, String> filesWithContent = listFilesWithContent(repository);
-
-            return getGson().toJson(filesWithContent);
-        } catch (IOException | GitAPIException e) {
+        try (Repository repository = openRepository(repoPath)) {
+            loadFilesWithContent(repository, (path, content) -> {
+                if (content.isPresent()) {
+                    log.debug("Repo File loaded: {}", path);
+                    repoFileConsumer.accept(path, content.get());
+                }
+            });
+        } catch (IOException e) {
             throw new RuntimeException("Failed to retrieve files in master branch: ", e);
         }
     }
 
-    public Map<String, String> listFilesWithContent(Repository repository) throws IOException, GitAPIException {
-        Map<String, String> filesWithContent = new HashMap<>();
-        try (ObjectReader reader = repository.newObjectReader();
+    // Retrieve the files that differ between the tree last synchronized and the current tree of the master branch.
+    // Returns empty if more files differ than can be synchronized incrementally, before any of them is loaded.
+    public Optional<GitRepoFilesDiff> getGitRepoFilesDiff(Configuration config, GerritChange change,
+            String lastTreeId) {
+        updateSettings(config);
+        String repoPath = String.format(REPO_PATTERN, change.getProjectNameKey().toString());
+        try (Repository repository = openRepository(repoPath);
+             RevWalk revWalk = new RevWalk(repository)) {
+            RevTree lastTree = revWalk.parseTree(ObjectId.fromString(lastTreeId));
+            RevTree tree = revWalk.parseCommit(repository.resolve(Constants.R_HEADS + "master")).getTree();
+            GitRepoFilesDiff gitRepoFilesDiff = new GitRepoFilesDiff(tree.getName());
+            List<RepoFile> changedFiles = new ArrayList<>();
+            Set<String> lastTreeFiles = new HashSet<>();
+
+            try (TreeWalk treeWalk = new TreeWalk(repository)) {
+                treeWalk.addTree(lastTree);
+                treeWalk.addTree(tree);
+                treeWalk.setRecursive(true);
+                treeWalk.setFilter(TreeFilter.ANY_DIFF);
+
+                while (treeWalk.next()) {
+                    String path = treeWalk.getPathString();
+                    if (!matchesExtensionList(path, enabledFileExtensions)) continue;
+                    boolean isInLastTree = treeWalk.getFileMode(0) != FileMode.MISSING;
+                    if (isInLastTree) {
+                        lastTreeFiles.add(path);
+                    }
+                    if (treeWalk.getFileMode(1) == FileMode.MISSING || isExcludedByAttributes(treeWalk, 1, path)) {
+                        if (isInLastTree) {
+                            log.debug("Repo File deleted: {}", path);
+                            gitRepoFilesDiff.getDeletedFiles().add(path);
+                        }
+                        continue;
+                    }
+                    changedFiles.add(new RepoFile(path, treeWalk.getObjectId(1)));
+                }
+            }
+            int differingFiles = changedFiles.size() + gitRepoFilesDiff.getDeletedFiles().size();
+            if (differingFiles > config.getVectorStoreMaxIncrementalFiles()) {
+                log.debug("{} Repo Files differ from tree {}", differingFiles, lastTreeId);
+                return Optional.empty();
+            }
+            // Files that are no longer eligible, e.g. because they have grown too large, are handled as deleted
+            loadFileContents(repository, changedFiles, (path, content) -> {
+                if (content.isPresent()) {
+                    log.debug("Repo File changed: {}", path);
+                    gitRepoFilesDiff.getChangedFiles().put(path, content.get());
+                    if (!lastTreeFiles.contains(path)) {
+                        gitRepoFilesDiff.getAddedFiles().add(path);
+                    }
+                }
+                else if (lastTreeFiles.contains(path)) {
+                    gitRepoFilesDiff.getDeletedFiles().add(path);
+                }
+            });
+            return Optional.of(gitRepoFilesDiff);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to retrieve changed files in master branch: ", e);
+        }
+    }
+
+    public String getMasterTreeId(GerritChange change) {
+        String repoPath = String.format(REPO_PATTERN, change.getProjectNameKey().toString());
+        try (Repository repository = openRepository(repoPath);
              RevWalk revWalk = new RevWalk(repository)) {
+            return revWalk.parseCommit(repository.resolve(Constants.R_HEADS + "master")).getTree().getName();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to retrieve tree of master branch: ", e);
+        }
+    }
+
+    private void writeGitRepoFiles(Configuration config, GerritChange change, Writer writer) {
+        updateSettings(config);
+        log.debug("Open Repo from {}", change.getProjectNameKey());
+        String repoPath = String.format(REPO_PATTERN, change.getProjectNameKey().toString());
+        try (Repository repository = openRepository(repoPath);
+             JsonWriter jsonWriter = getGson().newJsonWriter(writer)) {
+            log.debug("Open Repo path {}", repoPath);
+            jsonWriter.beginObject();
+            writeFilesWithContent(repository, jsonWriter);
+            jsonWriter.endObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to retrieve files in master branch: ", e);
+        }
+    }
+
+    private void writeFilesWithContent(Repository repository, JsonWriter jsonWriter) throws IOException {
+        loadFilesWithContent(repository, (path, content) -> {
+            if (content.isPresent()) {
+                log.debug("Repo File loaded: {}", path);
+                jsonWriter.name(path).value(content.get());
+            }
+        });
+    }
+
+    private void loadFilesWithContent(Repository repository, FileContentConsumer fileContentConsumer)
+            throws IOException {
+        List<RepoFile> repoFiles = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
             ObjectId lastCommitId = repository.resolve(Constants.R_HEADS + "master");
             RevCommit commit = revWalk.parseCommit(lastCommitId);
             RevTree tree = commit.getTree();
@@ -57,16 +185,126 @@ public class GitRepoFiles {
 
                 while (treeWalk.next()) {
                     String path = treeWalk.getPathString();
-                    if (!matchesExtensionList(path, enabledFileExtensions)) continue;
-                    ObjectId objectId = treeWalk.getObjectId(0);
-                    byte[] bytes = reader.open(objectId).getBytes();
-                    String content = new String(bytes, StandardCharsets.UTF_8); // Assumes text files with UTF-8 encoding
-                    log.debug("Repo File loaded: {}", path);
-                    filesWithContent.put(path, content);
+                    if (!matchesExtensionList(path, enabledFileExtensions) || isExcludedByAttributes(treeWalk, 0, path))
+                        continue;
+                    repoFiles.add(new RepoFile(path, treeWalk.getObjectId(0)));
+                }
+            }
+        }
+        loadFileContents(repository, repoFiles, fileContentConsumer);
+    }
+
+    private void updateSettings(Configuration config) {
+        enabledFileExtensions = config.getEnabledFileExtensions();
+        maxFileSize = config.getRepoFileMaxSize();
+        loadingParallelism = config.getRepoFileLoadingParallelism();
+    }
+
+    private boolean isExcludedByAttributes(TreeWalk treeWalk, int treeIndex, String path) {
+        // Files marked in `.gitattributes` as generated, vendored or binary are not part of the codebase to index
+        Attributes attributes = treeWalk.getAttributes(treeIndex);
+        for (String attribute : EXCLUDING_ATTRIBUTES) {
+            if (attributes.isSet(attribute) || "true".equals(attributes.getValue(attribute))) {
+                log.debug("Repo File {} excluded by attribute {}", path, attribute);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The files are passed to `fileContentConsumer` in the order of the list, with an empty content if excluded
+    private void loadFileContents(Repository repository, List<RepoFile> repoFiles,
+            FileContentConsumer fileContentConsumer) throws IOException {
+        int parallelism = Math.min(loadingParallelism, repoFiles.size());
+        if (parallelism <= 1) {
+            try (ObjectReader reader = repository.newObjectReader()) {
+                for (RepoFile repoFile : repoFiles) {
+                    fileContentConsumer.accept(repoFile.path(), loadFileContent(reader, repoFile));
+                }
+            }
+            return;
+        }
+        // Each loading uses a reader not in use by any other, as the ObjectReader instances are not thread-safe. The
+        // loadings run on the shared plugin pool, so the readers are pooled by this call rather than by thread.
+        List<ObjectReader> readers = Collections.synchronizedList(new ArrayList<>());
+        Queue<ObjectReader> idleReaders = new ConcurrentLinkedQueue<>();
+        // Only a bounded number of files is loaded ahead of the consumer, in order to limit the memory used
+        Deque<Future<Optional<String>>> pendingContents = new ArrayDeque<>();
+        try {
+            int consumedFiles = 0;
+            for (RepoFile repoFile : repoFiles) {
+                if (pendingContents.size() >= parallelism * LOADING_QUEUE_FACTOR) {
+                    fileContentConsumer.accept(repoFiles.get(consumedFiles++).path(),
+                            getLoadedContent(pendingContents.poll()));
                 }
+                pendingContents.add(retrievalExecutor.submit(() -> {
+                    ObjectReader reader = idleReaders.poll();
+                    if (reader == null) {
+                        reader = repository.newObjectReader();
+                        readers.add(reader);
+                    }
+                    try {
+                        return loadFileContent(reader, repoFile);
+                    }
+                    finally {
+                        idleReaders.add(reader);
+                    }
+                }));
             }
+            while (!pendingContents.isEmpty()) {
+                fileContentConsumer.accept(repoFiles.get(consumedFiles++).path(),
+                        getLoadedContent(pendingContents.poll()));
+            }
+        }
+        finally {
+            // The readers are closed once no loading is left in progress (a cancelled task could still be running)
+            for (Future<Optional<String>> pendingContent : pendingContents) {
+                try {
+                    pendingContent.get();
+                }
+                catch (Exception ignored) {
+                }
+            }
+            readers.forEach(ObjectReader::close);
+        }
+    }
+
+    private Optional<String> getLoadedContent(Future<Optional<String>> pendingContent) throws IOException {
+        try {
+            return pendingContent.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Loading of repo files interrupted", e);
+        }
+        catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
         }
-        return filesWithContent;
+    }
+
+    private Optional<String> loadFileContent(ObjectReader reader, RepoFile repoFile) throws IOException {
+        // The size is checked before loading, so that large blobs are never read into memory
+        long size = reader.getObjectSize(repoFile.objectId(), Constants.OBJ_BLOB);
+        if (size > maxFileSize) {
+            log.debug("Repo File {} excluded: size {} exceeds {}", repoFile.path(), size, maxFileSize);
+            return Optional.empty();
+        }
+        byte[] bytes = reader.open(repoFile.objectId(), Constants.OBJ_BLOB).getBytes(maxFileSize);
+        if (RawText.isBinary(bytes)) {
+            log.debug("Repo File {} excluded: binary content", repoFile.path());
+            return Optional.empty();
+        }
+        String content = new String(bytes, StandardCharsets.UTF_8); // Assumes text files with UTF-8 encoding
+        if (isGenerated(content)) {
+            log.debug("Repo File {} excluded: generated content", repoFile.path());
+            return Optional.empty();
+        }
+        return Optional.of(content);
+    }
+
+    private boolean isGenerated(String content) {
+        String header = content.substring(0, Math.min(content.length(), GENERATED_MARKER_SCAN_LENGTH));
+        return GENERATED_MARKERS.stream().anyMatch(header::contains);
     }
 
     public Repository openRepository(String path) throws IOException {
@@ -77,4 +315,11 @@ public class GitRepoFiles {
                 .setMustExist(true)
                 .build();
     }
+
+    private record RepoFile(String path, ObjectId objectId) {}
+
+    @FunctionalInterface
+    private interface FileContentConsumer {
+        void accept(String path, Optional<String> content) throws IOException;
+    }
 }
@@ -9,4 +9,5 @@ import lombok.Data;
 public class ChatGptCreateRunRequest {
     @SerializedName("assistant_id")
     private String assistantId;
+    private Boolean stream;
 }
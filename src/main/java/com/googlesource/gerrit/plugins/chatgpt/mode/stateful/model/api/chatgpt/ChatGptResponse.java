@@ -1,5 +1,6 @@
 package com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.api.chatgpt;
 
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptUsage;
 import lombok.Data;
 
 @Data
@@ -7,4 +8,5 @@ public class ChatGptResponse {
     private String id;
     private String object;
     private String status;
+    private ChatGptUsage usage;
 }
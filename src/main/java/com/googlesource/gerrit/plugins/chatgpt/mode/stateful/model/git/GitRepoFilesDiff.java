@@ -0,0 +1,25 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.git;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@RequiredArgsConstructor
+public class GitRepoFilesDiff {
+    private final String treeId;
+    private final Map<String, String> changedFiles = new HashMap<>();
+    private final List<String> deletedFiles = new ArrayList<>();
+    // Changed files that are not in the tree compared with
+    private final Set<String> addedFiles = new HashSet<>();
+
+    public boolean isEmpty() {
+        return changedFiles.isEmpty() && deletedFiles.isEmpty();
+    }
+}
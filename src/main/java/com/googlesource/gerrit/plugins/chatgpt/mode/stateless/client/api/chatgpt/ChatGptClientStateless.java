@@ -8,6 +8,7 @@ import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.chatgpt.IChatGptClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptParameters;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptRateLimiter;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptTools;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpClientWithRetry;
@@ -23,7 +24,9 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getNoEscapedGson;
 
@@ -32,12 +35,19 @@ import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getNoEscap
 public class ChatGptClientStateless extends ChatGptClient implements IChatGptClient {
     private static final int REVIEW_ATTEMPT_LIMIT = 3;
 
-    private final HttpClientWithRetry httpClientWithRetry = new HttpClientWithRetry();
+    private final HttpClientWithRetry httpClientWithRetry;
+    private final ChatGptRateLimiter rateLimiter;
 
     @VisibleForTesting
     @Inject
-    public ChatGptClientStateless(Configuration config) {
+    public ChatGptClientStateless(
+            Configuration config,
+            ChatGptRateLimiter rateLimiter,
+            HttpClientWithRetry httpClientWithRetry
+    ) {
         super(config);
+        this.rateLimiter = rateLimiter;
+        this.httpClientWithRetry = httpClientWithRetry;
     }
 
     public ChatGptResponseContent ask(ChangeSetData changeSetData, GerritChange change, String patchSet)
@@ -49,15 +59,15 @@ public class ChatGptClientStateless extends ChatGptClient implements IChatGptCli
             HttpRequest request = createRequest(config, changeSetData, patchSet);
             log.debug("ChatGPT request: {}", request.toString());
 
-            HttpResponse<String> response = httpClientWithRetry.execute(request);
-
-            String body = response.body();
-            log.debug("ChatGPT response body: {}", body);
-            if (body == null) {
-                throw new IOException("ChatGPT response body is null");
-            }
-
-            ChatGptResponseContent contentExtracted = extractContent(config, body);
+            // The budget is reserved for each HTTP attempt, as the retries are also counted by ChatGPT; only the
+            // attempt that received the response is reconciled with the usage, the failed ones retain their estimate
+            List<ChatGptRateLimiter.Reservation> reservations = new ArrayList<>();
+            Runnable reserveAttempt = () -> reservations.add(rateLimiter.reserve(config, config.getGptModel(),
+                    requestBody));
+            ChatGptResponseContent contentExtracted = isStreamedResponse(config)
+                    ? askStreamed(request, reserveAttempt)
+                    : askUnstreamed(request, reserveAttempt);
+            reservations.get(reservations.size() - 1).reconcile(usage);
             if (validateResponse(contentExtracted, changeId, attemptInd)) {
                 return contentExtracted;
             }
@@ -65,6 +75,24 @@ public class ChatGptClientStateless extends ChatGptClient implements IChatGptCli
         throw new RuntimeException("Failed to receive valid ChatGPT response");
     }
 
+    private ChatGptResponseContent askUnstreamed(HttpRequest request, Runnable reserveAttempt) throws Exception {
+        HttpResponse<String> response = httpClientWithRetry.execute(request, reserveAttempt);
+
+        String body = response.body();
+        log.debug("ChatGPT response body: {}", body);
+        if (body == null) {
+            throw new IOException("ChatGPT response body is null");
+        }
+        return extractContent(body);
+    }
+
+    private ChatGptResponseContent askStreamed(HttpRequest request, Runnable reserveAttempt) throws Exception {
+        HttpResponse<Stream<String>> response = httpClientWithRetry.executeLines(request, reserveAttempt);
+        try (Stream<String> lines = response.body()) {
+            return extractStreamedContent(lines);
+        }
+    }
+
     protected HttpRequest createRequest(Configuration config, ChangeSetData changeSetData, String patchSet) {
         URI uri = URI.create(config.getGptDomain() + UriResourceLocatorStateless.chatCompletionsUri());
         log.debug("ChatGPT request URI: {}", uri);
@@ -94,11 +122,14 @@ public class ChatGptClientStateless extends ChatGptClient implements IChatGptCli
         ChatGptTool[] tools = new ChatGptTool[] {
                 ChatGptTools.retrieveFormatRepliesTool()
         };
+        boolean streamOutput = chatGptParameters.getStreamOutput();
         ChatGptCompletionRequest chatGptCompletionRequest = ChatGptCompletionRequest.builder()
                 .model(config.getGptModel())
                 .messages(List.of(systemMessage, userMessage))
                 .temperature(chatGptParameters.getGptTemperature())
-                .stream(chatGptParameters.getStreamOutput())
+                .stream(streamOutput)
+                // Usage is requested in streamed mode too, so that the rate limiter can reconcile its estimate
+                .streamOptions(streamOutput ? new ChatGptCompletionRequest.StreamOptions(true) : null)
                 // Seed value is Utilized to prevent ChatGPT from mixing up separate API calls that occur in close
                 // temporal proximity.
                 .seed(chatGptParameters.getRandomSeed())
@@ -7,6 +7,8 @@ import com.google.gerrit.server.account.AccountCache;
 import com.google.gerrit.server.util.ManualRequestContext;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.gerrit.IGerritClientPatchSet;
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.AccountGroupsCache;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientPatchSet;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
@@ -14,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -21,8 +24,9 @@ import java.util.Map;
 public class GerritClientPatchSetStateless extends GerritClientPatchSet implements IGerritClientPatchSet {
     @VisibleForTesting
     @Inject
-    public GerritClientPatchSetStateless(Configuration config, AccountCache accountCache) {
-        super(config, accountCache);
+    public GerritClientPatchSetStateless(Configuration config, AccountCache accountCache,
+            AccountGroupsCache accountGroupsCache, RetrievalExecutor retrievalExecutor) {
+        super(config, accountCache, accountGroupsCache, retrievalExecutor);
     }
 
     public String getPatchSet(ChangeSetData changeSetData, GerritChange change) throws Exception {
@@ -72,7 +76,12 @@ public class GerritClientPatchSetStateless extends GerritClientPatchSet implemen
 
     private String getFileDiffsJson(GerritChange change, List<String> files, int revisionBase) throws Exception {
         retrieveFileDiff(change, files, revisionBase);
-        diffs.add(String.format("{\"changeId\": \"%s\"}", change.getFullChangeId()));
-        return "[" + String.join(",", diffs) + "]\n";
+        return buildPatchSet(diffs, change);
+    }
+
+    public static String buildPatchSet(List<String> fileDiffs, GerritChange change) {
+        List<String> patchSetItems = new ArrayList<>(fileDiffs);
+        patchSetItems.add(String.format("{\"changeId\": \"%s\"}", change.getFullChangeId()));
+        return "[" + String.join(",", patchSetItems) + "]\n";
     }
 }
@@ -0,0 +1,89 @@
+package com.googlesource.gerrit.plugins.chatgpt.mode.stateless.client.prompt;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptTokenizer;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptTools;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateless.client.api.gerrit.GerritClientPatchSetStateless;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getNoEscapedGson;
+
+// Fits the file diffs of a stateless request into the prompt token budget, less its safety margin as the tokens are
+// only estimated. The fixed part of the request (system prompt, instructions, directives, message history and tool
+// definition) is measured first, then the file diffs are admitted from the smallest to the largest while they fit, so
+// that as many files as possible are reviewed. The commit message is always admitted first.
+@Slf4j
+public class ChatGptPromptBudget {
+    // Tokens added by the chat format to each of the two messages and to prime the reply
+    private static final int REQUEST_OVERHEAD_TOKENS = 9;
+    private static final String COMMIT_MESSAGE_FILENAME = "/COMMIT_MSG";
+
+    private final Configuration config;
+    private final ChangeSetData changeSetData;
+    private final GerritChange change;
+    private final ChatGptTokenizer tokenizer;
+
+    public ChatGptPromptBudget(Configuration config, ChangeSetData changeSetData, GerritChange change) {
+        this.config = config;
+        this.changeSetData = changeSetData;
+        this.change = change;
+        tokenizer = ChatGptTokenizer.forModel(config.getGptModel());
+    }
+
+    // Returns the file diffs that fit, in their original order, or an empty Optional if not even the fixed part of the
+    // request or a single file diff fit into the budget
+    public Optional<Map<String, String>> fitFileDiffs(Map<String, String> fileDiffs) {
+        int budget = config.getGptPromptEstimatedTokenBudget();
+        int fixedTokens = getFixedTokens();
+        int availableTokens = budget - fixedTokens;
+        log.debug("Estimated prompt token budget: {}, fixed part: {}", budget, fixedTokens);
+        if (availableTokens < 0) {
+            log.warn("Fixed part of the prompt exceeds the estimated token budget of {}: {} tokens", budget, fixedTokens);
+            return Optional.empty();
+        }
+        Map<String, Integer> fileTokens = new HashMap<>();
+        for (Map.Entry<String, String> fileDiff : fileDiffs.entrySet()) {
+            // One more token for the separator of the diffs
+            fileTokens.put(fileDiff.getKey(), tokenizer.estimateTokens(fileDiff.getValue()) + 1);
+        }
+        List<String> filesByPriority = new ArrayList<>(fileDiffs.keySet());
+        filesByPriority.sort(Comparator.comparing((String filename) -> !filename.equals(COMMIT_MESSAGE_FILENAME))
+                .thenComparing(fileTokens::get));
+        Set<String> admittedFiles = new HashSet<>();
+        for (String filename : filesByPriority) {
+            int tokens = fileTokens.get(filename);
+            if (tokens > availableTokens) {
+                log.info("File '{}' not reviewed because its {} tokens exceed the remaining prompt token budget",
+                        filename, tokens);
+                continue;
+            }
+            availableTokens -= tokens;
+            admittedFiles.add(filename);
+        }
+        if (admittedFiles.isEmpty() && !fileDiffs.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, String> fittedFileDiffs = new LinkedHashMap<>();
+        for (Map.Entry<String, String> fileDiff : fileDiffs.entrySet()) {
+            if (admittedFiles.contains(fileDiff.getKey())) {
+                fittedFileDiffs.put(fileDiff.getKey(), fileDiff.getValue());
+            }
+        }
+        return Optional.of(fittedFileDiffs);
+    }
+
+    @VisibleForTesting
+    public int getFixedTokens() {
+        ChatGptPromptStateless chatGptPromptStateless = new ChatGptPromptStateless(config, change.getIsCommentEvent());
+        String emptyPatchSet = GerritClientPatchSetStateless.buildPatchSet(List.of(), change);
+        return REQUEST_OVERHEAD_TOKENS +
+                tokenizer.estimateTokens(chatGptPromptStateless.getGptSystemPrompt()) +
+                tokenizer.estimateTokens(chatGptPromptStateless.getGptUserPrompt(changeSetData, emptyPatchSet)) +
+                tokenizer.estimateTokens(getNoEscapedGson().toJson(ChatGptTools.retrieveFormatRepliesTool()));
+    }
+}
@@ -4,6 +4,7 @@ import com.google.gson.annotations.SerializedName;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptRequestMessage;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptTool;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptToolChoice;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -14,10 +15,20 @@ import java.util.List;
 public class ChatGptCompletionRequest {
     private String model;
     private boolean stream;
+    @SerializedName("stream_options")
+    private StreamOptions streamOptions;
     private double temperature;
     private int seed;
     private List<ChatGptRequestMessage> messages;
     private ChatGptTool[] tools;
     @SerializedName("tool_choice")
     private ChatGptToolChoice toolChoice;
+
+    @Data
+    @AllArgsConstructor
+    public static class StreamOptions {
+        // Makes ChatGPT send the token usage of the request in a last chunk before the end of the stream
+        @SerializedName("include_usage")
+        private boolean includeUsage;
+    }
 }
@@ -23,4 +23,9 @@ public class Settings {
         stateless,
         stateful
     }
+
+    public enum PluginDataStorages {
+        properties,
+        embedded
+    }
 }
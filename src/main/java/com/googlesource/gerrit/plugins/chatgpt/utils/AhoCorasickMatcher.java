@@ -0,0 +1,79 @@
+package com.googlesource.gerrit.plugins.chatgpt.utils;
+
+import java.util.*;
+
+// Multi-pattern substring matcher: all the patterns are compiled into a single automaton, so that a text is checked
+// against all of them in one pass, regardless of their number
+public class AhoCorasickMatcher {
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failures = new ArrayList<>();
+    private final List<Boolean> terminals = new ArrayList<>();
+    private final boolean matchingEmptyPattern;
+
+    public AhoCorasickMatcher(Collection<String> patterns) {
+        addState();
+        boolean emptyPatternFound = false;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                emptyPatternFound = true;
+                continue;
+            }
+            addPattern(pattern);
+        }
+        matchingEmptyPattern = emptyPatternFound;
+        buildFailures();
+    }
+
+    public boolean containsAny(String text) {
+        if (matchingEmptyPattern) return true;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (state != 0 && !transitions.get(state).containsKey(c)) {
+                state = failures.get(state);
+            }
+            state = transitions.get(state).getOrDefault(c, 0);
+            if (terminals.get(state)) return true;
+        }
+        return false;
+    }
+
+    private int addState() {
+        transitions.add(new HashMap<>());
+        failures.add(0);
+        terminals.add(false);
+        return transitions.size() - 1;
+    }
+
+    private void addPattern(String pattern) {
+        int state = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            Integer next = transitions.get(state).get(pattern.charAt(i));
+            if (next == null) {
+                next = addState();
+                transitions.get(state).put(pattern.charAt(i), next);
+            }
+            state = next;
+        }
+        terminals.set(state, true);
+    }
+
+    // The failure links are computed breadth-first; a state is terminal also when any of its suffixes is a pattern
+    private void buildFailures() {
+        Deque<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+                int next = transition.getValue();
+                int failure = failures.get(state);
+                while (failure != 0 && !transitions.get(failure).containsKey(transition.getKey())) {
+                    failure = failures.get(failure);
+                }
+                int failureTarget = transitions.get(failure).getOrDefault(transition.getKey(), 0);
+                failures.set(next, failureTarget == next ? 0 : failureTarget);
+                terminals.set(next, terminals.get(next) || terminals.get(failures.get(next)));
+                queue.add(next);
+            }
+        }
+    }
+}
@@ -5,7 +5,7 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.Collection;
 import java.util.Objects;
 
 public class FileUtils {
@@ -14,11 +14,10 @@ public class FileUtils {
                 FileUtils.class.getClassLoader().getResourceAsStream(filename)), StandardCharsets.UTF_8);
     }
 
-    public static Path createTempFileWithContent(String prefix, String suffix, String content) {
+    public static Path createTempFile(String prefix, String suffix) {
         Path tempFile;
         try {
             tempFile = Files.createTempFile(prefix, suffix);
-            Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -27,7 +26,18 @@ public class FileUtils {
         return tempFile;
     }
 
-    public static boolean matchesExtensionList(String filename, List<String> extensions) {
+    public static Path createTempFileWithContent(String prefix, String suffix, String content) {
+        Path tempFile = createTempFile(prefix, suffix);
+        try {
+            Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        return tempFile;
+    }
+
+    public static boolean matchesExtensionList(String filename, Collection<String> extensions) {
         int extIndex = filename.lastIndexOf('.');
         return extIndex >= 1 && extensions.contains(filename.substring(extIndex));
     }
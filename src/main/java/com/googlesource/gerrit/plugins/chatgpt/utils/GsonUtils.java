@@ -4,13 +4,17 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 public class GsonUtils {
+    // Gson instances are immutable and thread-safe, so they are shared instead of being created for each conversion
+    private static final Gson GSON = new Gson();
+    private static final Gson NO_ESCAPED_GSON = new GsonBuilder()
+            .disableHtmlEscaping()
+            .create();
+
     public static Gson getGson() {
-        return new Gson();
+        return GSON;
     }
 
     public static Gson getNoEscapedGson() {
-        return new GsonBuilder()
-                .disableHtmlEscaping()
-                .create();
+        return NO_ESCAPED_GSON;
     }
 }
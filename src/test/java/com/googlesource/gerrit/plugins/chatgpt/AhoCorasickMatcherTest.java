@@ -0,0 +1,79 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.utils.AhoCorasickMatcher;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AhoCorasickMatcherTest {
+    private static final String ALPHABET = "abc";
+
+    @Test
+    public void overlappingPatterns() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("he", "she", "his", "hers"));
+
+        assertTrue(matcher.containsAny("ushers"));
+        assertTrue(matcher.containsAny("ahis"));
+        assertTrue(matcher.containsAny("hers"));
+        assertFalse(matcher.containsAny("hxsr"));
+        assertFalse(matcher.containsAny("h"));
+    }
+
+    @Test
+    public void patternFoundThroughFailureLinks() {
+        // The match of "bcd" starts within the partial match of "abce" and can only be reached through its failure
+        // link
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("abce", "bcd"));
+        assertTrue(matcher.containsAny("abcd"));
+        assertFalse(matcher.containsAny("abcf"));
+
+        // The pattern "b" is a suffix of the partial match "ab" of the longer pattern
+        matcher = new AhoCorasickMatcher(List.of("abc", "b"));
+        assertTrue(matcher.containsAny("xabx"));
+
+        // A repeated prefix requires following the failure links more than once
+        matcher = new AhoCorasickMatcher(List.of("aab"));
+        assertTrue(matcher.containsAny("aaab"));
+        assertFalse(matcher.containsAny("aaaa"));
+    }
+
+    @Test
+    public void emptyPattern() {
+        assertTrue(new AhoCorasickMatcher(List.of("")).containsAny(""));
+        assertTrue(new AhoCorasickMatcher(List.of("xyz", "")).containsAny("abc"));
+        assertFalse(new AhoCorasickMatcher(List.of()).containsAny("abc"));
+        assertFalse(new AhoCorasickMatcher(List.of("a")).containsAny(""));
+    }
+
+    @Test
+    public void equivalentToContains() {
+        Random random = new Random(2024);
+        for (int round = 0; round < 2000; round++) {
+            List<String> patterns = new ArrayList<>();
+            int patternCount = random.nextInt(5);
+            for (int i = 0; i < patternCount; i++) {
+                patterns.add(createText(random, random.nextInt(5)));
+            }
+            AhoCorasickMatcher matcher = new AhoCorasickMatcher(patterns);
+            for (int i = 0; i < 10; i++) {
+                String text = createText(random, random.nextInt(12));
+                boolean expected = patterns.stream().anyMatch(text::contains);
+                assertEquals("Patterns: " + patterns + ", text: '" + text + "'", expected, matcher.containsAny(text));
+            }
+        }
+    }
+
+    private static String createText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
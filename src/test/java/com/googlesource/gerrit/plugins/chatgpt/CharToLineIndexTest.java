@@ -0,0 +1,93 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.CharToLineIndex;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class CharToLineIndexTest {
+    @Test
+    public void emptyIndex() {
+        CharToLineIndex index = new CharToLineIndex();
+
+        assertTrue(index.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.getFloorLine(0));
+    }
+
+    @Test
+    public void floorLineOfAscendingPositions() {
+        CharToLineIndex index = new CharToLineIndex();
+        index.put(0, 1);
+        index.put(10, 2);
+        index.put(25, 3);
+
+        assertFalse(index.isEmpty());
+        assertEquals(1, index.getFloorLine(0));
+        assertEquals(1, index.getFloorLine(9));
+        assertEquals(2, index.getFloorLine(10));
+        assertEquals(2, index.getFloorLine(24));
+        assertEquals(3, index.getFloorLine(25));
+        assertEquals(3, index.getFloorLine(1000));
+    }
+
+    @Test
+    public void positionBeforeTheFirstOneIsRejected() {
+        CharToLineIndex index = new CharToLineIndex();
+        index.put(5, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> index.getFloorLine(4));
+    }
+
+    @Test
+    public void unorderedAndRepeatedPositions() {
+        CharToLineIndex index = new CharToLineIndex();
+        index.put(30, 4);
+        index.put(0, 1);
+        index.put(20, 3);
+        index.put(10, 2);
+        index.put(20, 7);
+
+        assertEquals(1, index.getFloorLine(5));
+        assertEquals(2, index.getFloorLine(15));
+        assertEquals(7, index.getFloorLine(20));
+        assertEquals(7, index.getFloorLine(29));
+        assertEquals(4, index.getFloorLine(30));
+    }
+
+    @Test
+    public void equivalentToTreeMapFloorEntry() {
+        Random random = new Random(12345);
+        for (int round = 0; round < 200; round++) {
+            CharToLineIndex index = new CharToLineIndex();
+            TreeMap<Integer, Integer> treeMap = new TreeMap<>();
+            // Mostly ascending positions, as added by the diff processing, with some out of order and repeated ones
+            // that also grow the arrays beyond their initial capacity
+            int entries = 1 + random.nextInt(100);
+            int position = 0;
+            for (int i = 0; i < entries; i++) {
+                int entryPosition = random.nextInt(10) == 0 ? random.nextInt(position + 1) : position;
+                int line = random.nextInt(1000);
+                index.put(entryPosition, line);
+                treeMap.put(entryPosition, line);
+                position += random.nextInt(50);
+            }
+            for (int lookup = 0; lookup < 100; lookup++) {
+                int lookupPosition = random.nextInt(position + 10);
+                Map.Entry<Integer, Integer> floorEntry = treeMap.floorEntry(lookupPosition);
+                if (floorEntry == null) {
+                    assertThrows(IllegalArgumentException.class, () -> index.getFloorLine(lookupPosition));
+                }
+                else {
+                    assertEquals((int) floorEntry.getValue(), index.getFloorLine(lookupPosition));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.config.PluginConfig;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateless.client.prompt.ChatGptPromptBudget;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChatGptPromptBudgetTest {
+    private static final String PLUGIN_NAME = "chatgpt-code-review-gerrit-plugin";
+    private static final Project.NameKey PROJECT_NAME = Project.NameKey.parse("myProject");
+    private static final String COMMIT_MESSAGE_FILENAME = "/COMMIT_MSG";
+
+    private final GerritChange change = new GerritChange(PROJECT_NAME, BranchNameKey.create(PROJECT_NAME, "master"),
+            Change.Key.parse("myChangeId"));
+    private final ChangeSetData changeSetData = new ChangeSetData(1000000, -1, 1);
+
+    private int fixedTokens;
+
+    @Before
+    public void setUp() {
+        fixedTokens = createPromptBudget(Integer.MAX_VALUE).getFixedTokens();
+    }
+
+    @Test
+    public void allFilesFitInOriginalOrder() {
+        Map<String, String> fileDiffs = createFileDiffs(COMMIT_MESSAGE_FILENAME, 20, "large.py", 30, "small.py", 5);
+
+        Optional<Map<String, String>> fittedFileDiffs = fitFileDiffs(fileDiffs, 21 + 31 + 6);
+
+        assertTrue(fittedFileDiffs.isPresent());
+        assertEquals(List.of(COMMIT_MESSAGE_FILENAME, "large.py", "small.py"),
+                new ArrayList<>(fittedFileDiffs.get().keySet()));
+    }
+
+    @Test
+    public void commitMessageIsAdmittedFirst() {
+        Map<String, String> fileDiffs = createFileDiffs("small.py", 5, "medium.py", 10, COMMIT_MESSAGE_FILENAME, 20);
+
+        // The commit message is admitted before the smaller files, one token being added to each file for the separator
+        Optional<Map<String, String>> fittedFileDiffs = fitFileDiffs(fileDiffs, 21 + 6);
+
+        assertEquals(List.of("small.py", COMMIT_MESSAGE_FILENAME), new ArrayList<>(fittedFileDiffs.get().keySet()));
+    }
+
+    @Test
+    public void smallestFilesAreAdmittedFirst() {
+        Map<String, String> fileDiffs = createFileDiffs("large.py", 30, "small.py", 5, "medium.py", 10);
+
+        Optional<Map<String, String>> fittedFileDiffs = fitFileDiffs(fileDiffs, 6 + 11 + 29);
+
+        assertEquals(List.of("small.py", "medium.py"), new ArrayList<>(fittedFileDiffs.get().keySet()));
+        assertEquals(fileDiffs.get("small.py"), fittedFileDiffs.get().get("small.py"));
+    }
+
+    @Test
+    public void noFileFitting() {
+        Map<String, String> fileDiffs = createFileDiffs("small.py", 5);
+
+        assertEquals(Optional.empty(), fitFileDiffs(fileDiffs, 5));
+    }
+
+    @Test
+    public void fixedPartOverBudget() {
+        assertEquals(Optional.empty(), fitFileDiffs(createFileDiffs(), -1));
+        assertEquals(Optional.of(Map.of()), fitFileDiffs(createFileDiffs(), 0));
+    }
+
+    @Test
+    public void safetyMarginIsKeptFree() {
+        Map<String, String> fileDiffs = createFileDiffs("small.py", 5, "medium.py", 10);
+
+        // With a margin of 50%, only half of the budget can be filled
+        int promptTokenBudget = 2 * (fixedTokens + 6 + 11);
+
+        assertEquals(List.of("small.py", "medium.py"), new ArrayList<>(createPromptBudget(promptTokenBudget, 50)
+                .fitFileDiffs(fileDiffs).get().keySet()));
+        assertEquals(List.of("small.py"), new ArrayList<>(createPromptBudget(promptTokenBudget - 2, 50)
+                .fitFileDiffs(fileDiffs).get().keySet()));
+    }
+
+    private Optional<Map<String, String>> fitFileDiffs(Map<String, String> fileDiffs, int availableTokens) {
+        return createPromptBudget(fixedTokens + availableTokens, 0).fitFileDiffs(fileDiffs);
+    }
+
+    private ChatGptPromptBudget createPromptBudget(int promptTokenBudget) {
+        return createPromptBudget(promptTokenBudget, 0);
+    }
+
+    private ChatGptPromptBudget createPromptBudget(int promptTokenBudget, int safetyMargin) {
+        Config jgitConfig = new Config();
+        jgitConfig.setInt("plugin", PLUGIN_NAME, "gptPromptTokenBudget", promptTokenBudget);
+        jgitConfig.setInt("plugin", PLUGIN_NAME, "gptPromptTokenSafetyMargin", safetyMargin);
+        PluginConfig pluginConfig = PluginConfig.create(PLUGIN_NAME, jgitConfig, null);
+        Configuration config = new Configuration(null, null, pluginConfig, pluginConfig, "gpt@example.com", null);
+        return new ChatGptPromptBudget(config, changeSetData, change);
+    }
+
+    // Each file diff is given as its name followed by its estimated tokens, made of a single word of 4 bytes per token
+    private static Map<String, String> createFileDiffs(Object... filesAndTokens) {
+        Map<String, String> fileDiffs = new LinkedHashMap<>();
+        for (int i = 0; i < filesAndTokens.length; i += 2) {
+            fileDiffs.put((String) filesAndTokens[i], "x".repeat(4 * (int) filesAndTokens[i + 1]));
+        }
+        return fileDiffs;
+    }
+}
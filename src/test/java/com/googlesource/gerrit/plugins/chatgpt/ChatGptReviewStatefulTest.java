@@ -9,6 +9,8 @@ import com.google.gerrit.extensions.restapi.BinaryResult;
 import com.google.gerrit.extensions.restapi.RestApiException;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandler;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataPropertiesStorage;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.stateful.client.prompt.IChatGptPromptStateful;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptResponseContent;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.UriResourceLocatorStateful;
@@ -28,6 +30,9 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 
 import static com.googlesource.gerrit.plugins.chatgpt.listener.EventHandlerTask.SupportedEvents;
 import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.prompt.ChatGptPromptFactory.getChatGptPromptStateful;
@@ -66,7 +71,9 @@ public class ChatGptReviewStatefulTest extends ChatGptReviewTestBase {
                 .thenReturn(Modes.stateful.name());
 
         setupPluginData();
-        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(mockPluginDataPath, getGerritChange());
+        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(getGerritChange(),
+                new PluginDataStore(new PluginDataPropertiesStorage(mockPluginDataPath),
+                        Executors.newSingleThreadScheduledExecutor()));
         projectHandler = provider.getProjectScope();
         // Mock the pluginDataHandlerProvider to return the mocked project pluginDataHandler
         when(pluginDataHandlerProvider.getProjectScope()).thenReturn(projectHandler);
@@ -85,8 +92,11 @@ public class ChatGptReviewStatefulTest extends ChatGptReviewTestBase {
         super.setupMockRequests();
 
         // Mock the behavior of the Git Repository Manager
-        String repoJson = readTestFile("__files/stateful/gitProjectFiles.json");
-        when(gitRepoFiles.getGitRepoFiles(any(), any())).thenReturn(repoJson);
+        Map<String, String> repoFiles = readTestFileToClass("__files/stateful/gitProjectFiles.json", Map.class);
+        doAnswer(invocation -> {
+            repoFiles.forEach(invocation.<BiConsumer<String, String>>getArgument(2));
+            return null;
+        }).when(gitRepoFiles).forEachGitRepoFile(any(), any(), any());
 
         // Mock the behavior of the ChatGPT create-file request
         WireMock.stubFor(WireMock.post(WireMock.urlEqualTo(URI.create(config.getGptDomain()
@@ -104,6 +114,14 @@ public class ChatGptReviewStatefulTest extends ChatGptReviewTestBase {
                         .withHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString())
                         .withBody("{\"id\": " + CHAT_GPT_VECTOR_ID + "}")));
 
+        // Mock the behavior of the ChatGPT create-vector-store-file request
+        WireMock.stubFor(WireMock.post(WireMock.urlEqualTo(URI.create(config.getGptDomain()
+                        + UriResourceLocatorStateful.vectorStoreFilesUri(CHAT_GPT_VECTOR_ID)).getPath()))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HTTP_OK)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString())
+                        .withBody("{\"id\": " + CHAT_GPT_FILE_ID + "}")));
+
         // Mock the behavior of the ChatGPT create-assistant request
         WireMock.stubFor(WireMock.post(WireMock.urlEqualTo(URI.create(config.getGptDomain()
                         + UriResourceLocatorStateful.assistantCreateUri()).getPath()))
@@ -32,6 +32,8 @@ import static com.googlesource.gerrit.plugins.chatgpt.listener.EventHandlerTask.
 import static com.googlesource.gerrit.plugins.chatgpt.utils.TextUtils.joinWithNewLine;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Slf4j
@@ -132,6 +134,7 @@ public class ChatGptReviewStatelessTest extends ChatGptReviewTestBase {
         Assert.assertEquals(expectedSystemPromptReview, systemPrompt);
         String userPrompt = prompts.get(1).getAsJsonObject().get("content").getAsString();
         Assert.assertEquals(reviewUserPrompt, userPrompt);
+        Assert.assertTrue(gptRequestBody.getAsJsonObject("stream_options").get("include_usage").getAsBoolean());
 
         Gson gson = OutputFormat.JSON_COMPACT.newGson();
         Assert.assertEquals(gson.toJson(expectedResponseStreamed), gson.toJson(captor.getAllValues().get(0)));
@@ -163,6 +166,37 @@ public class ChatGptReviewStatelessTest extends ChatGptReviewTestBase {
         Assert.assertEquals(gson.toJson(gerritPatchSetReview), gson.toJson(captor.getAllValues().get(0)));
     }
 
+    @Test
+    public void patchSetReviewedAgainWithFileReviewMemo() throws Exception {
+        when(globalConfig.getBoolean(Mockito.eq("gptStreamOutput"), Mockito.anyBoolean()))
+                .thenReturn(false);
+        when(globalConfig.getBoolean(Mockito.eq("enabledVoting"), Mockito.anyBoolean()))
+                .thenReturn(true);
+        when(globalConfig.getBoolean(Mockito.eq("fileReviewMemoEnabled"), Mockito.anyBoolean()))
+                .thenReturn(true);
+        WireMock.stubFor(WireMock.post(WireMock.urlEqualTo(URI.create(config.getGptDomain()
+                        + UriResourceLocatorStateless.chatCompletionsUri()).getPath()))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HTTP_OK)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString())
+                        .withBodyFile("chatGptResponseReview.json")));
+
+        handleEventBasedOnType(SupportedEvents.PATCH_SET_CREATED);
+        // No file has changed since the first review, so all the replies are carried forward from the memo
+        handleEventBasedOnType(SupportedEvents.PATCH_SET_CREATED);
+
+        WireMock.verify(1, WireMock.postRequestedFor(WireMock.urlEqualTo(URI.create(config.getGptDomain()
+                + UriResourceLocatorStateless.chatCompletionsUri()).getPath())));
+        ArgumentCaptor<ReviewInput> captor = ArgumentCaptor.forClass(ReviewInput.class);
+        verify(revisionApiMock, times(2)).review(captor.capture());
+        ReviewInput firstReview = captor.getAllValues().get(0);
+        ReviewInput secondReview = captor.getAllValues().get(1);
+        Assert.assertNotNull(firstReview.comments);
+        // The carried forward replies are not posted again, but they still count for the vote
+        Assert.assertNull(secondReview.comments);
+        Assert.assertEquals(firstReview.labels, secondReview.labels);
+    }
+
     @Test
     public void patchSetDisableUserGroup() {
         when(globalConfig.getString(Mockito.eq("disabledGroups"), Mockito.anyString()))
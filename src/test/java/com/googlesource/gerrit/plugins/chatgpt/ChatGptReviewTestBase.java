@@ -1,6 +1,7 @@
 package com.googlesource.gerrit.plugins.chatgpt;
 
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.server.account.AccountCache;
 import com.google.gerrit.server.account.AccountState;
@@ -14,6 +15,7 @@ import com.google.gerrit.extensions.common.CommentInfo;
 import com.google.gerrit.extensions.common.GroupInfo;
 import com.google.gerrit.extensions.restapi.RestApiException;
 import com.google.gerrit.json.OutputFormat;
+import com.google.gerrit.metrics.DisabledMetricMaker;
 import com.google.gerrit.server.config.PluginConfig;
 import com.google.gerrit.server.data.AccountAttribute;
 import com.google.gerrit.server.data.PatchSetAttribute;
@@ -27,18 +29,27 @@ import com.google.inject.TypeLiteral;
 import com.google.inject.util.Providers;
 import com.googlesource.gerrit.plugins.chatgpt.config.ConfigCreator;
 import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.data.FileReviewMemo;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandler;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
+import com.googlesource.gerrit.plugins.chatgpt.data.ReviewCache;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.chatgpt.IChatGptClient;
 import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.gerrit.IGerritClientPatchSet;
 import com.googlesource.gerrit.plugins.chatgpt.listener.EventHandlerTask;
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
 import com.googlesource.gerrit.plugins.chatgpt.localization.Localizer;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptRateLimiter;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.AccountGroupsCache;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientComments;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientFacade;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientReview;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpClientWithRetry;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpRetryMetrics;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpTransport;
 import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptClientStateful;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptHttpClient;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.gerrit.GerritClientPatchSetStateful;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.git.GitRepoFiles;
 import com.googlesource.gerrit.plugins.chatgpt.mode.stateless.client.api.chatgpt.ChatGptClientStateless;
@@ -58,6 +69,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -66,6 +78,7 @@ import java.util.function.Consumer;
 import static com.google.gerrit.extensions.client.ChangeKind.REWORK;
 import static com.googlesource.gerrit.plugins.chatgpt.listener.EventHandlerTask.EVENT_CLASS_MAP;
 import static com.googlesource.gerrit.plugins.chatgpt.utils.GsonUtils.getGson;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -118,10 +131,17 @@ public class ChatGptReviewTestBase extends ChatGptTestBase {
     protected PluginConfig globalConfig;
     protected PluginConfig projectConfig;
     protected Configuration config;
+    // A cache for each test, so that no group membership is retained from one test to another
+    protected final AccountGroupsCache accountGroupsCache = new AccountGroupsCache();
+    // The parallel retrievals run on the calling thread, so that the tests stay deterministic
+    protected final RetrievalExecutor retrievalExecutor =
+            new RetrievalExecutor(MoreExecutors.newDirectExecutorService());
     protected ChangeSetData changeSetData;
     protected GerritClient gerritClient;
     protected PatchSetReviewer patchSetReviewer;
     protected ConfigCreator mockConfigCreator;
+    protected ChatGptRateLimiter chatGptRateLimiter = new ChatGptRateLimiter();
+    protected HttpTransport httpTransport = new HttpTransport();
     protected JsonObject gptRequestBody;
     protected String promptTagComments;
 
@@ -228,7 +248,7 @@ public class ChatGptReviewTestBase extends ChatGptTestBase {
 
     private void mockGerritChangeDetailsApiCall() throws RestApiException {
         ChangeInfo changeInfo = readTestFileToClass("__files/gerritPatchSetDetail.json", ChangeInfo.class);
-        when(changeApiMock.get()).thenReturn(changeInfo);
+        when(changeApiMock.get(any(EnumSet.class))).thenReturn(changeInfo);
     }
 
     private void mockGerritChangeCommentsApiCall() throws RestApiException {
@@ -314,6 +334,7 @@ public class ChatGptReviewTestBase extends ChatGptTestBase {
                     new GerritClientComments(
                             config,
                             accountCacheMock,
+                            accountGroupsCache,
                             changeSetData,
                             pluginDataHandlerProvider,
                             localizer
@@ -324,9 +345,12 @@ public class ChatGptReviewTestBase extends ChatGptTestBase {
                 gerritClient,
                 config,
                 changeSetData,
-                Providers.of(new GerritClientReview(config, accountCacheMock, pluginDataHandlerProvider, localizer)),
+                Providers.of(new GerritClientReview(config, accountCacheMock, accountGroupsCache,
+                        pluginDataHandlerProvider, localizer)),
                 getChatGptClient(),
-                localizer
+                localizer,
+                new ReviewCache(basePath),
+                new FileReviewMemo(pluginDataHandlerProvider)
             );
         mockConfigCreator = mock(ConfigCreator.class);
     }
@@ -389,15 +413,19 @@ public class ChatGptReviewTestBase extends ChatGptTestBase {
 
     private IChatGptClient getChatGptClient() {
         return switch (config.getGptMode()) {
-            case stateful -> new ChatGptClientStateful(config, gitRepoFiles, pluginDataHandlerProvider);
-            case stateless -> new ChatGptClientStateless(config);
+            case stateful -> new ChatGptClientStateful(config, gitRepoFiles, pluginDataHandlerProvider,
+                    chatGptRateLimiter, new ChatGptHttpClient(httpTransport));
+            case stateless -> new ChatGptClientStateless(config, chatGptRateLimiter,
+                    new HttpClientWithRetry(new HttpRetryMetrics(new DisabledMetricMaker()), httpTransport));
         };
     }
 
     private IGerritClientPatchSet getGerritClientPatchSet() {
         return switch (config.getGptMode()) {
-            case stateful -> new GerritClientPatchSetStateful(config, accountCacheMock);
-            case stateless -> new GerritClientPatchSetStateless(config, accountCacheMock);
+            case stateful -> new GerritClientPatchSetStateful(config, accountCacheMock, accountGroupsCache,
+                    retrievalExecutor);
+            case stateless -> new GerritClientPatchSetStateless(config, accountCacheMock, accountGroupsCache,
+                    retrievalExecutor);
         };
     }
 }
@@ -0,0 +1,99 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptRun;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptRunEventStream;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.api.chatgpt.ChatGptRunStepsResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChatGptRunEventStreamTest {
+    private ChatGptRunEventStream runEventStream;
+
+    @Before
+    public void setUp() {
+        runEventStream = new ChatGptRunEventStream();
+    }
+
+    @Test
+    public void testRunStatusFollowsRunEvents() {
+        processEvent("thread.created", "{\"id\": \"thread_1\", \"object\": \"thread\"}");
+        processEvent("thread.run.created", "{\"id\": \"run_1\", \"object\": \"thread.run\", \"status\": \"queued\"}");
+        assertEquals("queued", runEventStream.getRunResponse().getStatus());
+
+        processEvent("thread.run.in_progress", "{\"id\": \"run_1\", \"object\": \"thread.run\", " +
+                "\"status\": \"in_progress\"}");
+        assertEquals("in_progress", runEventStream.getRunResponse().getStatus());
+
+        processEvent("thread.run.completed", "{\"id\": \"run_1\", \"object\": \"thread.run\", " +
+                "\"status\": \"completed\", \"usage\": {\"prompt_tokens\": 10, \"completion_tokens\": 5, " +
+                "\"total_tokens\": 15}}");
+        runEventStream.processLine("event: done");
+        runEventStream.processLine("data: [DONE]");
+
+        assertEquals("run_1", runEventStream.getRunResponse().getId());
+        assertEquals(ChatGptRun.COMPLETED_STATUS, runEventStream.getRunResponse().getStatus());
+        assertEquals(15, runEventStream.getRunResponse().getUsage().getTotalTokens());
+    }
+
+    @Test
+    public void testCompletedStepsListedFromMostRecent() {
+        processEvent("thread.run.step.created", "{\"id\": \"step_1\", \"object\": \"thread.run.step\", " +
+                "\"status\": \"in_progress\"}");
+        processEvent("thread.run.step.delta", "{\"id\": \"step_1\", \"object\": \"thread.run.step.delta\"}");
+        processEvent("thread.run.step.completed", "{\"id\": \"step_1\", \"object\": \"thread.run.step\", " +
+                "\"status\": \"completed\"}");
+        processEvent("thread.run.step.completed", "{\"id\": \"step_2\", \"object\": \"thread.run.step\", " +
+                "\"status\": \"completed\", \"step_details\": {\"tool_calls\": [{\"id\": \"call_1\", " +
+                "\"type\": \"function\", \"function\": {\"arguments\": \"{}\"}}]}}");
+
+        List<ChatGptRunStepsResponse> completedSteps = runEventStream.getCompletedSteps();
+        assertEquals(2, completedSteps.size());
+        assertEquals("step_2", completedSteps.get(0).getId());
+        assertEquals("{}", completedSteps.get(0).getStepDetails().getToolCalls().get(0).getFunction().getArguments());
+        assertEquals("step_1", completedSteps.get(1).getId());
+        // Step events do not alter the run status
+        assertNull(runEventStream.getRunResponse());
+    }
+
+    @Test
+    public void testDataWithoutEventIgnored() {
+        runEventStream.processLine("data: {\"id\": \"run_1\", \"status\": \"completed\"}");
+        runEventStream.processLine("");
+        processEvent("thread.message.delta", "{\"id\": \"msg_1\"}");
+        processEvent("error", "{\"error\": {\"message\": \"Server error\"}}");
+
+        assertNull(runEventStream.getRunResponse());
+        assertTrue(runEventStream.getCompletedSteps().isEmpty());
+    }
+
+    @Test
+    public void testPollingIntervalBacksOff() {
+        List<Long> pollingIntervals = new ArrayList<>();
+        long pollingInterval = ChatGptRun.RUN_POLLING_INITIAL_INTERVAL;
+        for (int i = 0; i < 8; i++) {
+            pollingIntervals.add(pollingInterval);
+            pollingInterval = ChatGptRun.getNextPollingInterval(pollingInterval);
+        }
+
+        assertEquals(List.of(200L, 300L, 450L, 675L, 1012L, 1518L, 2000L, 2000L), pollingIntervals);
+    }
+
+    @Test
+    public void testPollingIntervalCappedAtMaximum() {
+        assertEquals(ChatGptRun.RUN_POLLING_MAX_INTERVAL,
+                ChatGptRun.getNextPollingInterval(ChatGptRun.RUN_POLLING_MAX_INTERVAL));
+    }
+
+    private void processEvent(String event, String data) {
+        runEventStream.processLine("event: " + event);
+        runEventStream.processLine("data: " + data);
+        runEventStream.processLine("");
+    }
+}
@@ -0,0 +1,91 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptStreamAssembler;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptToolCall;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChatGptStreamAssemblerTest {
+    private ChatGptStreamAssembler streamAssembler;
+
+    @Before
+    public void setUp() {
+        streamAssembler = new ChatGptStreamAssembler();
+    }
+
+    @Test
+    public void testArgumentsAssembledAcrossChunks() {
+        streamAssembler.processLine(toolCallChunk(0, "{\\\"replies\\\": ["));
+        streamAssembler.processLine(toolCallChunk(0, "{\\\"reply\\\": \\\"Fine\\\"}"));
+        streamAssembler.processLine(toolCallChunk(0, "]}"));
+        streamAssembler.processLine("data: [DONE]");
+
+        List<ChatGptToolCall> toolCalls = streamAssembler.getToolCalls();
+        assertEquals(1, toolCalls.size());
+        assertEquals(0, toolCalls.get(0).getIndex().intValue());
+        assertEquals("{\"replies\": [{\"reply\": \"Fine\"}]}", toolCalls.get(0).getFunction().getArguments());
+    }
+
+    @Test
+    public void testInterleavedToolCallsOrderedByIndex() {
+        streamAssembler.processLine(toolCallChunk(1, "{\\\"b\\\":"));
+        streamAssembler.processLine(toolCallChunk(0, "{\\\"a\\\":"));
+        streamAssembler.processLine(toolCallChunk(1, "2}"));
+        streamAssembler.processLine(toolCallChunk(0, "1}"));
+
+        List<ChatGptToolCall> toolCalls = streamAssembler.getToolCalls();
+        assertEquals(2, toolCalls.size());
+        assertEquals("{\"a\":1}", toolCalls.get(0).getFunction().getArguments());
+        assertEquals("{\"b\":2}", toolCalls.get(1).getFunction().getArguments());
+    }
+
+    @Test
+    public void testMissingIndexDefaultsToFirstToolCall() {
+        streamAssembler.processLine("data: {\"choices\": [{\"index\": 0, \"delta\": {\"tool_calls\": [{\"function\": " +
+                "{\"arguments\": \"{}\"}}]}}]}");
+
+        List<ChatGptToolCall> toolCalls = streamAssembler.getToolCalls();
+        assertEquals(1, toolCalls.size());
+        assertEquals(0, toolCalls.get(0).getIndex().intValue());
+        assertEquals("{}", toolCalls.get(0).getFunction().getArguments());
+    }
+
+    @Test
+    public void testNonDataLinesAndEmptyDeltasIgnored() {
+        streamAssembler.processLine("");
+        streamAssembler.processLine(": keep-alive");
+        streamAssembler.processLine("event: message");
+        streamAssembler.processLine("data: {\"choices\": [{\"index\": 0, \"delta\": {\"role\": \"assistant\"}}]}");
+        streamAssembler.processLine("data: {\"choices\": [{\"index\": 0, \"delta\": {}, \"finish_reason\": " +
+                "\"tool_calls\"}]}");
+        streamAssembler.processLine("data: {\"choices\": [{\"index\": 0, \"delta\": {\"tool_calls\": [{\"index\": 0, " +
+                "\"id\": \"call_1\", \"function\": {\"name\": \"format_replies\"}}]}}]}");
+        streamAssembler.processLine("data: [DONE]");
+
+        assertTrue(streamAssembler.getToolCalls().isEmpty());
+        assertNull(streamAssembler.getUsage());
+    }
+
+    @Test
+    public void testUsageFromLastChunk() {
+        streamAssembler.processLine(toolCallChunk(0, "{}"));
+        streamAssembler.processLine("data: {\"choices\": [], \"usage\": {\"prompt_tokens\": 120, " +
+                "\"completion_tokens\": 30, \"total_tokens\": 150}}");
+        streamAssembler.processLine("data: [DONE]");
+
+        assertEquals(150, streamAssembler.getUsage().getTotalTokens());
+        assertEquals(120, streamAssembler.getUsage().getPromptTokens());
+        assertEquals(1, streamAssembler.getToolCalls().size());
+    }
+
+    private String toolCallChunk(int index, String arguments) {
+        return "data: {\"choices\": [{\"index\": 0, \"delta\": {\"tool_calls\": [{\"index\": " + index +
+                ", \"function\": {\"arguments\": \"" + arguments + "\"}}]}}]}";
+    }
+}
@@ -0,0 +1,70 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.ChatGptTokenizer;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChatGptTokenizerTest {
+    private static final ChatGptTokenizer CL100K_TOKENIZER = ChatGptTokenizer.forModel("gpt-4-turbo");
+    private static final ChatGptTokenizer O200K_TOKENIZER = ChatGptTokenizer.forModel("gpt-4o-mini");
+    // Token counts returned by `tiktoken` for each encoding
+    private static final Map<String, Integer> CL100K_TIKTOKEN_COUNTS = Map.of(
+            "hello world", 2,
+            "Hello, world!", 4,
+            "tiktoken is great!", 6,
+            "2 + 2 = 4", 7,
+            "antidisestablishmentarianism", 6
+    );
+    private static final Map<String, Integer> O200K_TIKTOKEN_COUNTS = Map.of(
+            "hello world", 2,
+            "Hello, world!", 4,
+            "tiktoken is great!", 6
+    );
+
+    @Test
+    public void emptyText() {
+        assertEquals(0, CL100K_TOKENIZER.estimateTokens(null));
+        assertEquals(0, CL100K_TOKENIZER.estimateTokens(""));
+    }
+
+    @Test
+    public void estimatesCoverTheTiktokenCounts() {
+        assertEstimatesCover(CL100K_TOKENIZER, CL100K_TIKTOKEN_COUNTS);
+        assertEstimatesCover(O200K_TOKENIZER, O200K_TIKTOKEN_COUNTS);
+    }
+
+    @Test
+    public void estimatesStayWithinTwiceTheTiktokenCounts() {
+        assertEstimatesBounded(CL100K_TOKENIZER, CL100K_TIKTOKEN_COUNTS);
+        assertEstimatesBounded(O200K_TOKENIZER, O200K_TIKTOKEN_COUNTS);
+    }
+
+    @Test
+    public void encodingDependsOnTheModel() {
+        assertSame(O200K_TOKENIZER, ChatGptTokenizer.forModel("GPT-4o"));
+        assertSame(O200K_TOKENIZER, ChatGptTokenizer.forModel("o3-mini"));
+        assertSame(CL100K_TOKENIZER, ChatGptTokenizer.forModel("gpt-3.5-turbo"));
+        assertSame(CL100K_TOKENIZER, ChatGptTokenizer.forModel(null));
+    }
+
+    private static void assertEstimatesCover(ChatGptTokenizer tokenizer, Map<String, Integer> tiktokenCounts) {
+        for (Map.Entry<String, Integer> tiktokenCount : tiktokenCounts.entrySet()) {
+            int estimatedTokens = tokenizer.estimateTokens(tiktokenCount.getKey());
+            assertTrue(tiktokenCount.getKey() + ": " + estimatedTokens,
+                    estimatedTokens >= tiktokenCount.getValue());
+        }
+    }
+
+    private static void assertEstimatesBounded(ChatGptTokenizer tokenizer, Map<String, Integer> tiktokenCounts) {
+        for (Map.Entry<String, Integer> tiktokenCount : tiktokenCounts.entrySet()) {
+            int estimatedTokens = tokenizer.estimateTokens(tiktokenCount.getKey());
+            assertTrue(tiktokenCount.getKey() + ": " + estimatedTokens,
+                    estimatedTokens <= 2 * tiktokenCount.getValue());
+        }
+    }
+}
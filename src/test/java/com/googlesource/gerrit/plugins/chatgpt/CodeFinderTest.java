@@ -0,0 +1,169 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.code.CodeFinder;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.patch.code.DiffCodeIndex;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptReplyItem;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.gerrit.GerritCodeRange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.patch.diff.CharToLineIndex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CodeFinderTest {
+    private static final String[] CODE_TOKENS = {"a", "b", "ab", "x1", "(", ")", "{", "}", "[", "]", "<", ">", ";",
+            ",", "=", "+", "-", "*", "/", "%", "|", "&", "?", ":", ".", "...", " ", "  ", "\t", "\n", "\n+", "\n-"};
+    private static final String[] WHITESPACES = {"", " ", "  ", "\t", "\n"};
+
+    @Test
+    public void snippetWithDifferentSpacing() {
+        List<DiffCodeIndex> diffCodeIndexes = List.of(createDiffCodeIndex("int x = 0;\nint y = foo(a, b);\n", 10));
+
+        assertEquals(createRange(11, 11, 8, 17), findCommentedCode(diffCodeIndexes, "foo( a,b )", 11));
+        assertEquals(createRange(11, 11, 0, 17), findCommentedCode(diffCodeIndexes, "+int y=foo(a, b)", 11));
+        assertNull(findCommentedCode(diffCodeIndexes, "foo(a, c)", 11));
+    }
+
+    @Test
+    public void emptySnippetMatchesEveryPosition() {
+        List<DiffCodeIndex> diffCodeIndexes = List.of(createDiffCodeIndex("int x = 0;\nint y = 1;", 1));
+
+        for (String codeSnippet : List.of("", " \n\t", "...", "\n+ ")) {
+            assertEquals(createRange(1, 1, 0, 0), findCommentedCode(diffCodeIndexes, codeSnippet, 2));
+            assertEquals(findCommentedCodeWithRegex(diffCodeIndexes, codeSnippet, 2),
+                    findCommentedCode(diffCodeIndexes, codeSnippet, 2));
+        }
+    }
+
+    @Test
+    public void equivalentToWhitespaceTolerantRegex() {
+        Random random = new Random(2024);
+        for (int round = 0; round < 2000; round++) {
+            List<DiffCodeIndex> diffCodeIndexes = new ArrayList<>();
+            int firstLine = 1;
+            int diffCount = 1 + random.nextInt(3);
+            for (int i = 0; i < diffCount; i++) {
+                String diffCode = createCode(random, 1 + random.nextInt(40));
+                diffCodeIndexes.add(createDiffCodeIndex(diffCode, firstLine));
+                firstLine += diffCode.split("\n", -1).length;
+            }
+            String codeSnippet = random.nextBoolean()
+                    ? respaceSnippet(random, diffCodeIndexes.get(random.nextInt(diffCodeIndexes.size())).getDiffCode())
+                    : createCode(random, 1 + random.nextInt(4));
+            for (int commentedLine : new int[]{0, 1 + random.nextInt(firstLine), firstLine + 10}) {
+                assertEquals("Snippet: '" + codeSnippet + "'",
+                        findCommentedCodeWithRegex(diffCodeIndexes, codeSnippet, commentedLine),
+                        findCommentedCode(diffCodeIndexes, codeSnippet, commentedLine));
+            }
+        }
+    }
+
+    private static String createCode(Random random, int tokens) {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < tokens; i++) {
+            code.append(CODE_TOKENS[random.nextInt(CODE_TOKENS.length)]);
+        }
+        return code.toString();
+    }
+
+    // Returns a portion of the code with its non-printing chars changed, removed or added at random
+    private static String respaceSnippet(Random random, String diffCode) {
+        int start = random.nextInt(diffCode.length());
+        int end = start + 1 + random.nextInt(diffCode.length() - start);
+        StringBuilder codeSnippet = new StringBuilder();
+        for (char c : diffCode.substring(start, end).toCharArray()) {
+            if (Character.isWhitespace(c)) {
+                codeSnippet.append(WHITESPACES[random.nextInt(WHITESPACES.length)]);
+            }
+            else {
+                if (random.nextInt(8) == 0) {
+                    codeSnippet.append(WHITESPACES[random.nextInt(WHITESPACES.length)]);
+                }
+                codeSnippet.append(c);
+            }
+        }
+        return codeSnippet.toString();
+    }
+
+    private static DiffCodeIndex createDiffCodeIndex(String diffCode, int firstLine) {
+        return new DiffCodeIndex(diffCode, createCharToLineIndex(diffCode, firstLine));
+    }
+
+    private static CharToLineIndex createCharToLineIndex(String diffCode, int firstLine) {
+        CharToLineIndex charToLineIndex = new CharToLineIndex();
+        int line = firstLine;
+        charToLineIndex.put(0, line);
+        for (int i = 0; i < diffCode.length(); i++) {
+            if (diffCode.charAt(i) == '\n') {
+                charToLineIndex.put(i + 1, ++line);
+            }
+        }
+        return charToLineIndex;
+    }
+
+    private static GerritCodeRange createRange(int startLine, int endLine, int startCharacter, int endCharacter) {
+        return GerritCodeRange.builder()
+                .startLine(startLine)
+                .endLine(endLine)
+                .startCharacter(startCharacter)
+                .endCharacter(endCharacter)
+                .build();
+    }
+
+    private static GerritCodeRange findCommentedCode(List<DiffCodeIndex> diffCodeIndexes, String codeSnippet,
+            int commentedLine) {
+        ChatGptReplyItem replyItem = new ChatGptReplyItem();
+        replyItem.setCodeSnippet(codeSnippet);
+        return new CodeFinder(diffCodeIndexes).findCommentedCode(replyItem, commentedLine);
+    }
+
+    // Reference implementation that locates the snippet with the whitespace-tolerant regex built by the previous
+    // version of CodeFinder
+    private static GerritCodeRange findCommentedCodeWithRegex(List<DiffCodeIndex> diffCodeIndexes,
+            String codeSnippet, int commentedLine) {
+        String placeholder = "PLACEHOLDER";
+        String commentedCode = codeSnippet
+                .replaceAll("(?:^|\n)[+\\-]", "")
+                .replaceAll("\\.\\.\\.\\W*$", "")
+                .trim();
+        String commentedCodeRegex = Pattern.quote(commentedCode)
+                .replaceAll("\\s+", "\\\\E" + placeholder + "\\\\Q")
+                .replaceAll("([()\\[\\]{}<>:;,?&+\\-*/%|=])", "\\\\E" + placeholder + "\\\\$1" + placeholder + "\\\\Q")
+                .replaceAll("\\\\Q\\\\E", "")
+                .replaceAll("(?:" + placeholder + ")+", "\\\\s*")
+                .replaceAll("\\\\s\\*$", "");
+        Pattern commentedCodePattern = Pattern.compile(commentedCodeRegex);
+        GerritCodeRange closestCodeRange = null;
+        int firstLine = 1;
+        for (DiffCodeIndex diffCodeIndex : diffCodeIndexes) {
+            String diffCode = diffCodeIndex.getDiffCode();
+            CharToLineIndex charToLineIndex = createCharToLineIndex(diffCode, firstLine);
+            firstLine += diffCode.split("\n", -1).length;
+            Matcher codeMatcher = commentedCodePattern.matcher(diffCode);
+            while (codeMatcher.find()) {
+                int startLine = charToLineIndex.getFloorLine(codeMatcher.start());
+                int endLine = charToLineIndex.getFloorLine(codeMatcher.end());
+                int startCharacter = codeMatcher.start() - diffCode.substring(0, codeMatcher.start()).lastIndexOf("\n")
+                        - 1;
+                int endCharacter = codeMatcher.end() - diffCode.substring(0, codeMatcher.end()).lastIndexOf("\n") - 1;
+                if (startLine > endLine || startLine == endLine && startCharacter > endCharacter) continue;
+                GerritCodeRange currentCodeRange = createRange(startLine, endLine, startCharacter, endCharacter);
+                if (closestCodeRange == null || calcCodeDistance(currentCodeRange, commentedLine) <
+                        calcCodeDistance(closestCodeRange, commentedLine)) {
+                    closestCodeRange = currentCodeRange;
+                }
+            }
+        }
+        return closestCodeRange;
+    }
+
+    private static double calcCodeDistance(GerritCodeRange range, int fromLine) {
+        return Math.abs((range.endLine - range.startLine) / 2 - fromLine);
+    }
+}
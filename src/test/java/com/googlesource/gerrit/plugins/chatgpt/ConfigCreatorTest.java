@@ -0,0 +1,162 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.api.GerritApi;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.googlesource.gerrit.plugins.chatgpt.config.ConfigCreator;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataEmbeddedStorage;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataScope;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
+import com.googlesource.gerrit.plugins.chatgpt.listener.ProjectConfigListener;
+import org.eclipse.jgit.lib.Config;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static com.googlesource.gerrit.plugins.chatgpt.config.DynamicConfiguration.KEY_DYNAMIC_CONFIG;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConfigCreatorTest {
+    private static final String PLUGIN_NAME = "chatgpt-code-review-gerrit-plugin";
+    private static final String GERRIT_GPT_USERNAME = "gpt";
+    private static final Project.NameKey PROJECT_NAME = Project.NameKey.parse("myProject");
+    private static final Project.NameKey OTHER_PROJECT_NAME = Project.NameKey.parse("otherProject");
+    private static final Change.Key CHANGE_ID = Change.Key.parse("myChangeId");
+    private static final Change.Key OTHER_CHANGE_ID = Change.Key.parse("otherChangeId");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private PluginConfigFactory pluginConfigFactory;
+
+    @Mock
+    private AccountCache accountCache;
+
+    private PluginDataStore pluginDataStore;
+    private ConfigCreator configCreator;
+    private ProjectConfigListener projectConfigListener;
+
+    @Before
+    public void setUp() throws Exception {
+        Config globalConfig = new Config();
+        globalConfig.setString("plugin", PLUGIN_NAME, Configuration.KEY_GERRIT_USERNAME, GERRIT_GPT_USERNAME);
+        when(pluginConfigFactory.getFromGerritConfig(PLUGIN_NAME))
+                .thenReturn(PluginConfig.create(PLUGIN_NAME, globalConfig, null));
+        when(pluginConfigFactory.getFromProjectConfig(PROJECT_NAME, PLUGIN_NAME))
+                .thenReturn(PluginConfig.create(PLUGIN_NAME, new Config(), null));
+        Account account = Account.builder(Account.id(1000000), Instant.now()).build();
+        when(accountCache.getByUsername(GERRIT_GPT_USERNAME))
+                .thenReturn(Optional.of(AccountState.forAccount(account, Collections.emptyList())));
+        pluginDataStore = new PluginDataStore(new PluginDataEmbeddedStorage(tempFolder.getRoot().toPath(),
+                Duration.ofDays(1)), Executors.newSingleThreadScheduledExecutor());
+
+        Injector injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(PluginName.class).toInstance(PLUGIN_NAME);
+                bind(PluginConfigFactory.class).toInstance(pluginConfigFactory);
+                bind(AccountCache.class).toInstance(accountCache);
+                bind(OneOffRequestContext.class).toInstance(mock(OneOffRequestContext.class));
+                bind(GerritApi.class).toInstance(mock(GerritApi.class));
+                bind(PluginDataStore.class).toInstance(pluginDataStore);
+            }
+        });
+        configCreator = injector.getInstance(ConfigCreator.class);
+        projectConfigListener = injector.getInstance(ProjectConfigListener.class);
+    }
+
+    @After
+    public void tearDown() {
+        pluginDataStore.stop();
+    }
+
+    @Test
+    public void configurationsAreCached() throws Exception {
+        setDynamicConfig(CHANGE_ID, Map.of("gptModel", "gpt-4o-mini"));
+
+        Configuration projectConfiguration = configCreator.createConfig(PROJECT_NAME, OTHER_CHANGE_ID);
+        Configuration dynamicConfiguration = configCreator.createConfig(PROJECT_NAME, CHANGE_ID);
+
+        assertSame(projectConfiguration, configCreator.createConfig(PROJECT_NAME, OTHER_CHANGE_ID));
+        assertSame(dynamicConfiguration, configCreator.createConfig(PROJECT_NAME, CHANGE_ID));
+        assertEquals("gpt-4o-mini", dynamicConfiguration.getGptModel());
+        verify(pluginConfigFactory, times(1)).getFromProjectConfig(PROJECT_NAME, PLUGIN_NAME);
+    }
+
+    @Test
+    public void projectConfigUpdateEvictsProjectAndDynamicConfigurations() throws Exception {
+        when(pluginConfigFactory.getFromProjectConfig(OTHER_PROJECT_NAME, PLUGIN_NAME))
+                .thenReturn(PluginConfig.create(PLUGIN_NAME, new Config(), null));
+        setDynamicConfig(CHANGE_ID, Map.of("gptModel", "gpt-4o-mini"));
+        Configuration projectConfiguration = configCreator.createConfig(PROJECT_NAME, OTHER_CHANGE_ID);
+        Configuration dynamicConfiguration = configCreator.createConfig(PROJECT_NAME, CHANGE_ID);
+        Configuration otherProjectConfiguration = configCreator.createConfig(OTHER_PROJECT_NAME, OTHER_CHANGE_ID);
+
+        projectConfigListener.onGitReferenceUpdated(createRefUpdatedEvent(PROJECT_NAME, RefNames.REFS_CONFIG));
+
+        assertNotSame(projectConfiguration, configCreator.createConfig(PROJECT_NAME, OTHER_CHANGE_ID));
+        assertNotSame(dynamicConfiguration, configCreator.createConfig(PROJECT_NAME, CHANGE_ID));
+        verify(pluginConfigFactory, times(2)).getFromProjectConfig(PROJECT_NAME, PLUGIN_NAME);
+        // The configurations of the other projects are kept
+        assertSame(otherProjectConfiguration, configCreator.createConfig(OTHER_PROJECT_NAME, OTHER_CHANGE_ID));
+        verify(pluginConfigFactory, times(1)).getFromProjectConfig(OTHER_PROJECT_NAME, PLUGIN_NAME);
+    }
+
+    @Test
+    public void otherRefUpdatesKeepConfigurations() throws Exception {
+        setDynamicConfig(CHANGE_ID, Map.of("gptModel", "gpt-4o-mini"));
+        Configuration projectConfiguration = configCreator.createConfig(PROJECT_NAME, OTHER_CHANGE_ID);
+        Configuration dynamicConfiguration = configCreator.createConfig(PROJECT_NAME, CHANGE_ID);
+
+        projectConfigListener.onGitReferenceUpdated(createRefUpdatedEvent(PROJECT_NAME, "refs/heads/master"));
+
+        assertSame(projectConfiguration, configCreator.createConfig(PROJECT_NAME, OTHER_CHANGE_ID));
+        assertSame(dynamicConfiguration, configCreator.createConfig(PROJECT_NAME, CHANGE_ID));
+        verify(pluginConfigFactory, times(1)).getFromProjectConfig(PROJECT_NAME, PLUGIN_NAME);
+    }
+
+    private void setDynamicConfig(Change.Key changeKey, Map<String, String> dynamicConfig) {
+        pluginDataStore.getHandler(PluginDataScope.change(changeKey.toString()))
+                .setJsonValue(KEY_DYNAMIC_CONFIG, dynamicConfig);
+    }
+
+    private GitReferenceUpdatedListener.Event createRefUpdatedEvent(Project.NameKey projectName, String refName) {
+        GitReferenceUpdatedListener.Event event = mock(GitReferenceUpdatedListener.Event.class);
+        when(event.getProjectName()).thenReturn(projectName.get());
+        when(event.getRefName()).thenReturn(refName);
+        return event;
+    }
+}
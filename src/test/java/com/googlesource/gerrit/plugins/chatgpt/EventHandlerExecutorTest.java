@@ -0,0 +1,128 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.googlesource.gerrit.plugins.chatgpt.listener.EventHandlerExecutor;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventHandlerExecutorTest {
+    private static final String PLUGIN_NAME = "chatgpt-code-review-gerrit-plugin";
+    private static final long EVENT_DURATION_MS = 10000;
+    private static final long INTERRUPTED_EVENT_DURATION_MS = 200;
+
+    @Mock
+    private WorkQueue workQueue;
+
+    @Mock
+    private PluginConfigFactory pluginConfigFactory;
+
+    private final Config globalConfig = new Config();
+    private final List<ScheduledThreadPoolExecutor> lanes = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        when(pluginConfigFactory.getFromGerritConfig(PLUGIN_NAME))
+                .thenReturn(PluginConfig.create(PLUGIN_NAME, globalConfig, null));
+        when(workQueue.createQueue(anyInt(), anyString())).thenAnswer(invocation -> {
+            ScheduledThreadPoolExecutor lane = new ScheduledThreadPoolExecutor(invocation.getArgument(0));
+            lanes.add(lane);
+            return lane;
+        });
+    }
+
+    @Test
+    public void testLanesShutDownOnStop() {
+        EventHandlerExecutor eventHandlerExecutor = createEventHandlerExecutor();
+        eventHandlerExecutor.start();
+
+        eventHandlerExecutor.stop();
+
+        // One lane for each of Patch Set created, comment added and change merged events
+        assertEquals(3, lanes.size());
+        for (ScheduledThreadPoolExecutor lane : lanes) {
+            assertTrue(lane.isShutdown());
+        }
+    }
+
+    @Test
+    public void testStopWaitsForInterruptedEvents() throws InterruptedException {
+        EventHandlerExecutor eventHandlerExecutor = createEventHandlerExecutor();
+        CountDownLatch startedEvent = new CountDownLatch(1);
+        AtomicBoolean completedEvent = new AtomicBoolean();
+        lanes.get(0).execute(() -> {
+            startedEvent.countDown();
+            try {
+                Thread.sleep(EVENT_DURATION_MS);
+            }
+            catch (InterruptedException e) {
+                // The interrupted event takes a while to complete, e.g. to write its plugin data
+                sleepUninterrupted(INTERRUPTED_EVENT_DURATION_MS);
+                completedEvent.set(true);
+            }
+        });
+        assertTrue(startedEvent.await(10, TimeUnit.SECONDS));
+
+        eventHandlerExecutor.stop();
+
+        assertTrue(completedEvent.get());
+        for (ScheduledThreadPoolExecutor lane : lanes) {
+            assertTrue(lane.isTerminated());
+        }
+    }
+
+    @Test
+    public void testVirtualModeFallsBackToWorkQueue() {
+        assumeTrue("Virtual threads supported by the running JVM", Runtime.version().feature() < 21);
+        globalConfig.setString("plugin", PLUGIN_NAME, "executorMode", "virtual");
+
+        EventHandlerExecutor eventHandlerExecutor = createEventHandlerExecutor();
+
+        // Without virtual threads, the three lanes are still created from the Work Queue
+        assertEquals(3, lanes.size());
+        eventHandlerExecutor.stop();
+    }
+
+    private static void sleepUninterrupted(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private EventHandlerExecutor createEventHandlerExecutor() {
+        return Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(WorkQueue.class).toInstance(workQueue);
+                bind(PluginConfigFactory.class).toInstance(pluginConfigFactory);
+                bind(String.class).annotatedWith(PluginName.class).toInstance(PLUGIN_NAME);
+            }
+        }).getInstance(EventHandlerExecutor.class);
+    }
+}
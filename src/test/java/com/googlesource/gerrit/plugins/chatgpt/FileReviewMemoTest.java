@@ -0,0 +1,130 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.config.PluginConfig;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.data.FileReviewMemo;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataEmbeddedStorage;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptReplyItem;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileReviewMemoTest {
+    private static final String PLUGIN_NAME = "chatgpt-code-review-gerrit-plugin";
+    private static final Project.NameKey PROJECT_NAME = Project.NameKey.parse("myProject");
+    private static final String FILENAME = "test_file.py";
+    private static final String OTHER_FILENAME = "other_file.py";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Configuration config;
+    private ChangeSetData changeSetData;
+    private PluginDataHandlerProvider pluginDataHandlerProvider;
+
+    @Before
+    public void setUp() {
+        PluginConfig pluginConfig = PluginConfig.create(PLUGIN_NAME, new Config(), null);
+        config = new Configuration(null, null, pluginConfig, pluginConfig, "gpt@example.com", null);
+        changeSetData = new ChangeSetData(1000000, -1, 1);
+        PluginDataStore pluginDataStore = new PluginDataStore(new PluginDataEmbeddedStorage(
+                tempFolder.getRoot().toPath(), Duration.ofDays(1)), Executors.newSingleThreadScheduledExecutor());
+        GerritChange change = new GerritChange(PROJECT_NAME, BranchNameKey.create(PROJECT_NAME, "myBranchName"),
+                Change.Key.parse("myChangeId"));
+        pluginDataHandlerProvider = new PluginDataHandlerProvider(change, pluginDataStore);
+    }
+
+    @Test
+    public void testFileKeyDependsOnDiffAndDirectives() {
+        FileReviewMemo fileReviewMemo = new FileReviewMemo(pluginDataHandlerProvider);
+        String fileKey = fileReviewMemo.getFileKey(config, changeSetData, FILENAME, "diff");
+
+        assertEquals(fileKey, fileReviewMemo.getFileKey(config, changeSetData, FILENAME, "diff"));
+        assertNotEquals(fileKey, fileReviewMemo.getFileKey(config, changeSetData, FILENAME, "changed diff"));
+        assertNotEquals(fileKey, fileReviewMemo.getFileKey(config, changeSetData, OTHER_FILENAME, "diff"));
+        changeSetData.getDirectives().add("Be concise");
+        assertNotEquals(fileKey, fileReviewMemo.getFileKey(config, changeSetData, FILENAME, "diff"));
+    }
+
+    @Test
+    public void testRepliesMemoizedForReviewedFiles() {
+        FileReviewMemo fileReviewMemo = new FileReviewMemo(pluginDataHandlerProvider);
+        Map<String, String> fileKeys = Map.of(FILENAME, "key1", OTHER_FILENAME, "key2");
+        fileReviewMemo.update(changeSetData, fileKeys, Set.of(FILENAME, OTHER_FILENAME), List.of(
+                createReply(FILENAME, "Fix the loop", -1),
+                createReply(OTHER_FILENAME, "Looks fine", 1)));
+
+        // A new memo instance, as in the next event, reads the replies back from the change data
+        FileReviewMemo nextFileReviewMemo = new FileReviewMemo(pluginDataHandlerProvider);
+        List<ChatGptReplyItem> replies = nextFileReviewMemo.getReplies(FILENAME, "key1").orElseThrow();
+        assertEquals(1, replies.size());
+        assertEquals("Fix the loop", replies.get(0).getReply());
+        assertEquals(-1, replies.get(0).getScore().intValue());
+        assertFalse(nextFileReviewMemo.getReplies(FILENAME, "changedKey").isPresent());
+    }
+
+    @Test
+    public void testMemoizedFilesRetainedAndRemovedFilesDropped() {
+        FileReviewMemo fileReviewMemo = new FileReviewMemo(pluginDataHandlerProvider);
+        fileReviewMemo.update(changeSetData, Map.of(FILENAME, "key1", OTHER_FILENAME, "key2"),
+                Set.of(FILENAME, OTHER_FILENAME), List.of(createReply(FILENAME, "Fix the loop", -1)));
+
+        // The first file is carried forward, while the second one is no longer part of the Patch Set
+        fileReviewMemo.update(changeSetData, Map.of(FILENAME, "key1"), Set.of(), List.of());
+
+        FileReviewMemo nextFileReviewMemo = new FileReviewMemo(pluginDataHandlerProvider);
+        assertEquals(1, nextFileReviewMemo.getReplies(FILENAME, "key1").orElseThrow().size());
+        assertFalse(nextFileReviewMemo.getReplies(OTHER_FILENAME, "key2").isPresent());
+    }
+
+    @Test
+    public void testSupersededReviewNotMemoized() {
+        FileReviewMemo fileReviewMemo = new FileReviewMemo(pluginDataHandlerProvider);
+        changeSetData.setSupersededReview(true);
+
+        fileReviewMemo.update(changeSetData, Map.of(FILENAME, "key1"), Set.of(FILENAME),
+                List.of(createReply(FILENAME, "Fix the loop", -1)));
+
+        assertFalse(fileReviewMemo.getReplies(FILENAME, "key1").isPresent());
+        assertFalse(new FileReviewMemo(pluginDataHandlerProvider).getReplies(FILENAME, "key1").isPresent());
+    }
+
+    @Test
+    public void testUnreviewedFileNotMemoized() {
+        FileReviewMemo fileReviewMemo = new FileReviewMemo(pluginDataHandlerProvider);
+        // The second file was left out of the review (e.g. by the token budget), so it has to be reviewed next time
+        fileReviewMemo.update(changeSetData, Map.of(FILENAME, "key1", OTHER_FILENAME, "key2"), Set.of(FILENAME),
+                List.of(createReply(FILENAME, "Fix the loop", -1), createReply(OTHER_FILENAME, "Stale", 0)));
+
+        assertTrue(fileReviewMemo.getReplies(FILENAME, "key1").isPresent());
+        assertFalse(fileReviewMemo.getReplies(OTHER_FILENAME, "key2").isPresent());
+    }
+
+    private ChatGptReplyItem createReply(String filename, String reply, int score) {
+        ChatGptReplyItem replyItem = new ChatGptReplyItem();
+        replyItem.setFilename(filename);
+        replyItem.setReply(reply);
+        replyItem.setScore(score);
+        return replyItem;
+    }
+}
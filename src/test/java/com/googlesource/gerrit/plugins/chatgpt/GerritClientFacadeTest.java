@@ -0,0 +1,196 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.api.GerritApi;
+import com.google.gerrit.extensions.api.changes.ChangeApi;
+import com.google.gerrit.extensions.api.changes.ChangeApi.CommentsRequest;
+import com.google.gerrit.extensions.api.changes.Changes;
+import com.google.gerrit.extensions.client.ListChangesOption;
+import com.google.gerrit.extensions.common.ChangeInfo;
+import com.google.gerrit.extensions.common.CommentInfo;
+import com.google.gerrit.extensions.restapi.ResourceNotFoundException;
+import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.interfaces.mode.common.client.api.gerrit.IGerritClientPatchSet;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChangeSnapshot;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientComments;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientFacade;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChangeSnapshot.PHASE_CHANGE;
+import static com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChangeSnapshot.PHASE_COMMENTS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GerritClientFacadeTest {
+    private static final String PLUGIN_NAME = "chatgpt-code-review-gerrit-plugin";
+    private static final Project.NameKey PROJECT_NAME = Project.NameKey.parse("myProject");
+    private static final BranchNameKey BRANCH_NAME = BranchNameKey.create(PROJECT_NAME, "myBranchName");
+    private static final Change.Key CHANGE_ID = Change.Key.parse("myChangeId");
+    private static final Change.Key OTHER_CHANGE_ID = Change.Key.parse("otherChangeId");
+    private static final long CHANGE_DELAY_MS = 50;
+    private static final long COMMENTS_DELAY_MS = 20;
+
+    @Mock
+    private OneOffRequestContext requestContext;
+
+    @Mock
+    private ManualRequestContext manualRequestContext;
+
+    @Mock
+    private GerritApi gerritApi;
+
+    @Mock
+    private Changes changes;
+
+    @Mock
+    private ChangeApi changeApi;
+
+    @Mock
+    private CommentsRequest commentsRequest;
+
+    @Mock
+    private GerritClientComments gerritClientComments;
+
+    @Mock
+    private IGerritClientPatchSet gerritClientPatchSet;
+
+    private final ChangeInfo changeInfo = new ChangeInfo();
+    private final Map<String, List<CommentInfo>> comments = Map.of();
+
+    private GerritClientFacade gerritClientFacade;
+
+    @Before
+    public void setUp() throws RestApiException {
+        PluginConfig pluginConfig = PluginConfig.create(PLUGIN_NAME, new Config(), null);
+        Configuration config = new Configuration(requestContext, gerritApi, pluginConfig, pluginConfig,
+                "gpt@example.com", null);
+        when(requestContext.openAs(null)).thenReturn(manualRequestContext);
+        when(gerritApi.changes()).thenReturn(changes);
+        when(changes.id(PROJECT_NAME.get(), BRANCH_NAME.shortName(), CHANGE_ID.get())).thenReturn(changeApi);
+        when(changeApi.commentsRequest()).thenReturn(commentsRequest);
+        changeInfo.workInProgress = true;
+        gerritClientFacade = new GerritClientFacade(config, new ChangeSetData(1000000, -1, 1), gerritClientComments,
+                gerritClientPatchSet);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void snapshotIsSharedByTheClients() throws RestApiException {
+        when(changeApi.get(any(EnumSet.class))).thenReturn(changeInfo);
+        when(commentsRequest.get()).thenReturn(comments);
+        GerritChange change = createChange(CHANGE_ID);
+
+        assertTrue(gerritClientFacade.isWorkInProgress(change));
+        gerritClientFacade.retrievePatchSetInfo(change);
+        gerritClientFacade.getClientData(change);
+
+        // The change and its comments are retrieved once for all the clients
+        ArgumentCaptor<EnumSet<ListChangesOption>> options = ArgumentCaptor.forClass(EnumSet.class);
+        verify(changeApi, times(1)).get(options.capture());
+        verify(commentsRequest, times(1)).get();
+        assertTrue(options.getValue().containsAll(EnumSet.of(ListChangesOption.ALL_REVISIONS,
+                ListChangesOption.DETAILED_LABELS, ListChangesOption.DETAILED_ACCOUNTS, ListChangesOption.MESSAGES)));
+        assertFalse(options.getValue().contains(ListChangesOption.SKIP_MERGEABLE));
+        GerritChangeSnapshot snapshot = captureCommentsSnapshot();
+        assertSame(snapshot, captureRevisionBaseSnapshot());
+        assertSame(changeInfo, snapshot.getChangeInfo());
+        assertSame(comments, snapshot.getComments());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void snapshotIsReloadedForAnotherChange() throws RestApiException {
+        ChangeApi otherChangeApi = mock(ChangeApi.class);
+        CommentsRequest otherCommentsRequest = mock(CommentsRequest.class);
+        when(changes.id(PROJECT_NAME.get(), BRANCH_NAME.shortName(), OTHER_CHANGE_ID.get()))
+                .thenReturn(otherChangeApi);
+        when(otherChangeApi.commentsRequest()).thenReturn(otherCommentsRequest);
+        when(changeApi.get(any(EnumSet.class))).thenReturn(changeInfo);
+        when(otherChangeApi.get(any(EnumSet.class))).thenReturn(new ChangeInfo());
+
+        assertTrue(gerritClientFacade.isWorkInProgress(createChange(CHANGE_ID)));
+        gerritClientFacade.retrievePatchSetInfo(createChange(OTHER_CHANGE_ID));
+
+        verify(changeApi, times(1)).get(any(EnumSet.class));
+        verify(otherChangeApi, times(1)).get(any(EnumSet.class));
+        assertEquals(OTHER_CHANGE_ID, captureCommentsSnapshot().getChange().getChangeKey());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void phaseTimingsAreRecorded() throws RestApiException {
+        when(changeApi.get(any(EnumSet.class))).thenAnswer(invocation -> {
+            Thread.sleep(CHANGE_DELAY_MS);
+            return changeInfo;
+        });
+        when(commentsRequest.get()).thenAnswer(invocation -> {
+            Thread.sleep(COMMENTS_DELAY_MS);
+            return comments;
+        });
+
+        gerritClientFacade.retrievePatchSetInfo(createChange(CHANGE_ID));
+
+        Map<String, Long> phaseTimings = captureCommentsSnapshot().getPhaseTimings();
+        assertEquals(List.of(PHASE_CHANGE, PHASE_COMMENTS), new ArrayList<>(phaseTimings.keySet()));
+        assertTrue(phaseTimings.get(PHASE_CHANGE) >= CHANGE_DELAY_MS);
+        assertTrue(phaseTimings.get(PHASE_COMMENTS) >= COMMENTS_DELAY_MS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void failedPhaseIsTimedAndLeftEmpty() throws RestApiException {
+        when(changeApi.get(any(EnumSet.class))).thenThrow(new ResourceNotFoundException("Change not available"));
+        when(commentsRequest.get()).thenReturn(comments);
+
+        gerritClientFacade.retrievePatchSetInfo(createChange(CHANGE_ID));
+
+        GerritChangeSnapshot snapshot = captureCommentsSnapshot();
+        assertNull(snapshot.getChangeInfo());
+        assertSame(comments, snapshot.getComments());
+        assertEquals(List.of(PHASE_CHANGE, PHASE_COMMENTS), new ArrayList<>(snapshot.getPhaseTimings().keySet()));
+    }
+
+    private GerritChange createChange(Change.Key changeKey) {
+        return new GerritChange(PROJECT_NAME, BRANCH_NAME, changeKey);
+    }
+
+    private GerritChangeSnapshot captureCommentsSnapshot() {
+        ArgumentCaptor<GerritChangeSnapshot> snapshot = ArgumentCaptor.forClass(GerritChangeSnapshot.class);
+        verify(gerritClientComments).retrieveAllComments(snapshot.capture());
+        return snapshot.getValue();
+    }
+
+    private GerritChangeSnapshot captureRevisionBaseSnapshot() {
+        ArgumentCaptor<GerritChangeSnapshot> snapshot = ArgumentCaptor.forClass(GerritChangeSnapshot.class);
+        verify(gerritClientPatchSet).retrieveRevisionBase(snapshot.capture());
+        return snapshot.getValue();
+    }
+}
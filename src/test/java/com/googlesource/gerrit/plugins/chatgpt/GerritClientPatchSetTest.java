@@ -0,0 +1,130 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.extensions.api.GerritApi;
+import com.google.gerrit.extensions.api.changes.ChangeApi;
+import com.google.gerrit.extensions.api.changes.Changes;
+import com.google.gerrit.extensions.api.changes.FileApi;
+import com.google.gerrit.extensions.api.changes.RevisionApi;
+import com.google.gerrit.extensions.common.DiffInfo;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.AccountGroupsCache;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritClientPatchSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GerritClientPatchSetTest {
+    private static final int FILE_COUNT = 12;
+
+    @Mock
+    private Configuration config;
+    @Mock
+    private AccountCache accountCache;
+    @Mock
+    private GerritApi gerritApi;
+    @Mock
+    private Changes changes;
+    @Mock
+    private ChangeApi changeApi;
+    @Mock
+    private RevisionApi revisionApi;
+
+    private RetrievalExecutor retrievalExecutor;
+    private GerritChange change;
+
+    @Before
+    public void setUp() throws Exception {
+        retrievalExecutor = new RetrievalExecutor(Executors.newFixedThreadPool(4));
+        change = new GerritChange(
+                Project.nameKey("myProject"),
+                BranchNameKey.create("myProject", "myBranchName"),
+                Change.key("myChangeId"));
+        when(config.getEnabledFileExtensions()).thenReturn(Set.of(".java"));
+        when(config.getFileDiffRetrievalParallelism()).thenReturn(4);
+        when(config.openRequestContext()).thenAnswer(invocation -> mock(ManualRequestContext.class));
+        when(config.getGerritApi()).thenReturn(gerritApi);
+        when(gerritApi.changes()).thenReturn(changes);
+        when(changes.id(anyString(), anyString(), anyString())).thenReturn(changeApi);
+        when(changeApi.current()).thenReturn(revisionApi);
+    }
+
+    @After
+    public void tearDown() {
+        retrievalExecutor.stop();
+    }
+
+    @Test
+    public void fileDiffsKeepTheOrderOfTheFilesUnderParallelRetrieval() throws Exception {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            String filename = "dir/File" + i + ".java";
+            files.add(filename);
+            // The earlier files take longer to retrieve, so that the retrievals complete in reverse order
+            long delay = (FILE_COUNT - i) * 5L;
+            FileApi fileApi = mock(FileApi.class);
+            when(fileApi.diff(anyInt())).thenAnswer(invocation -> {
+                Thread.sleep(delay);
+                return createDiffInfo(filename);
+            });
+            when(revisionApi.file(filename)).thenReturn(fileApi);
+        }
+        TestGerritClientPatchSet gerritClientPatchSet =
+                new TestGerritClientPatchSet(config, accountCache, new AccountGroupsCache(), retrievalExecutor);
+
+        gerritClientPatchSet.retrieveFileDiff(change, files);
+
+        assertEquals(files, new ArrayList<>(gerritClientPatchSet.getFileDiffsJson().keySet()));
+        for (String filename : files) {
+            assertEquals(gerritClientPatchSet.getFileDiffsJson().get(filename),
+                    gerritClientPatchSet.getDiffs().get(files.indexOf(filename)));
+        }
+    }
+
+    private static DiffInfo createDiffInfo(String filename) {
+        DiffInfo diffInfo = new DiffInfo();
+        diffInfo.metaB = new DiffInfo.FileMeta();
+        diffInfo.metaB.name = filename;
+        diffInfo.metaB.contentType = "text/x-java";
+        DiffInfo.ContentEntry contentEntry = new DiffInfo.ContentEntry();
+        contentEntry.b = List.of("class " + filename.replaceAll(".*/|\\.java", "") + " {}");
+        diffInfo.content = List.of(contentEntry);
+        return diffInfo;
+    }
+
+    private static class TestGerritClientPatchSet extends GerritClientPatchSet {
+        TestGerritClientPatchSet(Configuration config, AccountCache accountCache,
+                AccountGroupsCache accountGroupsCache, RetrievalExecutor retrievalExecutor) {
+            super(config, accountCache, accountGroupsCache, retrievalExecutor);
+        }
+
+        void retrieveFileDiff(GerritChange change, List<String> files) throws Exception {
+            retrieveFileDiff(change, files, 0);
+        }
+
+        List<String> getDiffs() {
+            return diffs;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.github.rholder.retry.Attempt;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpRetryPolicy;
+import org.junit.Test;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HttpRetryPolicyTest {
+    private static final long BASE_WAIT_MILLIS = 1000;
+    private static final long MAX_WAIT_MILLIS = 60000;
+
+    @Test
+    public void testRetryableStatusCodes() {
+        for (int statusCode : List.of(408, 409, 429, 500, 502, 503, 504)) {
+            assertTrue("Status " + statusCode, HttpRetryPolicy.isRetryable(statusCode));
+        }
+    }
+
+    @Test
+    public void testNonRetryableStatusCodes() {
+        for (int statusCode : List.of(200, 400, 401, 403, 404, 422, 501)) {
+            assertFalse("Status " + statusCode, HttpRetryPolicy.isRetryable(statusCode));
+        }
+    }
+
+    @Test
+    public void testRetryAfterMillisHeader() {
+        assertEquals(1500, computeSleepTime(Map.of("retry-after-ms", "1500.7")));
+    }
+
+    @Test
+    public void testRetryAfterMillisHeaderPrecedesRetryAfterHeader() {
+        assertEquals(250, computeSleepTime(Map.of("retry-after-ms", "250", "retry-after", "5")));
+    }
+
+    @Test
+    public void testRetryAfterSecondsHeader() {
+        assertEquals(7000, computeSleepTime(Map.of("retry-after", "7")));
+    }
+
+    @Test
+    public void testRetryAfterDateHeader() {
+        String retryDate = ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30)
+                .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        long sleepTime = computeSleepTime(Map.of("retry-after", retryDate));
+        // The date has a resolution of one second
+        assertTrue("Sleep time " + sleepTime, sleepTime > 28000 && sleepTime <= 30000);
+    }
+
+    @Test
+    public void testRetryAfterPastDateHeader() {
+        String retryDate = ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1)
+                .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        assertEquals(0, computeSleepTime(Map.of("retry-after", retryDate)));
+    }
+
+    @Test
+    public void testRateLimitResetHeaders() {
+        assertEquals(20, computeSleepTime(Map.of("x-ratelimit-reset-requests", "20ms")));
+        assertEquals(1500, computeSleepTime(Map.of("x-ratelimit-reset-tokens", "1.5s")));
+        // The longest of the two reset durations is waited for
+        assertEquals(6000, computeSleepTime(Map.of(
+                "x-ratelimit-reset-requests", "1s",
+                "x-ratelimit-reset-tokens", "6s")));
+    }
+
+    @Test
+    public void testRateLimitResetCompositeDuration() {
+        assertEquals(20500, computeSleepTime(Map.of("x-ratelimit-reset-tokens", "0m20.5s")));
+        assertEquals(1500, computeSleepTime(Map.of("x-ratelimit-reset-tokens", "1s500ms")));
+    }
+
+    @Test
+    public void testServerWaitCappedAtMaximum() {
+        assertEquals(MAX_WAIT_MILLIS, computeSleepTime(Map.of("retry-after", "3600")));
+        assertEquals(MAX_WAIT_MILLIS, computeSleepTime(Map.of("x-ratelimit-reset-tokens", "6m0s")));
+    }
+
+    @Test
+    public void testInvalidHeadersFallBackToJitter() {
+        long sleepTime = computeSleepTime(Map.of(
+                "retry-after-ms", "soon",
+                "retry-after", "tomorrow",
+                "x-ratelimit-reset-tokens", "later"));
+        assertJitterWait(sleepTime, BASE_WAIT_MILLIS * 3);
+    }
+
+    @Test
+    public void testDecorrelatedJitterWithoutHeaders() {
+        HttpRetryPolicy retryPolicy = new HttpRetryPolicy();
+        long previousWait = BASE_WAIT_MILLIS;
+        for (int i = 0; i < 20; i++) {
+            long sleepTime = retryPolicy.computeSleepTime(new ResultAttempt(new TestResponse(503, Map.of())));
+            assertJitterWait(sleepTime, Math.min(MAX_WAIT_MILLIS, previousWait * 3));
+            previousWait = sleepTime;
+        }
+    }
+
+    @Test
+    public void testJitterOnException() {
+        long sleepTime = new HttpRetryPolicy().computeSleepTime(new ExceptionAttempt(new IOException("reset")));
+        assertJitterWait(sleepTime, BASE_WAIT_MILLIS * 3);
+    }
+
+    private long computeSleepTime(Map<String, String> headers) {
+        return new HttpRetryPolicy().computeSleepTime(new ResultAttempt(new TestResponse(429, headers)));
+    }
+
+    private void assertJitterWait(long sleepTime, long upperBound) {
+        assertTrue("Sleep time " + sleepTime, sleepTime >= BASE_WAIT_MILLIS && sleepTime <= upperBound);
+    }
+
+    private static class ResultAttempt implements Attempt<HttpResponse<String>> {
+        private final HttpResponse<String> response;
+
+        ResultAttempt(HttpResponse<String> response) {
+            this.response = response;
+        }
+
+        @Override
+        public HttpResponse<String> get() {
+            return response;
+        }
+
+        @Override
+        public boolean hasResult() {
+            return true;
+        }
+
+        @Override
+        public boolean hasException() {
+            return false;
+        }
+
+        @Override
+        public HttpResponse<String> getResult() {
+            return response;
+        }
+
+        @Override
+        public Throwable getExceptionCause() {
+            throw new IllegalStateException("Attempt has a result");
+        }
+
+        @Override
+        public long getAttemptNumber() {
+            return 1;
+        }
+
+        @Override
+        public long getDelaySinceFirstAttempt() {
+            return 0;
+        }
+    }
+
+    private static class ExceptionAttempt implements Attempt<HttpResponse<String>> {
+        private final Throwable cause;
+
+        ExceptionAttempt(Throwable cause) {
+            this.cause = cause;
+        }
+
+        @Override
+        public HttpResponse<String> get() throws ExecutionException {
+            throw new ExecutionException(cause);
+        }
+
+        @Override
+        public boolean hasResult() {
+            return false;
+        }
+
+        @Override
+        public boolean hasException() {
+            return true;
+        }
+
+        @Override
+        public HttpResponse<String> getResult() {
+            throw new IllegalStateException("Attempt has an exception");
+        }
+
+        @Override
+        public Throwable getExceptionCause() {
+            return cause;
+        }
+
+        @Override
+        public long getAttemptNumber() {
+            return 1;
+        }
+
+        @Override
+        public long getDelaySinceFirstAttempt() {
+            return 0;
+        }
+    }
+
+    private static class TestResponse implements HttpResponse<String> {
+        private final int statusCode;
+        private final HttpHeaders headers;
+
+        TestResponse(int statusCode, Map<String, String> headers) {
+            this.statusCode = statusCode;
+            this.headers = HttpHeaders.of(headers.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, header -> List.of(header.getValue()))),
+                    (name, value) -> true);
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(URI.create("http://localhost")).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public String body() {
+            return "";
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create("http://localhost");
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.listener.PatchSetReviewCoalescer;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatchSetReviewCoalescerTest {
+    private static final String FULL_CHANGE_ID = "myProject~myBranchName~myChangeId";
+    private static final String OTHER_FULL_CHANGE_ID = "myProject~myBranchName~otherChangeId";
+
+    private ExecutorService executor;
+    private PatchSetReviewCoalescer coalescer;
+    private List<String> executedReviews;
+    private CountDownLatch blocker;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        coalescer = new PatchSetReviewCoalescer(executor);
+        executedReviews = new CopyOnWriteArrayList<>();
+        blocker = new CountDownLatch(1);
+        // Hold the single thread of the executor so that the reviews submitted by the test stay queued
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSupersededReviewIsSkipped() throws InterruptedException {
+        ChangeSetData firstReview = createChangeSetData();
+        ChangeSetData secondReview = createChangeSetData();
+        coalescer.submit(FULL_CHANGE_ID, firstReview, () -> executedReviews.add("first"));
+        coalescer.submit(FULL_CHANGE_ID, secondReview, () -> executedReviews.add("second"));
+
+        awaitQueuedReviews();
+
+        assertTrue(firstReview.getSupersededReview());
+        assertFalse(secondReview.getSupersededReview());
+        assertEquals(List.of("second"), executedReviews);
+        assertFalse(coalescer.hasPendingReview(FULL_CHANGE_ID));
+    }
+
+    @Test
+    public void testReviewsOfDifferentChangesAreNotCoalesced() throws InterruptedException {
+        ChangeSetData firstReview = createChangeSetData();
+        ChangeSetData secondReview = createChangeSetData();
+        coalescer.submit(FULL_CHANGE_ID, firstReview, () -> executedReviews.add("first"));
+        coalescer.submit(OTHER_FULL_CHANGE_ID, secondReview, () -> executedReviews.add("second"));
+
+        awaitQueuedReviews();
+
+        assertFalse(firstReview.getSupersededReview());
+        assertFalse(secondReview.getSupersededReview());
+        assertEquals(List.of("first", "second"), executedReviews);
+    }
+
+    @Test
+    public void testReviewInProgressIsFlaggedAsSuperseded() throws InterruptedException {
+        CountDownLatch firstReviewStarted = new CountDownLatch(1);
+        CountDownLatch firstReviewReleased = new CountDownLatch(1);
+        ChangeSetData firstReview = createChangeSetData();
+        ChangeSetData secondReview = createChangeSetData();
+        coalescer.submit(FULL_CHANGE_ID, firstReview, () -> {
+            firstReviewStarted.countDown();
+            try {
+                firstReviewReleased.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executedReviews.add("first");
+        });
+        blocker.countDown();
+        assertTrue(firstReviewStarted.await(5, TimeUnit.SECONDS));
+
+        coalescer.submit(FULL_CHANGE_ID, secondReview, () -> executedReviews.add("second"));
+        // The review in progress completes, but it is flagged so that its results are not posted
+        assertTrue(firstReview.getSupersededReview());
+        firstReviewReleased.countDown();
+
+        awaitQueuedReviews();
+
+        assertEquals(List.of("first", "second"), executedReviews);
+        assertFalse(secondReview.getSupersededReview());
+    }
+
+    private void awaitQueuedReviews() throws InterruptedException {
+        blocker.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private ChangeSetData createChangeSetData() {
+        return new ChangeSetData(1000000, -1, 1);
+    }
+}
@@ -0,0 +1,215 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataEmbeddedStorage;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandler;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataScope;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static com.googlesource.gerrit.plugins.chatgpt.data.PluginDataEmbeddedStorage.STORAGE_FILENAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PluginDataEmbeddedStorageTest {
+    private static final Duration CHANGE_TTL = Duration.ofDays(1);
+    private static final PluginDataScope CHANGE_SCOPE = PluginDataScope.change("myChangeId");
+    private static final PluginDataScope PROJECT_SCOPE = PluginDataScope.project("myProject");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void valuesSurviveReopening() {
+        PluginDataEmbeddedStorage storage = openStorage();
+        storage.store(CHANGE_SCOPE, Map.of("key", "value"));
+        storage.store(PROJECT_SCOPE, Map.of("projectKey", "projectValue"));
+        storage.delete(PROJECT_SCOPE);
+        storage.close();
+
+        storage = openStorage();
+        assertEquals(Map.of("key", "value"), storage.load(CHANGE_SCOPE));
+        assertEquals(Map.of(), storage.load(PROJECT_SCOPE));
+        storage.close();
+    }
+
+    @Test
+    public void expiredScopesArePurged() {
+        PluginDataEmbeddedStorage storage = openStorage();
+        storage.store(CHANGE_SCOPE, Map.of("key", "value"));
+        storage.store(PROJECT_SCOPE, Map.of("projectKey", "projectValue"));
+        storage.expire(CHANGE_SCOPE);
+
+        assertEquals(List.of(), storage.purgeExpired(Instant.now()));
+        // The expiry is kept by the later updates of the scope and across reopening
+        storage.store(CHANGE_SCOPE, Map.of("key", "newValue"));
+        storage.close();
+        storage = openStorage();
+        assertEquals(List.of(CHANGE_SCOPE), storage.purgeExpired(Instant.now().plus(CHANGE_TTL).plusSeconds(1)));
+
+        assertEquals(Map.of(), storage.load(CHANGE_SCOPE));
+        assertEquals(Map.of("projectKey", "projectValue"), storage.load(PROJECT_SCOPE));
+        storage.close();
+    }
+
+    @Test
+    public void clearedExpiryIsNotPurged() {
+        PluginDataEmbeddedStorage storage = openStorage();
+        storage.store(CHANGE_SCOPE, Map.of("key", "value"));
+        storage.expire(CHANGE_SCOPE);
+        storage.clearExpiry(CHANGE_SCOPE);
+        storage.close();
+
+        storage = openStorage();
+        assertEquals(List.of(), storage.purgeExpired(Instant.now().plus(CHANGE_TTL).plusSeconds(1)));
+        assertEquals(Map.of("key", "value"), storage.load(CHANGE_SCOPE));
+        storage.close();
+    }
+
+    @Test
+    public void bufferedChangesAreStoredBeforeExpiring() {
+        PluginDataEmbeddedStorage storage = openStorage();
+        PluginDataStore pluginDataStore = new PluginDataStore(storage, Executors.newSingleThreadScheduledExecutor());
+        PluginDataHandler handler = pluginDataStore.getHandler(CHANGE_SCOPE);
+        handler.setValue("key", "value");
+
+        // The value is still held by the write-behind when the Change is closed
+        pluginDataStore.expireChangeScope("myChangeId");
+        assertEquals(Map.of("key", "value"), storage.load(CHANGE_SCOPE));
+        assertEquals(List.of(CHANGE_SCOPE), storage.purgeExpired(Instant.now().plus(CHANGE_TTL).plusSeconds(1)));
+        pluginDataStore.stop();
+    }
+
+    @Test
+    public void restoredChangeIsNotPurged() {
+        PluginDataEmbeddedStorage storage = openStorage();
+        PluginDataStore pluginDataStore = new PluginDataStore(storage, Executors.newSingleThreadScheduledExecutor());
+        pluginDataStore.getHandler(CHANGE_SCOPE).setValue("key", "value");
+        pluginDataStore.expireChangeScope("myChangeId");
+
+        pluginDataStore.restoreChangeScope("myChangeId");
+
+        assertEquals(List.of(), storage.purgeExpired(Instant.now().plus(CHANGE_TTL).plusSeconds(1)));
+        assertEquals(Map.of("key", "value"), storage.load(CHANGE_SCOPE));
+        pluginDataStore.stop();
+    }
+
+    @Test
+    public void supersededRecordsAreCompacted() throws IOException {
+        PluginDataEmbeddedStorage storage = openStorage();
+        String largeValue = "x".repeat(100 * 1024);
+        for (int i = 0; i < 30; i++) {
+            storage.store(CHANGE_SCOPE, Map.of("key", largeValue + i));
+        }
+        storage.store(PROJECT_SCOPE, Map.of("projectKey", "projectValue"));
+
+        // The log is compacted past 1 MB instead of holding the 30 superseded copies of the large value
+        assertTrue(Files.size(getStorageFile()) < 15 * largeValue.length());
+        storage.close();
+        storage = openStorage();
+        assertEquals(Map.of("key", largeValue + 29), storage.load(CHANGE_SCOPE));
+        assertEquals(Map.of("projectKey", "projectValue"), storage.load(PROJECT_SCOPE));
+        storage.close();
+    }
+
+    @Test
+    public void truncatedTailIsDiscarded() throws IOException {
+        PluginDataEmbeddedStorage storage = openStorage();
+        storage.store(CHANGE_SCOPE, Map.of("key", "value"));
+        storage.close();
+        long validSize = Files.size(getStorageFile());
+        // A record interrupted after its header and part of its content
+        byte[] record = getRecordContent(PROJECT_SCOPE, "{}");
+        appendToStorageFile(ByteBuffer.allocate(Integer.BYTES + 10).putInt(record.length).put(record, 0, 10));
+
+        storage = openStorage();
+        assertEquals(Map.of("key", "value"), storage.load(CHANGE_SCOPE));
+        assertEquals(validSize, Files.size(getStorageFile()));
+        // The storage keeps working after the recovery
+        storage.store(PROJECT_SCOPE, Map.of("projectKey", "projectValue"));
+        storage.close();
+        storage = openStorage();
+        assertEquals(Map.of("projectKey", "projectValue"), storage.load(PROJECT_SCOPE));
+        storage.close();
+    }
+
+    @Test
+    public void invalidTrailingRecordIsDiscarded() throws IOException {
+        PluginDataEmbeddedStorage storage = openStorage();
+        storage.store(CHANGE_SCOPE, Map.of("key", "value"));
+        storage.close();
+        long validSize = Files.size(getStorageFile());
+        appendToStorageFile(createRecord(new byte[8]));
+
+        storage = openStorage();
+        assertEquals(Map.of("key", "value"), storage.load(CHANGE_SCOPE));
+        assertEquals(validSize, Files.size(getStorageFile()));
+        storage.close();
+    }
+
+    @Test
+    public void invalidRecordFollowedByValidOnesIsSkipped() throws IOException {
+        PluginDataEmbeddedStorage storage = openStorage();
+        storage.store(CHANGE_SCOPE, Map.of("key", "value"));
+        storage.close();
+        appendToStorageFile(createRecord("not a record".getBytes(StandardCharsets.UTF_8)));
+        appendToStorageFile(createRecord(getRecordContent(PROJECT_SCOPE, "{\"projectKey\":\"projectValue\"}")));
+        long size = Files.size(getStorageFile());
+
+        storage = openStorage();
+        assertEquals(Map.of("key", "value"), storage.load(CHANGE_SCOPE));
+        assertEquals(Map.of("projectKey", "projectValue"), storage.load(PROJECT_SCOPE));
+        assertEquals(size, Files.size(getStorageFile()));
+        storage.close();
+    }
+
+    @Test
+    public void invalidRecordLengthFailsLoudly() throws IOException {
+        PluginDataEmbeddedStorage storage = openStorage();
+        storage.store(CHANGE_SCOPE, Map.of("key", "value"));
+        storage.close();
+        appendToStorageFile(ByteBuffer.allocate(Integer.BYTES).putInt(-1));
+
+        assertThrows(RuntimeException.class, this::openStorage);
+    }
+
+    private PluginDataEmbeddedStorage openStorage() {
+        return new PluginDataEmbeddedStorage(tempFolder.getRoot().toPath(), CHANGE_TTL);
+    }
+
+    private Path getStorageFile() {
+        return tempFolder.getRoot().toPath().resolve(STORAGE_FILENAME);
+    }
+
+    private byte[] getRecordContent(PluginDataScope scope, String values) {
+        return ("{\"scope\":\"" + scope.getKey() + "\",\"values\":" + values + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer createRecord(byte[] content) {
+        return ByteBuffer.allocate(Integer.BYTES + content.length).putInt(content.length).put(content);
+    }
+
+    private void appendToStorageFile(ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(getStorageFile(), StandardOpenOption.APPEND)) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
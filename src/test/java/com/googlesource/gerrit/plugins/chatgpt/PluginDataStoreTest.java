@@ -0,0 +1,121 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandler;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataScope;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
+import com.googlesource.gerrit.plugins.chatgpt.interfaces.data.IPluginDataStorage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class PluginDataStoreTest {
+    private static final PluginDataScope SCOPE = PluginDataScope.change("myChangeId");
+    private static final int EVICTING_HANDLER_COUNT = 5000;
+
+    private TestStorage storage;
+    private PluginDataStore pluginDataStore;
+
+    @Before
+    public void setUp() {
+        storage = new TestStorage();
+        pluginDataStore = new PluginDataStore(storage, Executors.newSingleThreadScheduledExecutor());
+    }
+
+    @After
+    public void tearDown() {
+        pluginDataStore.stop();
+    }
+
+    @Test
+    public void failedFlushIsRetried() throws Exception {
+        PluginDataHandler handler = pluginDataStore.getHandler(SCOPE);
+        handler.setValue("key", "value");
+        storage.failingStores.set(1);
+
+        pluginDataStore.flush();
+        assertNull(storage.data.get(SCOPE));
+
+        // The handler is flushed again by the retry scheduled after the failure
+        waitForStore();
+        assertEquals(Map.of("key", "value"), storage.data.get(SCOPE));
+    }
+
+    @Test
+    public void evictedHandlerForwardsToCurrentHandler() {
+        PluginDataHandler evictedHandler = pluginDataStore.getHandler(SCOPE);
+        evictedHandler.setValue("key", "old value");
+        for (int i = 0; i < EVICTING_HANDLER_COUNT; i++) {
+            pluginDataStore.getHandler(PluginDataScope.change("otherChangeId" + i));
+        }
+        // The data of the evicted handler has been stored on eviction and is loaded by the new handler
+        PluginDataHandler currentHandler = pluginDataStore.getHandler(SCOPE);
+        assertNotSame(evictedHandler, currentHandler);
+        assertEquals("old value", currentHandler.getValue("key"));
+
+        currentHandler.setValue("key", "new value");
+        assertEquals("new value", evictedHandler.getValue("key"));
+        evictedHandler.setValue("otherKey", "other value");
+        pluginDataStore.flush();
+
+        // The evicted handler does not overwrite the data stored by the current one
+        assertEquals(Map.of("key", "new value", "otherKey", "other value"), storage.data.get(SCOPE));
+    }
+
+    private void waitForStore() throws InterruptedException {
+        for (int i = 0; i < 100 && storage.data.get(SCOPE) == null; i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static class TestStorage implements IPluginDataStorage {
+        private final Map<PluginDataScope, Map<String, String>> data = new ConcurrentHashMap<>();
+        private final AtomicInteger failingStores = new AtomicInteger();
+
+        @Override
+        public Map<String, String> load(PluginDataScope scope) {
+            return data.getOrDefault(scope, Map.of());
+        }
+
+        @Override
+        public void store(PluginDataScope scope, Map<String, String> values) {
+            if (failingStores.getAndDecrement() > 0) {
+                throw new RuntimeException("Storage not available");
+            }
+            data.put(scope, new HashMap<>(values));
+        }
+
+        @Override
+        public void delete(PluginDataScope scope) {
+            data.remove(scope);
+        }
+
+        @Override
+        public void expire(PluginDataScope scope) {
+        }
+
+        @Override
+        public void clearExpiry(PluginDataScope scope) {
+        }
+
+        @Override
+        public List<PluginDataScope> purgeExpired(Instant now) {
+            return List.of();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -4,9 +4,17 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.when;
 
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
 
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataEmbeddedStorage;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandler;
 import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataPropertiesStorage;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataScope;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,10 +22,13 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PluginDataTest extends ChatGptTestBase {
+    private PluginDataStore pluginDataStore;
 
     @Before
     public void setUp() {
         setupPluginData();
+        pluginDataStore = new PluginDataStore(new PluginDataPropertiesStorage(mockPluginDataPath),
+                Executors.newSingleThreadScheduledExecutor());
 
         // Mock the PluginData annotation global behavior
         when(mockPluginDataPath.resolve("global.data")).thenReturn(realPluginDataPath);
@@ -25,7 +36,7 @@ public class PluginDataTest extends ChatGptTestBase {
 
     @Test
     public void testValueSetAndGet() {
-        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(mockPluginDataPath, getGerritChange());
+        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(getGerritChange(), pluginDataStore);
         PluginDataHandler globalHandler = provider.getGlobalScope();
         PluginDataHandler projectHandler = provider.getProjectScope();
 
@@ -43,7 +54,7 @@ public class PluginDataTest extends ChatGptTestBase {
 
     @Test
     public void testRemoveValue() {
-        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(mockPluginDataPath, getGerritChange());
+        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(getGerritChange(), pluginDataStore);
         PluginDataHandler handler = provider.getGlobalScope();
 
         String key = "testKey";
@@ -63,10 +74,54 @@ public class PluginDataTest extends ChatGptTestBase {
         // Ensure the file doesn't exist before creating the handler
         Files.deleteIfExists(realPluginDataPath);
 
-        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(mockPluginDataPath, getGerritChange());
+        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(getGerritChange(), pluginDataStore);
         provider.getGlobalScope();
 
         // The constructor should create the file if it doesn't exist
         assertTrue("The config file should exist after initializing the handler.", Files.exists(realPluginDataPath));
     }
+
+    @Test
+    public void testValuePersistedOnStop() {
+        PluginDataHandlerProvider provider = new PluginDataHandlerProvider(getGerritChange(), pluginDataStore);
+        PluginDataHandler handler = provider.getGlobalScope();
+
+        String key = "testKey";
+        String value = "testValue";
+
+        handler.setValue(key, value);
+        // The same handler is returned for the same scope
+        assertSame("The handler should be cached per scope.", handler, provider.getGlobalScope());
+
+        // Stopping the store flushes the pending changes to disk
+        pluginDataStore.stop();
+
+        PluginDataHandlerProvider reloadedProvider = new PluginDataHandlerProvider(getGerritChange(),
+                new PluginDataStore(new PluginDataPropertiesStorage(mockPluginDataPath),
+                        Executors.newSingleThreadScheduledExecutor()));
+        assertEquals("The value should be read from the flushed file.", value,
+                reloadedProvider.getGlobalScope().getValue(key));
+    }
+
+    @Test
+    public void testEmbeddedStorageMigration() throws Exception {
+        Path dataPath = tempFolder.getRoot().toPath();
+        Files.writeString(dataPath.resolve("global.data"), "testKey=testValue\n");
+
+        // The legacy files are migrated to the single storage file when it is first opened
+        PluginDataEmbeddedStorage storage = new PluginDataEmbeddedStorage(dataPath, Duration.ofDays(1));
+        assertFalse("The legacy file should be removed after the migration.",
+                Files.exists(dataPath.resolve("global.data")));
+        assertEquals("The migrated value should be available.", "testValue",
+                storage.load(PluginDataScope.global()).get("testKey"));
+
+        storage.store(PluginDataScope.change(CHANGE_ID.toString()), Map.of("changeKey", "changeValue"));
+        storage.close();
+
+        // The values are read back when the storage file is reopened
+        PluginDataEmbeddedStorage reopenedStorage = new PluginDataEmbeddedStorage(dataPath, Duration.ofDays(1));
+        assertEquals("The stored value should be read from the storage file.", "changeValue",
+                reopenedStorage.load(PluginDataScope.change(CHANGE_ID.toString())).get("changeKey"));
+        reopenedStorage.close();
+    }
 }
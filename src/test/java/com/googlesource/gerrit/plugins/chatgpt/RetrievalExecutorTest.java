@@ -0,0 +1,106 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.listener.RetrievalExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetrievalExecutorTest {
+    private static final int POOL_SIZE = 4;
+
+    private ExecutorService executor;
+    private RetrievalExecutor retrievalExecutor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(POOL_SIZE);
+        retrievalExecutor = new RetrievalExecutor(executor);
+    }
+
+    @After
+    public void tearDown() {
+        retrievalExecutor.stop();
+    }
+
+    @Test
+    public void resultsKeepTheOrderOfTheTasks() throws Exception {
+        // The file diffs complete in random order, as the earlier ones take longer on average
+        Random random = new Random(42);
+        List<Callable<String>> retrievals = new ArrayList<>();
+        List<String> expectedDiffs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String filename = "dir/file" + i + ".java";
+            int delay = random.nextInt(Math.max(1, 20 - i / 2));
+            retrievals.add(() -> {
+                Thread.sleep(delay);
+                return "diff of " + filename;
+            });
+            expectedDiffs.add("diff of " + filename);
+        }
+
+        assertEquals(expectedDiffs, retrievalExecutor.invokeInOrder(retrievals, POOL_SIZE));
+    }
+
+    @Test
+    public void parallelismBoundsTheTasksInProgress() throws Exception {
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maxInProgress = new AtomicInteger();
+        List<Callable<Integer>> retrievals = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            retrievals.add(() -> {
+                maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                inProgress.decrementAndGet();
+                return index;
+            });
+        }
+
+        List<Integer> results = retrievalExecutor.invokeInOrder(retrievals, 2);
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, (int) results.get(i));
+        }
+        assertTrue(maxInProgress.get() <= 2);
+    }
+
+    @Test
+    public void failureOfATaskIsRethrown() throws Exception {
+        List<Callable<String>> retrievals = List.of(
+                () -> "diff of file1",
+                () -> {
+                    throw new IOException("Diff not found");
+                },
+                () -> "diff of file3"
+        );
+
+        try {
+            retrievalExecutor.invokeInOrder(retrievals, POOL_SIZE);
+            fail("Failure of the retrieval not rethrown");
+        }
+        catch (IOException e) {
+            assertEquals("Diff not found", e.getMessage());
+        }
+    }
+
+    @Test
+    public void stopShutsDownThePool() {
+        retrievalExecutor.stop();
+
+        assertTrue(executor.isShutdown());
+    }
+}
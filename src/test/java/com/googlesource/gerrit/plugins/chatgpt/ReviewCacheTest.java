@@ -0,0 +1,135 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.server.config.PluginConfig;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.data.ReviewCache;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.api.chatgpt.ChatGptResponseContent;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReviewCacheTest {
+    private static final String PLUGIN_NAME = "chatgpt-code-review-gerrit-plugin";
+    private static final int TTL_HOURS = 2;
+    private static final int MAX_ENTRIES = 2;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Configuration config;
+    private ReviewCache reviewCache;
+    private Path cacheDir;
+
+    @Before
+    public void setUp() {
+        Config globalConfig = new Config();
+        globalConfig.setInt("plugin", PLUGIN_NAME, "reviewCacheTtlHours", TTL_HOURS);
+        globalConfig.setInt("plugin", PLUGIN_NAME, "reviewCacheMaxEntries", MAX_ENTRIES);
+        config = new Configuration(null, null, PluginConfig.create(PLUGIN_NAME, globalConfig, null),
+                PluginConfig.create(PLUGIN_NAME, new Config(), null), "gpt@example.com", null);
+        Path pluginDataPath = tempFolder.getRoot().toPath();
+        reviewCache = new ReviewCache(pluginDataPath);
+        cacheDir = pluginDataPath.resolve("review-cache");
+    }
+
+    @Test
+    public void testEntryRetrieved() {
+        reviewCache.put(config, "key1", createResponseContent("review 1"));
+
+        assertEquals("review 1", reviewCache.get(config, "key1").orElseThrow().getMessageContent());
+        assertFalse(reviewCache.get(config, "key2").isPresent());
+    }
+
+    @Test
+    public void testExpiredEntryRemovedOnRetrieval() throws IOException {
+        reviewCache.put(config, "key1", createResponseContent("review 1"));
+        setLastAccess("key1", Duration.ofHours(TTL_HOURS + 1));
+
+        assertFalse(reviewCache.get(config, "key1").isPresent());
+        assertFalse(Files.exists(getEntryPath("key1")));
+    }
+
+    @Test
+    public void testEntryWithinTtlRetrieved() throws IOException {
+        reviewCache.put(config, "key1", createResponseContent("review 1"));
+        setLastAccess("key1", Duration.ofHours(TTL_HOURS - 1));
+
+        assertTrue(reviewCache.get(config, "key1").isPresent());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryEvicted() throws IOException {
+        reviewCache.put(config, "key1", createResponseContent("review 1"));
+        reviewCache.put(config, "key2", createResponseContent("review 2"));
+        setLastAccess("key1", Duration.ofMinutes(10));
+        setLastAccess("key2", Duration.ofMinutes(5));
+        // The hit refreshes the last access of the first entry, so the second becomes the least recently used
+        assertTrue(reviewCache.get(config, "key1").isPresent());
+
+        reviewCache.put(config, "key3", createResponseContent("review 3"));
+
+        assertTrue(Files.exists(getEntryPath("key1")));
+        assertFalse(Files.exists(getEntryPath("key2")));
+        assertTrue(Files.exists(getEntryPath("key3")));
+    }
+
+    @Test
+    public void testRewrittenEntryNotCountedTwice() {
+        reviewCache.put(config, "key1", createResponseContent("review 1"));
+        reviewCache.put(config, "key2", createResponseContent("review 2"));
+        reviewCache.put(config, "key2", createResponseContent("review 2 updated"));
+
+        assertTrue(Files.exists(getEntryPath("key1")));
+        assertEquals("review 2 updated", reviewCache.get(config, "key2").orElseThrow().getMessageContent());
+    }
+
+    @Test
+    public void testExpiredEntriesEvictedWhenOverCapacity() throws IOException {
+        reviewCache.put(config, "key1", createResponseContent("review 1"));
+        reviewCache.put(config, "key2", createResponseContent("review 2"));
+        setLastAccess("key1", Duration.ofHours(TTL_HOURS + 1));
+
+        reviewCache.put(config, "key3", createResponseContent("review 3"));
+
+        assertFalse(Files.exists(getEntryPath("key1")));
+        assertTrue(Files.exists(getEntryPath("key2")));
+        assertTrue(Files.exists(getEntryPath("key3")));
+    }
+
+    @Test
+    public void testDirectoryNotScannedWithinCapacity() throws IOException {
+        reviewCache.put(config, "key1", createResponseContent("review 1"));
+        setLastAccess("key1", Duration.ofHours(TTL_HOURS + 1));
+
+        reviewCache.put(config, "key2", createResponseContent("review 2"));
+
+        // Below the maximum number of entries, the expired entries are left until the next periodic scan
+        assertTrue(Files.exists(getEntryPath("key1")));
+        assertFalse(reviewCache.get(config, "key1").isPresent());
+    }
+
+    private void setLastAccess(String key, Duration age) throws IOException {
+        Files.setLastModifiedTime(getEntryPath(key), FileTime.from(Instant.now().minus(age)));
+    }
+
+    private Path getEntryPath(String key) {
+        return cacheDir.resolve(key + ".json");
+    }
+
+    private ChatGptResponseContent createResponseContent(String messageContent) {
+        return new ChatGptResponseContent(messageContent);
+    }
+}
@@ -0,0 +1,91 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.chatgpt.TokenBucket;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TokenBucketTest {
+    private static final long LIMIT_PER_MINUTE = 60;
+    private static final long NANOS_PER_UNIT = TimeUnit.SECONDS.toNanos(1);
+
+    private long now;
+    private TokenBucket tokenBucket;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        tokenBucket = new TokenBucket(() -> now);
+        tokenBucket.setLimitPerMinute(LIMIT_PER_MINUTE);
+    }
+
+    @Test
+    public void testConsumeWithinLimit() {
+        assertEquals(0, tokenBucket.consume(40));
+        assertEquals(0, tokenBucket.consume(20));
+    }
+
+    @Test
+    public void testConsumeOverLimitWaitsForRefill() {
+        tokenBucket.consume(LIMIT_PER_MINUTE);
+
+        // With a limit of 60 per minute, one unit is replenished every second
+        assertEquals(10 * NANOS_PER_UNIT, tokenBucket.consume(10));
+        // The next consumer queues up behind the previous one
+        assertEquals(15 * NANOS_PER_UNIT, tokenBucket.consume(5));
+    }
+
+    @Test
+    public void testBudgetRefilledOverTime() {
+        tokenBucket.consume(LIMIT_PER_MINUTE);
+        now += 30 * NANOS_PER_UNIT;
+
+        assertEquals(0, tokenBucket.consume(30));
+        assertEquals(NANOS_PER_UNIT, tokenBucket.consume(1));
+    }
+
+    @Test
+    public void testRefillCappedAtLimit() {
+        now += TimeUnit.HOURS.toNanos(1);
+
+        assertEquals(0, tokenBucket.consume(LIMIT_PER_MINUTE));
+        assertEquals(NANOS_PER_UNIT, tokenBucket.consume(1));
+    }
+
+    @Test
+    public void testNegativeConsumeGivesBackBudget() {
+        tokenBucket.consume(LIMIT_PER_MINUTE);
+
+        tokenBucket.consume(-20);
+
+        assertEquals(0, tokenBucket.consume(20));
+        assertEquals(NANOS_PER_UNIT, tokenBucket.consume(1));
+    }
+
+    @Test
+    public void testNegativeConsumeClampedAtLimit() {
+        // An overestimate given back with a full budget must not raise the budget above the limit
+        tokenBucket.consume(-LIMIT_PER_MINUTE);
+
+        assertEquals(0, tokenBucket.consume(LIMIT_PER_MINUTE));
+        assertEquals(NANOS_PER_UNIT, tokenBucket.consume(1));
+    }
+
+    @Test
+    public void testConsumeCappedAtLimit() {
+        // A single request larger than the limit waits for a full minute at most
+        assertEquals(0, tokenBucket.consume(10 * LIMIT_PER_MINUTE));
+        assertEquals(TimeUnit.MINUTES.toNanos(1), tokenBucket.consume(LIMIT_PER_MINUTE));
+    }
+
+    @Test
+    public void testNoLimit() {
+        tokenBucket.setLimitPerMinute(0);
+
+        assertEquals(0, tokenBucket.consume(1000));
+        assertEquals(0, tokenBucket.consume(1000));
+    }
+}
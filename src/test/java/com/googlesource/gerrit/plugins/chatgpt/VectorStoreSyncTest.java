@@ -0,0 +1,279 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.config.PluginConfig;
+import com.googlesource.gerrit.plugins.chatgpt.config.Configuration;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataEmbeddedStorage;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandler;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataHandlerProvider;
+import com.googlesource.gerrit.plugins.chatgpt.data.PluginDataStore;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.api.gerrit.GerritChange;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.client.http.HttpTransport;
+import com.googlesource.gerrit.plugins.chatgpt.mode.common.model.data.ChangeSetData;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptAssistant;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptHttpClient;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.git.GitRepoFiles;
+import com.googlesource.gerrit.plugins.chatgpt.mode.stateful.model.git.GitRepoFilesDiff;
+import okhttp3.Request;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+import static com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptAssistant.KEY_VECTOR_STORE_FILE_IDS;
+import static com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptAssistant.KEY_VECTOR_STORE_TREE_ID;
+import static com.googlesource.gerrit.plugins.chatgpt.mode.stateful.client.api.chatgpt.ChatGptVectorStore.KEY_VECTOR_STORE_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class VectorStoreSyncTest {
+    private static final String PLUGIN_NAME = "chatgpt-code-review-gerrit-plugin";
+    private static final Project.NameKey PROJECT_NAME = Project.NameKey.parse("myProject");
+    private static final String VECTOR_STORE_ID = "vs-1";
+    private static final String LAST_TREE_ID = "tree-0";
+    private static final String TREE_ID = "tree-1";
+    private static final String FILES_URI = "https://api.openai.com/v1/files";
+    private static final String VECTOR_STORES_URI = "https://api.openai.com/v1/vector_stores";
+    private static final String VECTOR_STORE_FILES_URI = "https://api.openai.com/v1/vector_stores/vs-1/files";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Configuration config;
+    private GerritChange change;
+    private PluginDataHandlerProvider pluginDataHandlerProvider;
+    private PluginDataHandler projectDataHandler;
+    private TestChatGptHttpClient httpClient;
+    private TestGitRepoFiles gitRepoFiles;
+
+    @Before
+    public void setUp() {
+        Config jgitConfig = new Config();
+        jgitConfig.setString("plugin", PLUGIN_NAME, "gptToken", "tk-test");
+        jgitConfig.setInt("plugin", PLUGIN_NAME, "vectorStoreMaxIncrementalFiles", 3);
+        PluginConfig pluginConfig = PluginConfig.create(PLUGIN_NAME, jgitConfig, null);
+        config = new Configuration(null, null, pluginConfig, pluginConfig, "gpt@example.com", null);
+        change = new GerritChange(PROJECT_NAME, BranchNameKey.create(PROJECT_NAME, "master"),
+                Change.Key.parse("myChangeId"));
+        PluginDataStore pluginDataStore = new PluginDataStore(new PluginDataEmbeddedStorage(
+                tempFolder.getRoot().toPath(), Duration.ofDays(1)), Executors.newSingleThreadScheduledExecutor());
+        pluginDataHandlerProvider = new PluginDataHandlerProvider(change, pluginDataStore);
+        projectDataHandler = pluginDataHandlerProvider.getProjectScope();
+        projectDataHandler.setValue(KEY_VECTOR_STORE_ID, VECTOR_STORE_ID);
+        projectDataHandler.setValue(KEY_VECTOR_STORE_TREE_ID, LAST_TREE_ID);
+        projectDataHandler.setJsonValue(KEY_VECTOR_STORE_FILE_IDS, Map.of("existing_file.py", "file-0"));
+        httpClient = new TestChatGptHttpClient();
+        gitRepoFiles = new TestGitRepoFiles();
+    }
+
+    @Test
+    public void addedFilesAreUploadedSeparately() {
+        GitRepoFilesDiff gitRepoFilesDiff = new GitRepoFilesDiff(TREE_ID);
+        gitRepoFilesDiff.getChangedFiles().put("new_file.py", "print('new')");
+        gitRepoFilesDiff.getAddedFiles().add("new_file.py");
+        gitRepoFiles.gitRepoFilesDiff = gitRepoFilesDiff;
+
+        assertTrue(createChatGptAssistant().syncVectorStore());
+
+        assertEquals(List.of("POST " + FILES_URI, "POST " + VECTOR_STORE_FILES_URI), httpClient.requests);
+        assertEquals(Map.of("existing_file.py", "file-0", "new_file.py", "file-1"), getFileIds());
+        assertEquals(TREE_ID, projectDataHandler.getValue(KEY_VECTOR_STORE_TREE_ID));
+    }
+
+    @Test
+    public void modifiedFileReplacesItsPreviousVersion() {
+        GitRepoFilesDiff gitRepoFilesDiff = new GitRepoFilesDiff(TREE_ID);
+        gitRepoFilesDiff.getChangedFiles().put("existing_file.py", "print('modified')");
+        gitRepoFiles.gitRepoFilesDiff = gitRepoFilesDiff;
+
+        assertTrue(createChatGptAssistant().syncVectorStore());
+
+        assertEquals(List.of(
+                "DELETE " + VECTOR_STORE_FILES_URI + "/file-0",
+                "DELETE " + FILES_URI + "/file-0",
+                "POST " + FILES_URI,
+                "POST " + VECTOR_STORE_FILES_URI
+        ), httpClient.requests);
+        assertEquals(Map.of("existing_file.py", "file-1"), getFileIds());
+    }
+
+    @Test
+    public void deletedFileIsRemoved() {
+        GitRepoFilesDiff gitRepoFilesDiff = new GitRepoFilesDiff(TREE_ID);
+        gitRepoFilesDiff.getDeletedFiles().add("existing_file.py");
+        gitRepoFiles.gitRepoFilesDiff = gitRepoFilesDiff;
+
+        assertTrue(createChatGptAssistant().syncVectorStore());
+
+        assertEquals(List.of(
+                "DELETE " + VECTOR_STORE_FILES_URI + "/file-0",
+                "DELETE " + FILES_URI + "/file-0"
+        ), httpClient.requests);
+        assertEquals(Map.of(), getFileIds());
+    }
+
+    @Test
+    public void failedSyncRecordsTheFilesSyncedSoFar() {
+        GitRepoFilesDiff gitRepoFilesDiff = new GitRepoFilesDiff(TREE_ID);
+        gitRepoFilesDiff.getChangedFiles().put("existing_file.py", "print('modified')");
+        gitRepoFiles.gitRepoFilesDiff = gitRepoFilesDiff;
+        // Adding the uploaded file to the Vector Store fails
+        httpClient.failingRequestIndex = 3;
+
+        assertFalse(createChatGptAssistant().syncVectorStore());
+
+        // The upload is deleted and the previous version of the file is no longer tracked, as it was removed
+        assertEquals(List.of(
+                "DELETE " + VECTOR_STORE_FILES_URI + "/file-0",
+                "DELETE " + FILES_URI + "/file-0",
+                "POST " + FILES_URI,
+                "POST " + VECTOR_STORE_FILES_URI,
+                "DELETE " + FILES_URI + "/file-1"
+        ), httpClient.requests);
+        assertEquals(Map.of(), getFileIds());
+        assertEquals(LAST_TREE_ID, projectDataHandler.getValue(KEY_VECTOR_STORE_TREE_ID));
+    }
+
+    @Test
+    public void tooManyChangedFilesRequireRebuild() {
+        // The diff is not returned if too many files have changed
+        gitRepoFiles.gitRepoFilesDiff = null;
+
+        assertFalse(createChatGptAssistant().syncVectorStore());
+
+        assertEquals(List.of(), httpClient.requests);
+        assertEquals(LAST_TREE_ID, projectDataHandler.getValue(KEY_VECTOR_STORE_TREE_ID));
+    }
+
+    @Test
+    public void vectorStoreNotSyncedBeforeCreation() {
+        projectDataHandler.removeValue(KEY_VECTOR_STORE_TREE_ID);
+
+        assertFalse(createChatGptAssistant().syncVectorStore());
+
+        assertEquals(List.of(), httpClient.requests);
+    }
+
+    @Test
+    public void vectorStoreWithoutFileIdsRequiresRebuild() {
+        projectDataHandler.removeValue(KEY_VECTOR_STORE_FILE_IDS);
+        gitRepoFiles.gitRepoFilesDiff = new GitRepoFilesDiff(TREE_ID);
+
+        assertFalse(createChatGptAssistant().syncVectorStore());
+
+        assertEquals(List.of(), httpClient.requests);
+    }
+
+    @Test
+    public void vectorStoreIsCreatedFromSeparateFiles() {
+        projectDataHandler.removeValue(KEY_VECTOR_STORE_ID);
+        gitRepoFiles.repoFiles.put("file1.py", "print('1')");
+        gitRepoFiles.repoFiles.put("file2.py", "print('2')");
+
+        assertEquals(VECTOR_STORE_ID, createChatGptAssistant().createVectorStore());
+
+        assertEquals(List.of(
+                "POST " + VECTOR_STORES_URI,
+                "POST " + FILES_URI,
+                "POST " + VECTOR_STORE_FILES_URI,
+                "POST " + FILES_URI,
+                "POST " + VECTOR_STORE_FILES_URI
+        ), httpClient.requests);
+        assertEquals(Map.of("file1.py", "file-1", "file2.py", "file-2"), getFileIds());
+        assertEquals(VECTOR_STORE_ID, projectDataHandler.getValue(KEY_VECTOR_STORE_ID));
+    }
+
+    @Test
+    public void failedCreationDeletesTheUploadedFiles() {
+        projectDataHandler.removeValue(KEY_VECTOR_STORE_ID);
+        gitRepoFiles.repoFiles.put("file1.py", "print('1')");
+        gitRepoFiles.repoFiles.put("file2.py", "print('2')");
+        // The upload of the second file fails
+        httpClient.failingRequestIndex = 3;
+
+        assertThrows(RuntimeException.class, () -> createChatGptAssistant().createVectorStore());
+
+        assertEquals(List.of(
+                "POST " + VECTOR_STORES_URI,
+                "POST " + FILES_URI,
+                "POST " + VECTOR_STORE_FILES_URI,
+                "POST " + FILES_URI,
+                "DELETE " + FILES_URI + "/file-1",
+                "DELETE " + VECTOR_STORES_URI + "/" + VECTOR_STORE_ID
+        ), httpClient.requests);
+        assertNull(projectDataHandler.getValue(KEY_VECTOR_STORE_ID));
+    }
+
+    private ChatGptAssistant createChatGptAssistant() {
+        return new ChatGptAssistant(config, new ChangeSetData(1000000, -1, 1), change, gitRepoFiles,
+                pluginDataHandlerProvider, httpClient);
+    }
+
+    private Map<String, String> getFileIds() {
+        return projectDataHandler.getJsonValue(KEY_VECTOR_STORE_FILE_IDS, String.class);
+    }
+
+    private static class TestChatGptHttpClient extends ChatGptHttpClient {
+        private final List<String> requests = new ArrayList<>();
+        private int failingRequestIndex = -1;
+
+        TestChatGptHttpClient() {
+            super(new HttpTransport());
+        }
+
+        @Override
+        public String execute(Request request) {
+            String sentRequest = request.method() + " " + request.url();
+            requests.add(sentRequest);
+            if (requests.size() - 1 == failingRequestIndex) {
+                throw new RuntimeException("Request failed: " + sentRequest);
+            }
+            if (sentRequest.equals("POST " + VECTOR_STORES_URI)) {
+                return "{\"id\": \"" + VECTOR_STORE_ID + "\"}";
+            }
+            long uploads = requests.stream().filter(r -> r.equals("POST " + FILES_URI)).count();
+            return "{\"id\": \"file-" + uploads + "\"}";
+        }
+    }
+
+    private static class TestGitRepoFiles extends GitRepoFiles {
+        private final Map<String, String> repoFiles = new LinkedHashMap<>();
+        private GitRepoFilesDiff gitRepoFilesDiff;
+
+        TestGitRepoFiles() {
+            super(null);
+        }
+
+        @Override
+        public void forEachGitRepoFile(Configuration config, GerritChange change,
+                BiConsumer<String, String> repoFileConsumer) {
+            repoFiles.forEach(repoFileConsumer);
+        }
+
+        @Override
+        public Optional<GitRepoFilesDiff> getGitRepoFilesDiff(Configuration config, GerritChange change,
+                String lastTreeId) {
+            return Optional.ofNullable(gitRepoFilesDiff);
+        }
+
+        @Override
+        public String getMasterTreeId(GerritChange change) {
+            return TREE_ID;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.googlesource.gerrit.plugins.chatgpt;
+
+import com.googlesource.gerrit.plugins.chatgpt.listener.VirtualThreadExecutor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualThreadExecutorTest {
+    private static final int MAX_CONCURRENCY = 3;
+    private static final int TASK_COUNT = 20;
+
+    private ExecutorService executor;
+
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void fallbackWithoutVirtualThreads() {
+        // An empty executor makes the lanes fall back to the Work Queue
+        Optional<ExecutorService> virtualThreadExecutor = VirtualThreadExecutor.create(MAX_CONCURRENCY, "test");
+        virtualThreadExecutor.ifPresent(ExecutorService::shutdownNow);
+
+        assertEquals(Runtime.version().feature() >= 21, virtualThreadExecutor.isPresent());
+    }
+
+    @Test
+    public void concurrencyIsBounded() throws InterruptedException {
+        // A thread per task, as with virtual threads, so that only the semaphore bounds the concurrency
+        executor = new VirtualThreadExecutor(Executors.newCachedThreadPool(), MAX_CONCURRENCY, "test");
+        AtomicInteger runningTasks = new AtomicInteger();
+        AtomicInteger maxRunningTasks = new AtomicInteger();
+        CountDownLatch completedTasks = new CountDownLatch(TASK_COUNT);
+
+        for (int i = 0; i < TASK_COUNT; i++) {
+            executor.execute(() -> {
+                maxRunningTasks.accumulateAndGet(runningTasks.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                runningTasks.decrementAndGet();
+                completedTasks.countDown();
+            });
+        }
+
+        assertTrue(completedTasks.await(10, TimeUnit.SECONDS));
+        assertEquals(MAX_CONCURRENCY, maxRunningTasks.get());
+    }
+
+    @Test
+    public void failedTaskReleasesItsPermit() throws InterruptedException {
+        executor = new VirtualThreadExecutor(Executors.newCachedThreadPool(), 1, "test");
+        CountDownLatch completedTask = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            throw new RuntimeException("Task failed");
+        });
+        executor.execute(completedTask::countDown);
+
+        assertTrue(completedTask.await(10, TimeUnit.SECONDS));
+    }
+}